@@ -0,0 +1,35 @@
+package com.ronildo.challenge.hotelchallenge.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfiguration.class);
+
+    @Test
+    void platformThreadsByDefault() {
+        contextRunner.run(context -> assertThat(context)
+                .doesNotHaveBean(VirtualThreadConfiguration.class)
+                .doesNotHaveBean(TomcatProtocolHandlerCustomizer.class));
+    }
+
+    @Test
+    void runsTasksOnVirtualThreads() {
+        contextRunner
+                .withPropertyValues("reservation.web.threads=virtual")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class);
+                    Future<Boolean> isVirtual = context.getBean(AsyncTaskExecutor.class)
+                            .submit(() -> Thread.currentThread().isVirtual());
+                    assertThat(isVirtual.get()).isTrue();
+                });
+    }
+}
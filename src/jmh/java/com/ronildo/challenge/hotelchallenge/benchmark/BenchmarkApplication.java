@@ -0,0 +1,92 @@
+package com.ronildo.challenge.hotelchallenge.benchmark;
+
+import com.ronildo.challenge.hotelchallenge.HotelChallengeApplication;
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.availability.BookingCalendar;
+import com.ronildo.challenge.hotelchallenge.service.impl.JournalReservationService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Profiles;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+final class BenchmarkApplication {
+
+    private static final int BATCH_SIZE = 10_000;
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(int reservations, String... properties) {
+        return start(WebApplicationType.NONE, reservations, properties);
+    }
+
+    static ConfigurableApplicationContext startWeb(int reservations, String... properties) {
+        return start(WebApplicationType.SERVLET, reservations, properties);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType webApplicationType, int reservations,
+                                                        String... properties) {
+        String database = "benchmark-" + reservations;
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.url=r2dbc:h2:mem:///" + database + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--server.port=0",
+                "--reservation.admission.enabled=false",
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(HotelChallengeApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(new String[0]));
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:" + database, "sa", ""));
+        insertHistory(jdbcTemplate, reservations);
+
+        Iterable<Reservation> stored;
+        if (context.getEnvironment().acceptsProfiles(Profiles.of("reactive"))) {
+            stored = jdbcTemplate.query("SELECT id, initial_date, final_date FROM reservation", (row, i) ->
+                    new Reservation(row.getLong(1), row.getDate(2).toLocalDate(), row.getDate(3).toLocalDate()));
+        } else if (context.getBeanProvider(JournalReservationService.class).getIfAvailable() == null) {
+            stored = context.getBean(ReservationRepository.class).findAll();
+        } else {
+            return context;
+        }
+        context.getBean(AvailabilityIndex.class).load(stored);
+        context.getBean(BookingCalendar.class).load(stored);
+        return context;
+    }
+
+    private static void insertHistory(JdbcTemplate jdbcTemplate, int reservations) {
+        LocalDate today = LocalDate.now();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < reservations; i++) {
+            LocalDate initialDate = today.minusDays(5 + i % 3650);
+            LocalDate finalDate = initialDate.plusDays(1 + i % 3);
+            batch.add(new Object[]{Date.valueOf(initialDate), Date.valueOf(finalDate)});
+            if (batch.size() == BATCH_SIZE) {
+                flush(jdbcTemplate, batch);
+            }
+        }
+        flush(jdbcTemplate, batch);
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO reservation (id, initial_date, final_date) "
+                    + "VALUES (NEXT VALUE FOR reservation_seq, ?, ?)", batch);
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.ronildo.challenge.hotelchallenge.benchmark;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Room;
+import com.ronildo.challenge.hotelchallenge.data.entity.RoomType;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomTypeRepository;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(32)
+public class BookingThroughputBenchmark {
+
+    private static final int ROOMS = 100;
+
+    @Param({"direct", "sequenced", "journal"})
+    String mode;
+
+    private ConfigurableApplicationContext context;
+    private IReservationService reservationService;
+    private final List<Long> rooms = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = "journal".equals(mode)
+                ? BenchmarkApplication.start(1000, "reservation.persistence=journal",
+                "reservation.journal.directory=" + Files.createTempDirectory("journal"))
+                : BenchmarkApplication.start(1000, "reservation.writes.mode=" + mode);
+        reservationService = context.getBean(IReservationService.class);
+        RoomType roomType = context.getBean(RoomTypeRepository.class).save(new RoomType(null, "Double"));
+        RoomRepository roomRepository = context.getBean(RoomRepository.class);
+        for (int i = 0; i < ROOMS; i++) {
+            rooms.add(roomRepository.save(new Room(null, String.valueOf(100 + i), roomType.getId())).getId());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean bookAndCancel() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate initialDate = LocalDate.now().plusDays(random.nextInt(1, 28));
+        Long roomId = rooms.get(random.nextInt(ROOMS));
+        try {
+            ReservationDTO reservation = reservationService.createReservation(
+                    new ReservationDTO(null, initialDate, initialDate.plusDays(random.nextInt(1, 4)), roomId));
+            reservationService.deleteReservation(reservation.getId());
+            return true;
+        } catch (DatesNotAvailableForReservationException e) {
+            return false;
+        }
+    }
+}
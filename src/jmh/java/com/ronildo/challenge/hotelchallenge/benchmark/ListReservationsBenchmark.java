@@ -0,0 +1,48 @@
+package com.ronildo.challenge.hotelchallenge.benchmark;
+
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.json.JsonBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ListReservationsBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int reservations;
+
+    private ConfigurableApplicationContext context;
+    private IReservationService reservationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(reservations);
+        reservationService = context.getBean(IReservationService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ReservationDTO> listAllReservations() {
+        return reservationService.listAllReservations();
+    }
+
+    @Benchmark
+    public int listAllReservationsAsJson() {
+        try (JsonBuffer json = reservationService.listAllReservationsAsJson()) {
+            return json.length();
+        }
+    }
+}
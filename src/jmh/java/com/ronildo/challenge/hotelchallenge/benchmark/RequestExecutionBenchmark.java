@@ -0,0 +1,67 @@
+package com.ronildo.challenge.hotelchallenge.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Threads(256)
+public class RequestExecutionBenchmark {
+
+    @Param({"platform", "virtual"})
+    String mode;
+
+    @Param("32")
+    int serverThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest page;
+    private HttpRequest checkAvailability;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.startWeb(100_000,
+                "reactive".equals(mode) ? "spring.profiles.active=reactive" : "reservation.web.threads=" + mode,
+                "server.tomcat.threads.max=" + serverThreads);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        URI api = URI.create("http://localhost:" + port + "/api/reservations");
+
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        page = HttpRequest.newBuilder(URI.create(api + "?limit=100&fromDate=" + LocalDate.now().minusYears(1)))
+                .GET()
+                .build();
+        checkAvailability = HttpRequest.newBuilder(URI.create(api + "/check_availability?initialDate="
+                        + LocalDate.now().plusDays(1) + "&finalDate=" + LocalDate.now().plusDays(3)))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int pageOfReservations() throws IOException, InterruptedException {
+        return client.send(page, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    @Benchmark
+    public int checkAvailability() throws IOException, InterruptedException {
+        return client.send(checkAvailability, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,103 @@
+package com.ronildo.challenge.hotelchallenge.benchmark;
+
+import com.ronildo.challenge.hotelchallenge.controller.validation.ReservationDatesValidator;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import org.openjdk.jmh.annotations.*;
+
+import javax.validation.ClockProvider;
+import javax.validation.ConstraintValidatorContext;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationDatesValidatorBenchmark {
+
+    private final ReservationDatesValidator validator = new ReservationDatesValidator();
+    private final ConstraintValidatorContext context = new NoOpConstraintValidatorContext();
+
+    private ReservationDTO validReservation;
+    private ReservationDTO invalidReservation;
+
+    @Setup
+    public void setUp() {
+        LocalDate initialDate = LocalDate.now().plusDays(1);
+        validReservation = new ReservationDTO(null, initialDate, initialDate.plusDays(2));
+        invalidReservation = new ReservationDTO(null, initialDate.plusDays(40), initialDate.plusDays(30));
+    }
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(validReservation, context);
+    }
+
+    @Benchmark
+    public boolean isValidWithViolations() {
+        return validator.isValid(invalidReservation, context);
+    }
+
+    @SuppressWarnings("deprecation")
+    private static class NoOpConstraintValidatorContext implements ConstraintValidatorContext {
+
+        private final ConstraintViolationBuilder builder = new ConstraintViolationBuilder() {
+            @Override
+            public NodeBuilderDefinedContext addNode(String name) {
+                return null;
+            }
+
+            @Override
+            public NodeBuilderCustomizableContext addPropertyNode(String name) {
+                return null;
+            }
+
+            @Override
+            public LeafNodeBuilderCustomizableContext addBeanNode() {
+                return null;
+            }
+
+            @Override
+            public ContainerElementNodeBuilderCustomizableContext addContainerElementNode(
+                    String name, Class<?> containerType, Integer typeArgumentIndex) {
+                return null;
+            }
+
+            @Override
+            public NodeBuilderDefinedContext addParameterNode(int index) {
+                return null;
+            }
+
+            @Override
+            public ConstraintValidatorContext addConstraintViolation() {
+                return NoOpConstraintValidatorContext.this;
+            }
+        };
+
+        @Override
+        public void disableDefaultConstraintViolation() {
+        }
+
+        @Override
+        public String getDefaultConstraintMessageTemplate() {
+            return "";
+        }
+
+        @Override
+        public ClockProvider getClockProvider() {
+            return null;
+        }
+
+        @Override
+        public ConstraintViolationBuilder buildConstraintViolationWithTemplate(String messageTemplate) {
+            return builder;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> type) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
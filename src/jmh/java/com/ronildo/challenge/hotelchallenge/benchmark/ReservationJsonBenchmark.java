@@ -0,0 +1,72 @@
+package com.ronildo.challenge.hotelchallenge.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.service.json.JsonBuffer;
+import com.ronildo.challenge.hotelchallenge.service.json.ReservationJsonCodec;
+import com.ronildo.challenge.hotelchallenge.service.mapper.ReservationMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationJsonBenchmark {
+
+    @Param({"1000", "100000"})
+    int reservations;
+
+    private final ReservationMapper reservationMapper = Mappers.getMapper(ReservationMapper.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ReservationJsonCodec codec = new ReservationJsonCodec(4, Integer.MAX_VALUE);
+    private final OutputStream response = new DiscardingOutputStream();
+
+    private List<Reservation> stored;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        stored = new ArrayList<>(reservations);
+        for (long id = 1; id <= reservations; id++) {
+            LocalDate initialDate = today.plusDays(ThreadLocalRandom.current().nextInt(-60, 30));
+            Long roomId = id % 2 == 0 ? id % 100 : null;
+            stored.add(new Reservation(id, initialDate, initialDate.plusDays(2), roomId));
+        }
+    }
+
+    @Benchmark
+    public void jackson() throws IOException {
+        objectMapper.writeValue(response, reservationMapper.mapReservationToReservationDTO(stored));
+    }
+
+    @Benchmark
+    public void codec() throws IOException {
+        try (JsonBuffer json = codec.encode(stored)) {
+            json.writeTo(response);
+        }
+    }
+
+    // unlike OutputStream.nullOutputStream(), stays usable after Jackson closes it
+    private static class DiscardingOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
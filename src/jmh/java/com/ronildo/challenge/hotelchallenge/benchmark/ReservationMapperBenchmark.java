@@ -0,0 +1,60 @@
+package com.ronildo.challenge.hotelchallenge.benchmark;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.mapper.ReservationMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationMapperBenchmark {
+
+    private final ReservationMapper reservationMapper = Mappers.getMapper(ReservationMapper.class);
+
+    private Reservation reservation;
+    private ReservationDTO reservationDTO;
+    private List<Reservation> reservations;
+
+    @Setup
+    public void setUp() {
+        LocalDate initialDate = LocalDate.now().plusDays(1);
+        reservation = new Reservation(1L, initialDate, initialDate.plusDays(2));
+        reservationDTO = new ReservationDTO(null, initialDate, initialDate.plusDays(2));
+        reservations = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            reservations.add(new Reservation(id, initialDate, initialDate.plusDays(2)));
+        }
+    }
+
+    @Benchmark
+    public ReservationDTO mapReservationToReservationDTO() {
+        return reservationMapper.mapReservationToReservationDTO(reservation);
+    }
+
+    @Benchmark
+    public Reservation mapReservationDTOToReservation() {
+        return reservationMapper.mapReservationDTOToReservation(reservationDTO);
+    }
+
+    @Benchmark
+    public Collection<ReservationDTO> mapThousandReservations() {
+        return reservationMapper.mapReservationToReservationDTO(reservations);
+    }
+
+    @Benchmark
+    public Reservation updateReservationFromDTO() {
+        reservationMapper.updateReservationFromDTO(reservationDTO, reservation);
+        return reservation;
+    }
+}
@@ -0,0 +1,68 @@
+package com.ronildo.challenge.hotelchallenge.benchmark;
+
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.ronildo.challenge.hotelchallenge.data.shard.HotelContext.DEFAULT_HOTEL;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReservationServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    int reservations;
+
+    private ConfigurableApplicationContext context;
+    private IReservationService reservationService;
+    private ReservationRepository reservationRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(reservations);
+        reservationService = context.getBean(IReservationService.class);
+        reservationRepository = context.getBean(ReservationRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Boolean checkAvailability() {
+        LocalDate initialDate = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 28));
+        return reservationService.checkAvailability(initialDate, initialDate.plusDays(2), null);
+    }
+
+    @Benchmark
+    public boolean existsOverlappingQuery() {
+        LocalDate initialDate = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 28));
+        return reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, initialDate, initialDate.plusDays(2), null);
+    }
+
+    @Benchmark
+    public boolean existsOverlappingHistoryQuery() {
+        LocalDate initialDate = LocalDate.now().minusDays(ThreadLocalRandom.current().nextInt(5, 3650));
+        return reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, initialDate, initialDate.plusDays(2), null);
+    }
+
+    @Benchmark
+    public ReservationDTO createReservation() {
+        LocalDate initialDate = LocalDate.now().plusDays(10);
+        ReservationDTO created = reservationService.createReservation(
+                new ReservationDTO(null, initialDate, initialDate.plusDays(2)));
+        reservationService.deleteReservation(created.getId());
+        return created;
+    }
+}
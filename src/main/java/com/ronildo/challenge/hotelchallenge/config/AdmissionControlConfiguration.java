@@ -0,0 +1,23 @@
+package com.ronildo.challenge.hotelchallenge.config;
+
+import com.ronildo.challenge.hotelchallenge.controller.admission.AdmissionControlInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration(proxyBeanMethods = false)
+@RequiredArgsConstructor
+@Profile("!reactive")
+@ConditionalOnProperty(name = "reservation.admission.enabled", havingValue = "true")
+public class AdmissionControlConfiguration implements WebMvcConfigurer {
+
+    private final AdmissionControlInterceptor admissionControlInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionControlInterceptor);
+    }
+}
@@ -0,0 +1,22 @@
+package com.ronildo.challenge.hotelchallenge.config;
+
+import com.ronildo.challenge.hotelchallenge.controller.hotel.HotelContextInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration(proxyBeanMethods = false)
+@RequiredArgsConstructor
+@Profile("!reactive")
+public class HotelContextConfiguration implements WebMvcConfigurer {
+
+    private final HotelContextInterceptor hotelContextInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(hotelContextInterceptor).order(Ordered.HIGHEST_PRECEDENCE);
+    }
+}
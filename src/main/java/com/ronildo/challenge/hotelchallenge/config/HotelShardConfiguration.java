@@ -0,0 +1,79 @@
+package com.ronildo.challenge.hotelchallenge.config;
+
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelShardRoutingDataSource;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelShards;
+import com.ronildo.challenge.hotelchallenge.data.shard.ShardSchemaIntegrator;
+import com.ronildo.challenge.hotelchallenge.data.shard.ShardSequenceStyleGenerator;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.jpa.AvailableSettings;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.spi.IdentifierGeneratorStrategyProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Configuration(proxyBeanMethods = false)
+@Profile("!reactive")
+public class HotelShardConfiguration {
+
+    public static final String SHARDS = "reservation.datasource.shards";
+
+    @Bean
+    public HotelShards hotelShards(
+            @Value("${" + SHARDS + ".names:}") List<String> names,
+            @Value("${" + SHARDS + ".points-per-shard:160}") int pointsPerShard) {
+        return names.isEmpty() ? HotelShards.single() : new HotelShards(names, pointsPerShard);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(name = SHARDS + ".names")
+    static class ShardDataSourceConfiguration {
+
+        @Bean
+        @Primary
+        public HotelShardRoutingDataSource dataSource(HotelShards hotelShards, Environment environment) {
+            Binder binder = Binder.get(environment);
+            Map<String, DataSource> pools = new LinkedHashMap<>();
+            for (String shard : hotelShards.names()) {
+                String prefix = SHARDS + "." + shard;
+                DataSourceProperties properties = binder.bind(prefix, DataSourceProperties.class)
+                        .orElseThrow(() -> new IllegalStateException("Shard " + shard + " has no " + prefix + ".url"));
+                HikariDataSource pool = properties.initializeDataSourceBuilder()
+                        .type(HikariDataSource.class)
+                        .build();
+                binder.bind(SHARDS + ".hikari", Bindable.ofInstance(pool));
+                binder.bind(prefix + ".hikari", Bindable.ofInstance(pool));
+                pool.setPoolName("shard-" + shard);
+                pools.put(shard, pool);
+            }
+            return new HotelShardRoutingDataSource(pools, hotelShards);
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer shardHibernatePropertiesCustomizer(HotelShards hotelShards) {
+            IntegratorProvider integrators = () -> Collections.singletonList(new ShardSchemaIntegrator(hotelShards));
+            IdentifierGeneratorStrategyProvider generators = () -> Collections.singletonMap(
+                    SequenceStyleGenerator.class.getName(), ShardSequenceStyleGenerator.class);
+            return properties -> {
+                properties.put(EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER, integrators);
+                properties.put(AvailableSettings.IDENTIFIER_GENERATOR_STRATEGY_PROVIDER, generators);
+            };
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ronildo.challenge.hotelchallenge.controller;
+
+import com.ronildo.challenge.hotelchallenge.service.IReservationArchiveService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ArchivedReservationDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static com.ronildo.challenge.hotelchallenge.controller.hotel.HotelContextInterceptor.HOTEL_PATH;
+
+@RestController
+@RequestMapping({"api/reservations/archive", HOTEL_PATH + "/reservations/archive"})
+@RequiredArgsConstructor
+@Validated
+@Profile("!reactive")
+public class ReservationArchiveController {
+
+    private final IReservationArchiveService reservationArchiveService;
+
+    @GetMapping
+    public ResponseEntity<?> pageOfArchivedReservations(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        List<ArchivedReservationDTO> reservations =
+                reservationArchiveService.listArchivedReservations(afterId, fromDate, toDate, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (reservations.size() == limit) {
+            URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("afterId", reservations.get(reservations.size() - 1).getId())
+                    .build()
+                    .toUri();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(reservations);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> findOneArchivedReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(reservationArchiveService.findArchivedById(id));
+    }
+
+    @PostMapping("/run")
+    public ResponseEntity<?> archiveCompletedReservations() {
+        return ResponseEntity.ok(Collections.singletonMap("archived",
+                reservationArchiveService.archiveCompletedReservations()));
+    }
+}
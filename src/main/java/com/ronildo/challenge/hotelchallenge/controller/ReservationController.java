@@ -1,50 +1,157 @@
 package com.ronildo.challenge.hotelchallenge.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.ronildo.challenge.hotelchallenge.controller.validation.ReservationDates;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationModifiedException;
 import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
 import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.SuggestedStayDTO;
+import com.ronildo.challenge.hotelchallenge.service.idempotency.IdempotentRequests;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.servlet.mvc.method.annotation.MvcUriComponentsBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
+import static com.ronildo.challenge.hotelchallenge.controller.hotel.HotelContextInterceptor.HOTEL_PATH;
+
 @RestController
-@RequestMapping("api/reservations")
+@RequestMapping({"api/reservations", HOTEL_PATH + "/reservations"})
 @RequiredArgsConstructor
 @Validated
+@Profile("!reactive")
 public class ReservationController {
 
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final int MAX_BULK_SIZE = 5000;
+    public static final int MAX_SUGGESTIONS = 30;
+
     private final IReservationService reservationService;
+    private final ObjectMapper objectMapper;
+    private final IdempotentRequests idempotentRequests;
 
     @GetMapping
-    public ResponseEntity<?> allReservations() {
-        List<ReservationDTO> reservations = reservationService.listAllReservations();
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<?> allReservations(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = "W/" + eTag(reservationService.findAllReservationsVersion());
+        if (ifNoneMatch != null && anyMatches(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(reservationService.listAllReservationsAsJson());
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<?> pageOfReservations(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam @Min(1) @Max(1000) int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        List<ReservationDTO> reservations = reservationService.listReservations(afterId, fromDate, toDate, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (reservations.size() == limit) {
+            URI next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("afterId", reservations.get(reservations.size() - 1).getId())
+                    .build()
+                    .toUri();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(reservations);
+    }
+
+    @GetMapping(value = "/stream", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReservationsAsNdjson(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        ObjectWriter writer = streamWriter().withRootValueSeparator("\n");
+        String hotelId = HotelContext.hotelId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(outputStream -> {
+                    try (SequenceWriter sequence = writer.writeValues(outputStream)) {
+                        streamReservations(hotelId, fromDate, toDate, sequence);
+                    }
+                });
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamReservationsAsJsonArray(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        ObjectWriter writer = streamWriter();
+        String hotelId = HotelContext.hotelId();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> {
+                    try (SequenceWriter sequence = writer.writeValuesAsArray(outputStream)) {
+                        streamReservations(hotelId, fromDate, toDate, sequence);
+                    }
+                });
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> findOneReservation(@PathVariable Long id) {
-        return ResponseEntity.ok(reservationService.findOneById(id));
+    public ResponseEntity<?> findOneReservation(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String eTag = eTag(reservationService.findVersionById(id));
+            if (anyMatches(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+
+        ReservationDTO reservation = reservationService.findOneById(id);
+        return ResponseEntity.ok().eTag(eTag(reservation.getVersion())).body(reservation);
     }
 
     @PostMapping
     public ResponseEntity<ReservationDTO> saveReservation(
+            @RequestHeader(name = IdempotentRequests.IDEMPOTENCY_KEY, required = false) @Size(max = 255) String idempotencyKey,
             @Valid @ReservationDates @RequestBody ReservationDTO newReservation) {
-        ReservationDTO reservation = reservationService.createReservation(newReservation);
+        return idempotentRequests.execute(idempotencyKey, "POST", newReservation, ReservationDTO.class, () -> {
+            ReservationDTO reservation = reservationService.createReservation(newReservation);
+
+            URI uri = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                    .path("/{id}")
+                    .buildAndExpand(reservation.getId())
+                    .toUri();
 
-        URI uri = MvcUriComponentsBuilder.fromController(getClass())
-                .path("/{id}")
-                .buildAndExpand(reservation.getId())
-                .toUri();
+            return ResponseEntity.created(uri).eTag(eTag(reservation.getVersion())).body(reservation);
+        });
+    }
 
-        return ResponseEntity.created(uri).body(reservation);
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkReservationResultDTO>> saveReservations(
+            @RequestBody @NotEmpty @Size(max = MAX_BULK_SIZE) List<ReservationDTO> newReservations) {
+        return ResponseEntity.ok(reservationService.createReservations(newReservations));
     }
 
     @GetMapping("/check_availability")
@@ -54,12 +161,36 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.checkAvailability(initialDate, finalDate, null));
     }
 
+    @GetMapping("/calendar")
+    public ResponseEntity<?> availabilityCalendar(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        return ResponseEntity.ok(reservationService.getAvailabilityCalendar(fromDate, toDate));
+    }
+
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<SuggestedStayDTO>> suggestStays(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate initialDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate finalDate,
+            @RequestParam(required = false) Long roomId,
+            @RequestParam(defaultValue = "5") @Min(1) @Max(MAX_SUGGESTIONS) int limit) {
+        return ResponseEntity.ok(reservationService.suggestStays(initialDate, finalDate, roomId, limit));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ReservationDTO> updateReservation(
             @PathVariable Long id,
+            @RequestHeader(name = IdempotentRequests.IDEMPOTENCY_KEY, required = false) @Size(max = 255) String idempotencyKey,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @ReservationDates @RequestBody ReservationDTO reservation) {
+        if (ifMatch != null) {
+            reservation.setVersion(matchingVersion(id, ifMatch));
+        }
 
-        return ResponseEntity.ok(reservationService.updateReservation(id, reservation));
+        return idempotentRequests.execute(idempotencyKey, "PUT " + id + " " + ifMatch, reservation, ReservationDTO.class, () -> {
+            ReservationDTO updated = reservationService.updateReservation(id, reservation);
+            return ResponseEntity.ok().eTag(eTag(updated.getVersion())).body(updated);
+        });
     }
 
     @DeleteMapping("/{id}")
@@ -68,4 +199,67 @@ public class ReservationController {
         return ResponseEntity.noContent().build();
     }
 
+    private static String eTag(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    private static boolean anyMatches(String ifNoneMatch, String eTag) {
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*") || withoutWeakPrefix(tag).equals(withoutWeakPrefix(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String withoutWeakPrefix(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+
+    private Long matchingVersion(Long id, String ifMatch) {
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return null;
+            }
+            if (isVersionTag(tag)) {
+                versions.add(Long.valueOf(tag.substring(1, tag.length() - 1)));
+            }
+        }
+        if (versions.size() == 1) {
+            return versions.get(0);
+        }
+        Long current = versions.isEmpty() ? null : reservationService.findOneById(id).getVersion();
+        if (current == null || !versions.contains(current)) {
+            throw new ReservationModifiedException(id);
+        }
+        return current;
+    }
+
+    private static boolean isVersionTag(String tag) {
+        return tag.length() > 2 && tag.length() <= 20 && tag.startsWith("\"") && tag.endsWith("\"")
+                && tag.substring(1, tag.length() - 1).chars().allMatch(Character::isDigit);
+    }
+
+    private ObjectWriter streamWriter() {
+        return objectMapper.writerFor(ReservationDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private void streamReservations(String hotelId, LocalDate fromDate, LocalDate toDate, SequenceWriter sequence) {
+        HotelContext.call(hotelId, null, () -> {
+            reservationService.streamReservations(fromDate, toDate, reservation -> {
+                try {
+                    sequence.write(reservation);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return null;
+        });
+    }
+
 }
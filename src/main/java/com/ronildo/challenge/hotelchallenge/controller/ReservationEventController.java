@@ -0,0 +1,46 @@
+package com.ronildo.challenge.hotelchallenge.controller;
+
+import com.ronildo.challenge.hotelchallenge.exception.ChangeFeedUnavailableException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationEventService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationEventDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.ronildo.challenge.hotelchallenge.controller.hotel.HotelContextInterceptor.HOTEL_PATH;
+
+@RestController
+@RequestMapping({"api/reservations/events", HOTEL_PATH + "/reservations/events"})
+@RequiredArgsConstructor
+@Validated
+@Profile("!reactive")
+public class ReservationEventController {
+
+    // below the 30 second default async timeout of servlet containers
+    public static final int MAX_WAIT_SECONDS = 25;
+
+    private final ObjectProvider<IReservationEventService> reservationEventService;
+
+    @GetMapping
+    public CompletableFuture<List<ReservationEventDTO>> eventsAfter(
+            @RequestParam(defaultValue = "0") @Min(0) long after,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit,
+            @RequestParam(defaultValue = "0") @Min(0) @Max(MAX_WAIT_SECONDS) int wait) {
+        IReservationEventService events = reservationEventService.getIfAvailable();
+        if (events == null) {
+            throw new ChangeFeedUnavailableException();
+        }
+        return events.awaitEvents(after, limit, Duration.ofSeconds(wait));
+    }
+}
@@ -0,0 +1,78 @@
+package com.ronildo.challenge.hotelchallenge.controller;
+
+import com.ronildo.challenge.hotelchallenge.service.IRoomService;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomTypeDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.validation.Valid;
+import java.net.URI;
+import java.time.LocalDate;
+
+import static com.ronildo.challenge.hotelchallenge.controller.hotel.HotelContextInterceptor.HOTEL_PATH;
+
+@RestController
+@RequestMapping({"api/rooms", HOTEL_PATH + "/rooms"})
+@RequiredArgsConstructor
+@Profile("!reactive")
+public class RoomController {
+
+    private final IRoomService roomService;
+
+    @GetMapping("/types")
+    public ResponseEntity<?> allRoomTypes() {
+        return ResponseEntity.ok(roomService.listRoomTypes());
+    }
+
+    @GetMapping("/types/{id}")
+    public ResponseEntity<?> findOneRoomType(@PathVariable Long id) {
+        return ResponseEntity.ok(roomService.findRoomTypeById(id));
+    }
+
+    @PostMapping("/types")
+    public ResponseEntity<RoomTypeDTO> saveRoomType(@Valid @RequestBody RoomTypeDTO newRoomType) {
+        RoomTypeDTO roomType = roomService.createRoomType(newRoomType);
+
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(roomType.getId())
+                .toUri();
+
+        return ResponseEntity.created(uri).body(roomType);
+    }
+
+    @GetMapping
+    public ResponseEntity<?> allRooms(@RequestParam(required = false) Long roomTypeId) {
+        return ResponseEntity.ok(roomService.listRooms(roomTypeId));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> findOneRoom(@PathVariable Long id) {
+        return ResponseEntity.ok(roomService.findRoomById(id));
+    }
+
+    @PostMapping
+    public ResponseEntity<RoomDTO> saveRoom(@Valid @RequestBody RoomDTO newRoom) {
+        RoomDTO room = roomService.createRoom(newRoom);
+
+        URI uri = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(room.getId())
+                .toUri();
+
+        return ResponseEntity.created(uri).body(room);
+    }
+
+    @GetMapping("/free_room")
+    public ResponseEntity<?> findFreeRoom(
+            @RequestParam Long roomTypeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate initialDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate finalDate) {
+        return ResponseEntity.ok(roomService.findFreeRoom(roomTypeId, initialDate, finalDate));
+    }
+}
@@ -0,0 +1,122 @@
+package com.ronildo.challenge.hotelchallenge.controller.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronildo.challenge.hotelchallenge.controller.ReservationController;
+import com.ronildo.challenge.hotelchallenge.exception.RateLimitExceededException;
+import com.ronildo.challenge.hotelchallenge.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "reservation.admission.enabled", havingValue = "true")
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    public static final String REJECTED_COUNTER = "reservation.api.rejected";
+    public static final String IN_FLIGHT_WRITES_GAUGE = "reservation.api.writes.in.flight";
+
+    private static final String WRITE_PERMIT = AdmissionControlInterceptor.class.getName() + ".WRITE_PERMIT";
+
+    private final Budget reads;
+    private final Budget writes;
+    private final Semaphore writePermits;
+    private final long queueTimeoutNanos;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionControlInterceptor(
+            @Value("${reservation.admission.read.capacity:100}") int readCapacity,
+            @Value("${reservation.admission.read.per-second:50}") double readsPerSecond,
+            @Value("${reservation.admission.write.capacity:20}") int writeCapacity,
+            @Value("${reservation.admission.write.per-second:5}") double writesPerSecond,
+            @Value("${reservation.admission.maximum-clients:100000}") long maximumClients,
+            @Value("${reservation.admission.max-in-flight-writes:${spring.datasource.hikari.maximum-pool-size:10}}") int maxInFlightWrites,
+            @Value("${reservation.admission.queue-timeout:PT0.05S}") Duration queueTimeout,
+            @Value("${reservation.admission.retry-after:PT1S}") Duration retryAfter,
+            MeterRegistry meterRegistry) {
+        this.reads = new Budget("read", readCapacity, readsPerSecond, maximumClients);
+        this.writes = new Budget("write", writeCapacity, writesPerSecond, maximumClients);
+        this.writePermits = new Semaphore(maxInFlightWrites);
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+        this.retryAfterSeconds = Math.max(1, retryAfter.getSeconds());
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge(IN_FLIGHT_WRITES_GAUGE, writePermits,
+                permits -> maxInFlightWrites - permits.availablePermits());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws InterruptedException {
+        // async dispatches of streamed responses were admitted with their request
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod)
+                || ((HandlerMethod) handler).getBeanType() != ReservationController.class) {
+            return true;
+        }
+
+        boolean write = !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod());
+        Budget budget = write ? writes : reads;
+        long waitNanos = budget.bucketOf(request.getRemoteAddr()).tryAcquire(System.nanoTime());
+        if (waitNanos > 0) {
+            countRejected("rate_limited", budget);
+            throw new RateLimitExceededException(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+
+        if (write) {
+            if (!writePermits.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                countRejected("overloaded", budget);
+                throw new ServiceOverloadedException(retryAfterSeconds);
+            }
+            request.setAttribute(WRITE_PERMIT, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(WRITE_PERMIT) != null) {
+            request.removeAttribute(WRITE_PERMIT);
+            writePermits.release();
+        }
+    }
+
+    private void countRejected(String reason, Budget budget) {
+        meterRegistry.counter(REJECTED_COUNTER, "reason", reason, "budget", budget.name).increment();
+    }
+
+    private static class Budget {
+
+        final String name;
+        final int capacity;
+        final double tokensPerSecond;
+        final Cache<String, TokenBucket> buckets;
+
+        Budget(String name, int capacity, double tokensPerSecond, long maximumClients) {
+            this.name = name;
+            this.capacity = capacity;
+            this.tokensPerSecond = tokensPerSecond;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumClients)
+                    .expireAfterAccess(Duration.ofMillis(Math.max(1, (long) (capacity * 1000 / tokensPerSecond))))
+                    .build();
+        }
+
+        TokenBucket bucketOf(String client) {
+            return buckets.get(client, key -> new TokenBucket(capacity, tokensPerSecond, System.nanoTime()));
+        }
+    }
+}
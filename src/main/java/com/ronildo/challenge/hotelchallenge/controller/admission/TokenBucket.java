@@ -0,0 +1,30 @@
+package com.ronildo.challenge.hotelchallenge.controller.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, double tokensPerSecond, long now) {
+        this.nanosPerToken = (long) (1_000_000_000L / tokensPerSecond);
+        this.burstNanos = capacity * nanosPerToken;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long missing = next - now - burstNanos;
+            if (missing > 0) {
+                return missing;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
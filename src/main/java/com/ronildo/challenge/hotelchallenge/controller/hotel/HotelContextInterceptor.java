@@ -0,0 +1,40 @@
+package com.ronildo.challenge.hotelchallenge.controller.hotel;
+
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+@Component
+@Profile("!reactive")
+public class HotelContextInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String HOTEL_ID = "hotelId";
+    public static final String HOTEL_PATH = "api/hotels/{" + HOTEL_ID + ":[a-z0-9][a-z0-9-]{0,63}}";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        HotelContext.bind(variables != null ? variables.get(HOTEL_ID) : null);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        HotelContext.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        HotelContext.clear();
+    }
+}
@@ -0,0 +1,48 @@
+package com.ronildo.challenge.hotelchallenge.controller.json;
+
+import com.ronildo.challenge.hotelchallenge.service.json.JsonBuffer;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+@Component
+@Profile("!reactive")
+public class JsonBufferHttpMessageConverter extends AbstractHttpMessageConverter<JsonBuffer> {
+
+    public JsonBufferHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return JsonBuffer.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected JsonBuffer readInternal(Class<? extends JsonBuffer> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Encoded JSON bodies are only written", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(JsonBuffer buffer, MediaType contentType) {
+        return (long) buffer.length();
+    }
+
+    @Override
+    protected void writeInternal(JsonBuffer buffer, HttpOutputMessage outputMessage) throws IOException {
+        try (buffer) {
+            buffer.writeTo(outputMessage.getBody());
+        }
+    }
+}
@@ -6,39 +6,48 @@ import javax.validation.ConstraintValidator;
 import javax.validation.ConstraintValidatorContext;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static java.time.temporal.ChronoUnit.DAYS;
 
 public class ReservationDatesValidator implements ConstraintValidator<ReservationDates, ReservationDTO> {
+
+    public static final int MAX_STAY_DAYS = 3;
+    public static final int MAX_DAYS_IN_ADVANCE = 30;
+
     @Override
     public boolean isValid(ReservationDTO reservationDTO,
                            ConstraintValidatorContext context) {
         context.disableDefaultConstraintViolation();
-        boolean isValid = true;
 
-        if(DAYS.between(reservationDTO.getInitialDate(), reservationDTO.getFinalDate()) > 3) {
+        List<String> violations = violations(reservationDTO);
+        for (String violation : violations) {
             context
-                    .buildConstraintViolationWithTemplate("The stay can’t be longer than 3 days")
+                    .buildConstraintViolationWithTemplate(violation)
                     .addConstraintViolation();
-            isValid = false;
         }
 
-        if(DAYS.between(LocalDate.now(), reservationDTO.getFinalDate()) > 30) {
-            context
-                    .buildConstraintViolationWithTemplate("The stay can’t be reserved more than 30 days in advance")
-                    .addConstraintViolation();
-            isValid = false;
+        return violations.isEmpty();
+    }
+
+    public static List<String> violations(ReservationDTO reservationDTO) {
+        List<String> violations = new ArrayList<>();
+
+        if(DAYS.between(reservationDTO.getInitialDate(), reservationDTO.getFinalDate()) > MAX_STAY_DAYS) {
+            violations.add("The stay can’t be longer than 3 days");
+        }
+
+        if(DAYS.between(LocalDate.now(), reservationDTO.getFinalDate()) > MAX_DAYS_IN_ADVANCE) {
+            violations.add("The stay can’t be reserved more than 30 days in advance");
         }
 
         if(reservationDTO.getFinalDate().isEqual(reservationDTO.getInitialDate())  ||
                 reservationDTO.getFinalDate().isBefore(reservationDTO.getInitialDate())) {
-            context
-                    .buildConstraintViolationWithTemplate("The final date must be after the initial date")
-                    .addConstraintViolation();
-            isValid = false;
+            violations.add("The final date must be after the initial date");
         }
 
-        return isValid;
+        return violations;
     }
 
     @Override
@@ -0,0 +1,62 @@
+package com.ronildo.challenge.hotelchallenge.data.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+public class ReplicaLagMonitor {
+
+    public static final String LAG_GAUGE = "reservation.datasource.replica.lag";
+
+    private static final long UNKNOWN = Long.MAX_VALUE;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+    private volatile long lagMillis = UNKNOWN;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLag.toMillis();
+        meterRegistry.gauge(LAG_GAUGE, this,
+                monitor -> monitor.lagMillis == UNKNOWN ? Double.NaN : monitor.lagMillis / 1000.0);
+    }
+
+    @Scheduled(initialDelayString = "${reservation.datasource.replica.heartbeat-interval:PT1S}",
+            fixedDelayString = "${reservation.datasource.replica.heartbeat-interval:PT1S}")
+    public void check() {
+        try {
+            long now = System.currentTimeMillis();
+            if (primary.update("UPDATE replication_heartbeat SET sent_at = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replication_heartbeat (id, sent_at) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replication heartbeat", e);
+        }
+
+        boolean wasUsable = isReplicaUsable();
+        try {
+            List<Long> sentAt = replica.queryForList("SELECT sent_at FROM replication_heartbeat WHERE id = 1", Long.class);
+            lagMillis = sentAt.isEmpty() ? UNKNOWN : Math.max(0, System.currentTimeMillis() - sentAt.get(0));
+        } catch (DataAccessException e) {
+            lagMillis = UNKNOWN;
+        }
+        if (wasUsable != isReplicaUsable()) {
+            log.warn(isReplicaUsable()
+                    ? "Read replica caught up, read-only transactions go to it again"
+                    : "Read replica lags more than {} ms, read-only transactions go to the primary", maxLagMillis);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return lagMillis <= maxLagMillis;
+    }
+}
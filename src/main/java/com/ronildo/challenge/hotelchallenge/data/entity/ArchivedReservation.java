@@ -0,0 +1,36 @@
+package com.ronildo.challenge.hotelchallenge.data.entity;
+
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = @Index(name = "idx_archived_reservation_hotel_period", columnList = "hotelId, finalDate, initialDate"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedReservation {
+
+    @Id
+    Long id;
+
+    @Column
+    LocalDate initialDate;
+
+    @Column
+    LocalDate finalDate;
+
+    @Column
+    Long roomId;
+
+    @Column(nullable = false, columnDefinition = "varchar(64) default '" + HotelContext.DEFAULT_HOTEL + "'")
+    String hotelId;
+
+    @Column
+    LocalDateTime archivedAt;
+}
@@ -0,0 +1,47 @@
+package com.ronildo.challenge.hotelchallenge.data.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = @Index(name = "idx_idempotent_request_created", columnList = "createdAt"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotentRequest {
+
+    @Id
+    @Column(name = "idempotency_key")
+    String key;
+
+    @Column(nullable = false)
+    String fingerprint;
+
+    @Column
+    Integer status;
+
+    @Column(length = 2048)
+    String location;
+
+    @Column(length = 4000)
+    String body;
+
+    @Column(nullable = false)
+    LocalDateTime createdAt;
+
+    public static IdempotentRequest started(String key, String fingerprint) {
+        return new IdempotentRequest(key, fingerprint, null, null, null, LocalDateTime.now());
+    }
+
+    public boolean isCompleted() {
+        return status != null;
+    }
+}
@@ -0,0 +1,52 @@
+package com.ronildo.challenge.hotelchallenge.data.entity;
+
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_occupied_date",
+        columnNames = {"hotel_id", "room_id", "stay_date"}),
+        indexes = @Index(name = "idx_occupied_date_reservation", columnList = "reservationId"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class OccupiedDate {
+
+    public static final long UNASSIGNED_ROOM = 0L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "occupied_date_seq")
+    @SequenceGenerator(name = "occupied_date_seq", allocationSize = 200)
+    Long id;
+
+    @Column(name = "stay_date", nullable = false)
+    LocalDate stayDate;
+
+    @Column(nullable = false)
+    Long reservationId;
+
+    @Column(name = "room_id", nullable = false, columnDefinition = "bigint default 0")
+    Long roomId;
+
+    @Column(name = "hotel_id", nullable = false,
+            columnDefinition = "varchar(64) default '" + HotelContext.DEFAULT_HOTEL + "'")
+    String hotelId;
+
+    public static List<OccupiedDate> of(Reservation reservation) {
+        Long roomId = reservation.getRoomId() != null ? reservation.getRoomId() : UNASSIGNED_ROOM;
+        List<OccupiedDate> occupiedDates = new ArrayList<>();
+        for (LocalDate date = reservation.getInitialDate();
+             !date.isAfter(reservation.getFinalDate());
+             date = date.plusDays(1)) {
+            occupiedDates.add(new OccupiedDate(null, date, reservation.getId(), roomId, reservation.getHotelId()));
+        }
+        return occupiedDates;
+    }
+}
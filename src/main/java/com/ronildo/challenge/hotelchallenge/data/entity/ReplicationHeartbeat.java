@@ -0,0 +1,22 @@
+package com.ronildo.challenge.hotelchallenge.data.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReplicationHeartbeat {
+
+    @Id
+    Long id;
+
+    @Column(nullable = false)
+    Long sentAt;
+}
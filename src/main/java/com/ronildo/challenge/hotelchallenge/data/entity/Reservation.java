@@ -1,20 +1,26 @@
 package com.ronildo.challenge.hotelchallenge.data.entity;
 
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_reservation_hotel_room_period", columnList = "hotelId, roomId, finalDate, initialDate"),
+        @Index(name = "idx_reservation_final_date", columnList = "finalDate")})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_seq")
+    @SequenceGenerator(name = "reservation_seq", allocationSize = 50)
     Long id;
 
     @Column
@@ -22,4 +28,23 @@ public class Reservation {
 
     @Column
     LocalDate finalDate;
+
+    @Column
+    Long roomId;
+
+    @Column(nullable = false, columnDefinition = "varchar(64) default '" + HotelContext.DEFAULT_HOTEL + "'")
+    String hotelId;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @EqualsAndHashCode.Exclude
+    Long version;
+
+    public Reservation(Long id, LocalDate initialDate, LocalDate finalDate) {
+        this(id, initialDate, finalDate, null);
+    }
+
+    public Reservation(Long id, LocalDate initialDate, LocalDate finalDate, Long roomId) {
+        this(id, initialDate, finalDate, roomId, HotelContext.DEFAULT_HOTEL, null);
+    }
 }
@@ -0,0 +1,60 @@
+package com.ronildo.challenge.hotelchallenge.data.entity;
+
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_reservation_event_created", columnList = "createdAt"),
+        @Index(name = "idx_reservation_event_hotel", columnList = "hotelId, id")})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, ARCHIVED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservation_event_seq")
+    @SequenceGenerator(name = "reservation_event_seq", allocationSize = 50)
+    Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    Type type;
+
+    @Column(nullable = false)
+    Long reservationId;
+
+    @Column
+    LocalDate initialDate;
+
+    @Column
+    LocalDate finalDate;
+
+    @Column
+    Long roomId;
+
+    @Column(nullable = false, columnDefinition = "varchar(64) default '" + HotelContext.DEFAULT_HOTEL + "'")
+    String hotelId;
+
+    @Column
+    Long version;
+
+    @Column(nullable = false)
+    LocalDateTime createdAt;
+
+    public static ReservationEvent of(Type type, Reservation reservation) {
+        return new ReservationEvent(null, type, reservation.getId(), reservation.getInitialDate(),
+                reservation.getFinalDate(), reservation.getRoomId(), reservation.getHotelId(), reservation.getVersion(),
+                LocalDateTime.now());
+    }
+}
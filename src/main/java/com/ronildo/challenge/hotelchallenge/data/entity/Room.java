@@ -0,0 +1,36 @@
+package com.ronildo.challenge.hotelchallenge.data.entity;
+
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_room_type", columnList = "roomTypeId"),
+        @Index(name = "idx_room_hotel", columnList = "hotelId")})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class Room {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_seq")
+    @SequenceGenerator(name = "room_seq", allocationSize = 1)
+    Long id;
+
+    @Column(nullable = false)
+    String number;
+
+    @Column(nullable = false)
+    Long roomTypeId;
+
+    @Column(nullable = false, columnDefinition = "varchar(64) default '" + HotelContext.DEFAULT_HOTEL + "'")
+    String hotelId;
+
+    public Room(Long id, String number, Long roomTypeId) {
+        this(id, number, roomTypeId, HotelContext.DEFAULT_HOTEL);
+    }
+}
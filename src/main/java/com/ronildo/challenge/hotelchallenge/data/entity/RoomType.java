@@ -0,0 +1,31 @@
+package com.ronildo.challenge.hotelchallenge.data.entity;
+
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+@Entity
+@Table(indexes = @Index(name = "idx_room_type_hotel", columnList = "hotelId"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RoomType {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "room_type_seq")
+    @SequenceGenerator(name = "room_type_seq", allocationSize = 1)
+    Long id;
+
+    @Column(nullable = false)
+    String name;
+
+    @Column(nullable = false, columnDefinition = "varchar(64) default '" + HotelContext.DEFAULT_HOTEL + "'")
+    String hotelId;
+
+    public RoomType(Long id, String name) {
+        this(id, name, HotelContext.DEFAULT_HOTEL);
+    }
+}
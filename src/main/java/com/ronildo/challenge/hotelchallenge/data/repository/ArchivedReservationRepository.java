@@ -0,0 +1,32 @@
+package com.ronildo.challenge.hotelchallenge.data.repository;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.ArchivedReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedReservationRepository extends CrudRepository<ArchivedReservation, Long> {
+
+    @Modifying
+    @Query("INSERT INTO ArchivedReservation (id, initialDate, finalDate, roomId, hotelId, archivedAt) " +
+            " SELECT r.id, r.initialDate, r.finalDate, r.roomId, r.hotelId, :archivedAt FROM Reservation r " +
+            " WHERE r.id in :ids")
+    int archive(Collection<Long> ids, LocalDateTime archivedAt);
+
+    Optional<ArchivedReservation> findByIdAndHotelId(Long id, String hotelId);
+
+    @Query("SELECT a FROM ArchivedReservation a " +
+            " WHERE a.hotelId = :hotelId " +
+            " and a.id > :afterId " +
+            " and (:fromDate is null or a.finalDate >= :fromDate) " +
+            " and (:toDate is null or a.initialDate <= :toDate) " +
+            " ORDER BY a.id")
+    List<ArchivedReservation> findPage(String hotelId, Long afterId, LocalDate fromDate, LocalDate toDate, Pageable pageable);
+}
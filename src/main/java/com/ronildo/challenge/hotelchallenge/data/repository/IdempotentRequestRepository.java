@@ -0,0 +1,22 @@
+package com.ronildo.challenge.hotelchallenge.data.repository;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.IdempotentRequest;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotentRequestRepository extends CrudRepository<IdempotentRequest, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotentRequest i WHERE i.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotentRequest i WHERE i.key = :key")
+    int deleteByKey(String key);
+}
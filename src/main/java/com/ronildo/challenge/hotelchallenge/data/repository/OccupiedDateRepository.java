@@ -0,0 +1,19 @@
+package com.ronildo.challenge.hotelchallenge.data.repository;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.OccupiedDate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+
+public interface OccupiedDateRepository extends JpaRepository<OccupiedDate, Long> {
+
+    @Modifying
+    @Query("DELETE FROM OccupiedDate o WHERE o.reservationId = :reservationId")
+    int deleteByReservationId(Long reservationId);
+
+    @Modifying
+    @Query("DELETE FROM OccupiedDate o WHERE o.reservationId in :reservationIds")
+    int deleteByReservationIdIn(Collection<Long> reservationIds);
+}
@@ -0,0 +1,47 @@
+package com.ronildo.challenge.hotelchallenge.data.repository;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads are not read-only so that they run on the primary, which the outbox sequence refers to.
+ */
+public interface ReservationEventRepository extends CrudRepository<ReservationEvent, Long> {
+
+    @Transactional
+    @Query("SELECT e FROM ReservationEvent e " +
+            " WHERE e.hotelId = :hotelId " +
+            " and e.id > :afterId " +
+            " and e.id <= :untilId " +
+            " ORDER BY e.id")
+    List<ReservationEvent> findPage(String hotelId, Long afterId, Long untilId, Pageable pageable);
+
+    @Transactional
+    @Query("SELECT e.id FROM ReservationEvent e " +
+            " WHERE e.id > :afterId " +
+            " and e.id <= :untilId " +
+            " and e.createdAt > :createdAfter " +
+            " ORDER BY e.id")
+    List<Long> findIdsCreatedAfter(Long afterId, Long untilId, LocalDateTime createdAfter);
+
+    @Transactional
+    @Query("SELECT e.id FROM ReservationEvent e WHERE e.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    @Transactional
+    @Query("SELECT coalesce(max(e.id), 0) FROM ReservationEvent e")
+    Long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ReservationEvent e WHERE e.createdAt < :before")
+    int deleteCreatedBefore(LocalDateTime before);
+}
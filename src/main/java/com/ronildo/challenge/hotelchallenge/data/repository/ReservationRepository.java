@@ -1,17 +1,84 @@
 package com.ronildo.challenge.hotelchallenge.data.repository;
 
 import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ReservationRepository extends CrudRepository<Reservation, Long> {
 
-    @Query("SELECT r FROM Reservation r " +
-            " WHERE r.initialDate <= :finalDateParam " +
-            " and :initialDateParam <= r.finalDate " +
+    default boolean existsOverlapping(String hotelId, Long roomId, LocalDate initialDate, LocalDate finalDate,
+                                      Long exceptId) {
+        Pageable first = PageRequest.of(0, 1);
+        List<Long> overlapping = roomId == null
+                ? findOverlappingIds(hotelId, initialDate, finalDate, exceptId, first)
+                : findOverlappingIdsInRoom(hotelId, roomId, initialDate, finalDate, exceptId, first);
+        return !overlapping.isEmpty();
+    }
+
+    @Query("SELECT r.id FROM Reservation r " +
+            " WHERE r.hotelId = :hotelId " +
+            " and r.roomId is null " +
+            " and r.finalDate >= :initialDate " +
+            " and r.initialDate <= :finalDate " +
+            " and (:exceptId is null or r.id <> :exceptId) ")
+    List<Long> findOverlappingIds(String hotelId, LocalDate initialDate, LocalDate finalDate, Long exceptId,
+                                  Pageable pageable);
+
+    @Query("SELECT r.id FROM Reservation r " +
+            " WHERE r.hotelId = :hotelId " +
+            " and r.roomId = :roomId " +
+            " and r.finalDate >= :initialDate " +
+            " and r.initialDate <= :finalDate " +
             " and (:exceptId is null or r.id <> :exceptId) ")
-    List<Reservation> checkReservationInPeriod(LocalDate initialDateParam, LocalDate finalDateParam, Long exceptId);
+    List<Long> findOverlappingIdsInRoom(String hotelId, Long roomId, LocalDate initialDate, LocalDate finalDate,
+                                        Long exceptId, Pageable pageable);
+
+    List<Reservation> findByHotelId(String hotelId);
+
+    Optional<Reservation> findByIdAndHotelId(Long id, String hotelId);
+
+    @Query("SELECT r.version FROM Reservation r WHERE r.id = :id and r.hotelId = :hotelId")
+    Optional<Long> findVersionById(String hotelId, Long id);
+
+    @Query("SELECT concat(count(r), '-', coalesce(max(r.id), 0), '-', coalesce(sum(r.version), 0)) " +
+            " FROM Reservation r WHERE r.hotelId = :hotelId")
+    String findCollectionVersion(String hotelId);
+
+    @Query("SELECT r FROM Reservation r " +
+            " WHERE r.hotelId = :hotelId " +
+            " and r.id > :afterId " +
+            " and (:fromDate is null or r.finalDate >= :fromDate) " +
+            " and (:toDate is null or r.initialDate <= :toDate) " +
+            " ORDER BY r.id")
+    List<Reservation> findPage(String hotelId, Long afterId, LocalDate fromDate, LocalDate toDate, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT r FROM Reservation r " +
+            " WHERE r.hotelId = :hotelId " +
+            " and (:fromDate is null or r.finalDate >= :fromDate) " +
+            " and (:toDate is null or r.initialDate <= :toDate) " +
+            " ORDER BY r.id")
+    Stream<Reservation> streamAll(String hotelId, LocalDate fromDate, LocalDate toDate);
+
+    @Query("SELECT r FROM Reservation r " +
+            " WHERE r.finalDate < :date " +
+            " ORDER BY r.finalDate")
+    List<Reservation> findCompletedBefore(LocalDate date, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Reservation r WHERE r.id in :ids")
+    int deleteByIdIn(Collection<Long> ids);
 }
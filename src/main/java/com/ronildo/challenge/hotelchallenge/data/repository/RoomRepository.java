@@ -0,0 +1,25 @@
+package com.ronildo.challenge.hotelchallenge.data.repository;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Room;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomRepository extends CrudRepository<Room, Long> {
+
+    List<Room> findByHotelIdOrderById(String hotelId);
+
+    List<Room> findByHotelIdAndRoomTypeIdOrderById(String hotelId, Long roomTypeId);
+
+    List<Room> findByHotelIdAndIdIn(String hotelId, Collection<Long> ids);
+
+    Optional<Room> findByIdAndHotelId(Long id, String hotelId);
+
+    boolean existsByIdAndHotelId(Long id, String hotelId);
+
+    @Query("SELECT r.id FROM Room r WHERE r.hotelId = :hotelId and r.roomTypeId = :roomTypeId ORDER BY r.id")
+    List<Long> findIdsByRoomTypeId(String hotelId, Long roomTypeId);
+}
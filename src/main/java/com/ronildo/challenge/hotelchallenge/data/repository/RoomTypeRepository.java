@@ -0,0 +1,16 @@
+package com.ronildo.challenge.hotelchallenge.data.repository;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.RoomType;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RoomTypeRepository extends CrudRepository<RoomType, Long> {
+
+    List<RoomType> findByHotelIdOrderById(String hotelId);
+
+    Optional<RoomType> findByIdAndHotelId(Long id, String hotelId);
+
+    boolean existsByIdAndHotelId(Long id, String hotelId);
+}
@@ -0,0 +1,39 @@
+package com.ronildo.challenge.hotelchallenge.data.shard;
+
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<String> nodes, int pointsPerNode) {
+        if (nodes.isEmpty() || pointsPerNode < 1) {
+            throw new IllegalArgumentException("The ring needs at least one node and one point per node");
+        }
+        for (String node : nodes) {
+            for (int point = 0; point < pointsPerNode; point++) {
+                ring.putIfAbsent(hash(node + "#" + point), node);
+            }
+        }
+    }
+
+    public String nodeFor(String key) {
+        Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    static long hash(String key) {
+        byte[] digest = DigestUtils.md5Digest(key.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+}
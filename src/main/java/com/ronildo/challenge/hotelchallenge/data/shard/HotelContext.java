@@ -0,0 +1,50 @@
+package com.ronildo.challenge.hotelchallenge.data.shard;
+
+import java.util.function.Supplier;
+
+public final class HotelContext {
+
+    public static final String DEFAULT_HOTEL = "default";
+
+    private static final ThreadLocal<HotelContext> CURRENT = new ThreadLocal<>();
+
+    private final String hotelId;
+    private final String shard;
+
+    private HotelContext(String hotelId, String shard) {
+        this.hotelId = hotelId;
+        this.shard = shard;
+    }
+
+    public static String hotelId() {
+        HotelContext current = CURRENT.get();
+        return current != null && current.hotelId != null ? current.hotelId : DEFAULT_HOTEL;
+    }
+
+    public static String shard() {
+        HotelContext current = CURRENT.get();
+        return current != null ? current.shard : null;
+    }
+
+    public static void bind(String hotelId) {
+        CURRENT.set(new HotelContext(hotelId, null));
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static <T> T call(String hotelId, String shard, Supplier<T> action) {
+        HotelContext previous = CURRENT.get();
+        CURRENT.set(new HotelContext(hotelId, shard));
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
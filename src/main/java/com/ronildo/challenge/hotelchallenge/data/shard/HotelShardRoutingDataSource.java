@@ -0,0 +1,33 @@
+package com.ronildo.challenge.hotelchallenge.data.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+public class HotelShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final HotelShards hotelShards;
+
+    public HotelShardRoutingDataSource(Map<String, DataSource> shards, HotelShards hotelShards) {
+        this.hotelShards = hotelShards;
+        setTargetDataSources(new HashMap<>(shards));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return hotelShards.currentShard();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : getResolvedDataSources().values()) {
+            if (shard instanceof AutoCloseable) {
+                ((AutoCloseable) shard).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ronildo.challenge.hotelchallenge.data.shard;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class HotelShards {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> names;
+    private final ConsistentHashRing ring;
+
+    public HotelShards(List<String> names, int pointsPerShard) {
+        this.names = Collections.unmodifiableList(names);
+        this.ring = new ConsistentHashRing(names, pointsPerShard);
+    }
+
+    public static HotelShards single() {
+        return new HotelShards(Collections.singletonList(PRIMARY), 1);
+    }
+
+    public List<String> names() {
+        return names;
+    }
+
+    public String shardOf(String hotelId) {
+        return ring.nodeFor(hotelId);
+    }
+
+    public String defaultShard() {
+        return shardOf(HotelContext.DEFAULT_HOTEL);
+    }
+
+    public String currentShard() {
+        String shard = HotelContext.shard();
+        return shard != null ? shard : shardOf(HotelContext.hotelId());
+    }
+
+    public <T> T callAs(String hotelId, Supplier<T> action) {
+        return HotelContext.call(hotelId, null, action);
+    }
+
+    public <T> T callOnShard(String shard, Supplier<T> action) {
+        return HotelContext.call(null, shard, action);
+    }
+}
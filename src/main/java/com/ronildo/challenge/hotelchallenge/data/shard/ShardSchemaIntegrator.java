@@ -0,0 +1,48 @@
+package com.ronildo.challenge.hotelchallenge.data.shard;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.hbm2ddl.SchemaUpdate;
+import org.hibernate.tool.schema.TargetType;
+
+import java.util.EnumSet;
+
+/**
+ * ddl-auto only updates the schema of the default shard; this updates the other shards.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final HotelShards hotelShards;
+
+    @Override
+    public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory,
+                          SessionFactoryServiceRegistry serviceRegistry) {
+        Object action = serviceRegistry.getService(ConfigurationService.class).getSettings()
+                .get(AvailableSettings.HBM2DDL_AUTO);
+        if (!"update".equals(action)) {
+            return;
+        }
+        for (String shard : hotelShards.names()) {
+            if (!shard.equals(hotelShards.defaultShard())) {
+                log.info("Updating the schema of shard {}", shard);
+                hotelShards.callOnShard(shard, () -> {
+                    new SchemaUpdate().setHaltOnError(true)
+                            .execute(EnumSet.of(TargetType.DATABASE), metadata, serviceRegistry);
+                    return null;
+                });
+            }
+        }
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+    }
+}
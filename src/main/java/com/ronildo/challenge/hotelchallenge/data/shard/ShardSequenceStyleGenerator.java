@@ -0,0 +1,47 @@
+package com.ronildo.challenge.hotelchallenge.data.shard;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The stock generator keeps one pool of ids for all connections, which would hand out ids of one
+ * shard's sequence on another.
+ */
+public class ShardSequenceStyleGenerator extends SequenceStyleGenerator {
+
+    private final Map<String, Optimizer> optimizers = new ConcurrentHashMap<>();
+    private int initialValue;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, params, serviceRegistry);
+        initialValue = determineInitialValue(params);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        Optimizer optimizer = optimizers.computeIfAbsent(databaseOf(session), database ->
+                OptimizerFactory.buildOptimizer(getOptimizer().getClass().getName(),
+                        getIdentifierType().getReturnedClass(), getOptimizer().getIncrementSize(), initialValue));
+        return optimizer.generate(getDatabaseStructure().buildCallback(session));
+    }
+
+    private static String databaseOf(SharedSessionContractImplementor session) {
+        try {
+            return session.getJdbcCoordinator().getLogicalConnection().getPhysicalConnection().getMetaData().getURL();
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Could not read the database URL");
+        }
+    }
+}
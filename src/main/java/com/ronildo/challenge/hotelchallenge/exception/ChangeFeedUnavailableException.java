@@ -0,0 +1,8 @@
+package com.ronildo.challenge.hotelchallenge.exception;
+
+public class ChangeFeedUnavailableException extends RuntimeException {
+
+    public ChangeFeedUnavailableException() {
+        super("The change feed is not available with reservation.persistence=journal");
+    }
+}
@@ -1,14 +1,23 @@
 package com.ronildo.challenge.hotelchallenge.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.support.WebExchangeBindException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ServerWebInputException;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
@@ -17,12 +26,19 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 @ControllerAdvice
+@RequiredArgsConstructor
 public class ControllerAdvisor {
 
+    public static final String ERRORS_COUNTER = "reservation.api.errors";
+
+    private final MeterRegistry meterRegistry;
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleMethodArgumentNotValidException(
             MethodArgumentNotValidException ex) {
+        countError("validation_failed");
+
         StringBuilder message = new StringBuilder();
         for (ObjectError error : ex.getBindingResult().getAllErrors()) {
             message.append(error.getDefaultMessage()).append("; ");
@@ -40,6 +56,7 @@ public class ControllerAdvisor {
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<Object> handleMethodArgumentTypeMismatchException(
             MethodArgumentTypeMismatchException ex) {
+        countError("type_mismatch");
 
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now());
@@ -53,6 +70,7 @@ public class ControllerAdvisor {
     @ExceptionHandler(MissingServletRequestParameterException.class)
     public ResponseEntity<Object> handleMissingServletRequestParameterException(
             MissingServletRequestParameterException ex) {
+        countError("missing_parameter");
 
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now());
@@ -64,6 +82,8 @@ public class ControllerAdvisor {
 
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<Object> handleConstraintViolationException(ConstraintViolationException ex) {
+        countError("validation_failed");
+
         StringBuilder message = new StringBuilder();
         for (ConstraintViolation<?> error : ex.getConstraintViolations()) {
             message.append(error.getMessage()).append("; ");
@@ -77,10 +97,50 @@ public class ControllerAdvisor {
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleWebExchangeBindException(WebExchangeBindException ex) {
+        countError("validation_failed");
+
+        StringBuilder message = new StringBuilder();
+        for (ObjectError error : ex.getAllErrors()) {
+            message.append(error.getDefaultMessage()).append("; ");
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Validation Failed");
+        body.put("details", message);
 
-    @ExceptionHandler(ReservationNotFoundException.class)
-    public ResponseEntity<Object> handleReservationNotFoundException(
-            ReservationNotFoundException ex) {
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<Object> handleServerWebInputException(ServerWebInputException ex) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        MethodParameter parameter = ex.getMethodParameter();
+        if (ex.getCause() instanceof TypeMismatchException) {
+            countError("type_mismatch");
+            body.put("argument", parameter != null ? parameter.getParameterName() : null);
+            body.put("message", "Failed to convert value to required type "
+                    + ((TypeMismatchException) ex.getCause()).getRequiredType());
+        } else if (parameter != null && parameter.hasParameterAnnotation(RequestParam.class)) {
+            countError("missing_parameter");
+            body.put("argument", parameter.getParameterName());
+            body.put("message", "Required request parameter for type "
+                    + parameter.getNestedParameterType().getSimpleName() + " is not present");
+        } else {
+            countError("validation_failed");
+            body.put("message", "Validation Failed");
+            body.put("details", ex.getReason());
+        }
+
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler({ReservationNotFoundException.class, RoomNotFoundException.class, RoomTypeNotFoundException.class})
+    public ResponseEntity<Object> handleNotFoundException(RuntimeException ex) {
+        countError("not_found");
 
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now());
@@ -92,11 +152,105 @@ public class ControllerAdvisor {
     @ExceptionHandler(DatesNotAvailableForReservationException.class)
     public ResponseEntity<Object> handleDatesNotAvailableForReservationException(
             DatesNotAvailableForReservationException ex) {
+        countError("dates_not_available");
 
         Map<String, Object> body = new LinkedHashMap<>();
         body.put("timestamp", LocalDateTime.now());
         body.put("message", ex.getMessage());
+        if (ex.getSuggestions() != null && !ex.getSuggestions().isEmpty()) {
+            body.put("suggestions", ex.getSuggestions());
+        }
 
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(IdempotencyKeyInUseException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyInUseException(IdempotencyKeyInUseException ex) {
+        countError("idempotency_key_in_use");
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException ex) {
+        countError("idempotency_key_reused");
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(body, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler({ReservationModifiedException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<Object> handleReservationModifiedException(RuntimeException ex) {
+        countError("precondition_failed");
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex instanceof ReservationModifiedException
+                ? ex.getMessage()
+                : "The reservation was modified concurrently");
+
+        return new ResponseEntity<>(body, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Object> handleRateLimitExceededException(RateLimitExceededException ex) {
+        countError("rate_limited");
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(body, retryAfter(ex.getRetryAfterSeconds()), HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Object> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        countError("overloaded");
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(body, retryAfter(ex.getRetryAfterSeconds()), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(ChangeFeedUnavailableException.class)
+    public ResponseEntity<Object> handleChangeFeedUnavailableException(ChangeFeedUnavailableException ex) {
+        countError("not_implemented");
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", ex.getMessage());
+
+        return new ResponseEntity<>(body, HttpStatus.NOT_IMPLEMENTED);
+    }
+
+    @ExceptionHandler(InvalidPeriodException.class)
+    public ResponseEntity<Object> handleInvalidPeriodException(InvalidPeriodException ex) {
+        countError("validation_failed");
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("timestamp", LocalDateTime.now());
+        body.put("message", "Validation Failed");
+        body.put("details", ex.getMessage());
+
+        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+    }
+
+    private static HttpHeaders retryAfter(long seconds) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        return headers;
+    }
+
+    private void countError(String outcome) {
+        meterRegistry.counter(ERRORS_COUNTER, "outcome", outcome).increment();
+    }
 }
@@ -1,7 +1,22 @@
 package com.ronildo.challenge.hotelchallenge.exception;
 
+import com.ronildo.challenge.hotelchallenge.service.dto.SuggestedStayDTO;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+@Getter
 public class DatesNotAvailableForReservationException extends RuntimeException {
+
+    private final List<SuggestedStayDTO> suggestions;
+
     public DatesNotAvailableForReservationException() {
+        this(Collections.emptyList());
+    }
+
+    public DatesNotAvailableForReservationException(List<SuggestedStayDTO> suggestions) {
         super("Dates are not available for reservation");
+        this.suggestions = suggestions;
     }
 }
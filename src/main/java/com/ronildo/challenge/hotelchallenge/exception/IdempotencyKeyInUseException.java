@@ -0,0 +1,7 @@
+package com.ronildo.challenge.hotelchallenge.exception;
+
+public class IdempotencyKeyInUseException extends RuntimeException {
+    public IdempotencyKeyInUseException(String key) {
+        super("A request with idempotency key " + key + " is still being processed");
+    }
+}
@@ -0,0 +1,7 @@
+package com.ronildo.challenge.hotelchallenge.exception;
+
+public class InvalidPeriodException extends RuntimeException {
+    public InvalidPeriodException(String message) {
+        super(message);
+    }
+}
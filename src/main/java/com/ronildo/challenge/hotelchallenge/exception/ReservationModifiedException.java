@@ -0,0 +1,7 @@
+package com.ronildo.challenge.hotelchallenge.exception;
+
+public class ReservationModifiedException extends RuntimeException {
+    public ReservationModifiedException(Long id) {
+        super("Reservation " + id + " was modified since it was read");
+    }
+}
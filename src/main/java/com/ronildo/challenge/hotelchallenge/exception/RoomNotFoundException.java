@@ -0,0 +1,7 @@
+package com.ronildo.challenge.hotelchallenge.exception;
+
+public class RoomNotFoundException extends RuntimeException {
+    public RoomNotFoundException(Long id) {
+        super("Could not find room " + id);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ronildo.challenge.hotelchallenge.exception;
+
+public class RoomTypeNotFoundException extends RuntimeException {
+    public RoomTypeNotFoundException(Long id) {
+        super("Could not find room type " + id);
+    }
+}
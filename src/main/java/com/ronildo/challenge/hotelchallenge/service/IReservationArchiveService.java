@@ -0,0 +1,15 @@
+package com.ronildo.challenge.hotelchallenge.service;
+
+import com.ronildo.challenge.hotelchallenge.service.dto.ArchivedReservationDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IReservationArchiveService {
+
+    int archiveCompletedReservations();
+
+    List<ArchivedReservationDTO> listArchivedReservations(Long afterId, LocalDate fromDate, LocalDate toDate, int limit);
+
+    ArchivedReservationDTO findArchivedById(Long id);
+}
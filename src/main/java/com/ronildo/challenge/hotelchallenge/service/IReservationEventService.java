@@ -0,0 +1,14 @@
+package com.ronildo.challenge.hotelchallenge.service;
+
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationEventDTO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface IReservationEventService {
+
+    List<ReservationEventDTO> listEvents(long afterSequence, int limit);
+
+    CompletableFuture<List<ReservationEventDTO>> awaitEvents(long afterSequence, int limit, Duration timeout);
+}
@@ -1,20 +1,41 @@
 package com.ronildo.challenge.hotelchallenge.service;
 
+import com.ronildo.challenge.hotelchallenge.service.dto.AvailabilityCalendarDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
 import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.SuggestedStayDTO;
+import com.ronildo.challenge.hotelchallenge.service.json.JsonBuffer;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IReservationService {
 
     ReservationDTO createReservation(ReservationDTO newReservation);
 
+    List<BulkReservationResultDTO> createReservations(List<ReservationDTO> newReservations);
+
     List<ReservationDTO> listAllReservations();
 
+    JsonBuffer listAllReservationsAsJson();
+
+    List<ReservationDTO> listReservations(Long afterId, LocalDate fromDate, LocalDate toDate, int limit);
+
+    void streamReservations(LocalDate fromDate, LocalDate toDate, Consumer<ReservationDTO> consumer);
+
     ReservationDTO findOneById(Long id);
 
+    Long findVersionById(Long id);
+
+    String findAllReservationsVersion();
+
     Boolean checkAvailability(LocalDate initialDate, LocalDate finalDate, Long id);
 
+    AvailabilityCalendarDTO getAvailabilityCalendar(LocalDate fromDate, LocalDate toDate);
+
+    List<SuggestedStayDTO> suggestStays(LocalDate initialDate, LocalDate finalDate, Long roomId, int limit);
+
     ReservationDTO updateReservation(Long id, ReservationDTO reservationDTO);
 
     void deleteReservation(Long id);
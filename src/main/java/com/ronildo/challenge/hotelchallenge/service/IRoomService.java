@@ -0,0 +1,24 @@
+package com.ronildo.challenge.hotelchallenge.service;
+
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomTypeDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IRoomService {
+
+    RoomTypeDTO createRoomType(RoomTypeDTO newRoomType);
+
+    List<RoomTypeDTO> listRoomTypes();
+
+    RoomTypeDTO findRoomTypeById(Long id);
+
+    RoomDTO createRoom(RoomDTO newRoom);
+
+    List<RoomDTO> listRooms(Long roomTypeId);
+
+    RoomDTO findRoomById(Long id);
+
+    RoomDTO findFreeRoom(Long roomTypeId, LocalDate initialDate, LocalDate finalDate);
+}
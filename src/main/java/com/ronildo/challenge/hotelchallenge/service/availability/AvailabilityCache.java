@@ -0,0 +1,154 @@
+package com.ronildo.challenge.hotelchallenge.service.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+public class AvailabilityCache {
+
+    private static final int BUCKET_DAYS = 7;
+    private static final int MAX_BUCKETS = 64;
+
+    private final Cache<Period, Answer> cache;
+    private final Map<String, Generations> generations = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private volatile long epoch;
+
+    public AvailabilityCache(
+            @Value("${reservation.availability-cache.maximum-size:10000}") long maximumSize,
+            @Value("${reservation.availability-cache.expire-after-write:PT1M}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "availability");
+        Gauge.builder("reservation.availability.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable(LocalDate initialDate, LocalDate finalDate, Supplier<Boolean> loader) {
+        long fromBucket = bucketOf(initialDate);
+        long toBucket = bucketOf(finalDate);
+        if (toBucket - fromBucket >= MAX_BUCKETS) {
+            return loader.get();
+        }
+
+        String hotelId = HotelContext.hotelId();
+        Period period = new Period(hotelId, initialDate, finalDate);
+        Generations hotel = generations.get(hotelId);
+        long stamp = Math.max(epoch, hotel != null ? hotel.latest(fromBucket, toBucket) : 0);
+        Answer cached = cache.getIfPresent(period);
+        if (cached != null && cached.stamp == stamp) {
+            return cached.available;
+        }
+
+        boolean available = loader.get();
+        cache.put(period, new Answer(available, stamp));
+        return available;
+    }
+
+    public void invalidate(LocalDate initialDate, LocalDate finalDate) {
+        invalidate(HotelContext.hotelId(), initialDate, finalDate);
+    }
+
+    public void invalidate(String hotelId, LocalDate initialDate, LocalDate finalDate) {
+        generations.computeIfAbsent(hotelId, id -> new Generations())
+                .bump(bucketOf(initialDate), bucketOf(finalDate), versions.incrementAndGet());
+    }
+
+    public void invalidateAll() {
+        epoch = versions.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    @Scheduled(cron = "${reservation.availability-cache.prune-cron:0 0 0 * * *}")
+    public void pruneExpired() {
+        pruneBefore(LocalDate.now());
+    }
+
+    void pruneBefore(LocalDate date) {
+        long bucket = bucketOf(date);
+        generations.values().forEach(hotel -> hotel.pruneBefore(bucket));
+    }
+
+    int buckets() {
+        return generations.values().stream().mapToInt(Generations::size).sum();
+    }
+
+    private static long bucketOf(LocalDate date) {
+        return Math.floorDiv(date.toEpochDay(), BUCKET_DAYS);
+    }
+
+    private static class Generations {
+
+        private final AtomicLong all = new AtomicLong();
+        private final Map<Long, Long> buckets = new ConcurrentHashMap<>();
+
+        void bump(long fromBucket, long toBucket, long version) {
+            if (toBucket - fromBucket >= MAX_BUCKETS) {
+                all.accumulateAndGet(version, Math::max);
+                return;
+            }
+            for (long bucket = fromBucket; bucket <= toBucket; bucket++) {
+                buckets.merge(bucket, version, Math::max);
+            }
+        }
+
+        // versions are never reused, so the latest one changes whenever a bucket is bumped
+        long latest(long fromBucket, long toBucket) {
+            long latest = all.get();
+            for (long bucket = fromBucket; bucket <= toBucket; bucket++) {
+                Long version = buckets.get(bucket);
+                if (version != null && version > latest) {
+                    latest = version;
+                }
+            }
+            return latest;
+        }
+
+        // a pruned version moves to all first, so that no period ever goes back to a stamp it had before
+        void pruneBefore(long bucket) {
+            buckets.forEach((pruned, version) -> {
+                if (pruned < bucket) {
+                    all.accumulateAndGet(version, Math::max);
+                    buckets.remove(pruned, version);
+                }
+            });
+        }
+
+        int size() {
+            return buckets.size();
+        }
+    }
+
+    @Data
+    private static class Period {
+        private final String hotelId;
+        private final LocalDate initialDate;
+        private final LocalDate finalDate;
+    }
+
+    @Data
+    private static class Answer {
+        private final boolean available;
+        private final long stamp;
+    }
+}
@@ -0,0 +1,253 @@
+package com.ronildo.challenge.hotelchallenge.service.availability;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static java.time.temporal.ChronoUnit.DAYS;
+
+@Component
+public class AvailabilityIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, HotelIndex> byHotel = new HashMap<>();
+
+    public void load(Iterable<Reservation> reservations) {
+        lock.writeLock().lock();
+        try {
+            byHotel.clear();
+            for (Reservation reservation : reservations) {
+                add(reservation);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Reservation reservation) {
+        lock.writeLock().lock();
+        try {
+            discard(hotelOf(reservation), reservation.getId());
+            add(reservation);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        remove(HotelContext.hotelId(), id);
+    }
+
+    public void remove(String hotelId, Long id) {
+        lock.writeLock().lock();
+        try {
+            discard(hotelId, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAll(Iterable<Long> ids) {
+        removeAll(HotelContext.hotelId(), ids);
+    }
+
+    public void removeAll(String hotelId, Iterable<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                discard(hotelId, id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isAvailable(LocalDate initialDate, LocalDate finalDate, Long exceptId) {
+        return isAvailable(null, initialDate, finalDate, exceptId);
+    }
+
+    public boolean isAvailable(Long roomId, LocalDate initialDate, LocalDate finalDate, Long exceptId) {
+        lock.readLock().lock();
+        try {
+            RoomIndex room = roomIndex(HotelContext.hotelId(), roomId);
+            return room == null || room.isAvailable(initialDate, finalDate, exceptId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Long> findFreeRoom(Iterable<Long> roomIds, LocalDate initialDate, LocalDate finalDate) {
+        lock.readLock().lock();
+        try {
+            for (Long roomId : roomIds) {
+                RoomIndex room = roomIndex(HotelContext.hotelId(), roomId);
+                if (room == null || room.isAvailable(initialDate, finalDate, null)) {
+                    return Optional.of(roomId);
+                }
+            }
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BitSet occupiedDays(LocalDate fromDate, LocalDate toDate) {
+        return occupiedDays(null, fromDate, toDate);
+    }
+
+    public BitSet occupiedDays(Long roomId, LocalDate fromDate, LocalDate toDate) {
+        BitSet occupied = new BitSet();
+        lock.readLock().lock();
+        try {
+            RoomIndex room = roomIndex(HotelContext.hotelId(), roomId);
+            if (room != null) {
+                room.occupiedDays(fromDate, toDate, occupied);
+            }
+            return occupied;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<Long, Reservation> snapshot() {
+        return snapshot(HotelContext.hotelId());
+    }
+
+    public Map<Long, Reservation> snapshot(String hotelId) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Reservation> copy = new HashMap<>();
+            HotelIndex hotel = byHotel.get(hotelId);
+            if (hotel != null) {
+                hotel.byId.forEach((id, reservation) -> copy.put(id, copyOf(reservation)));
+            }
+            return copy;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<String> hotels() {
+        lock.readLock().lock();
+        try {
+            return new HashSet<>(byHotel.keySet());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoomIndex roomIndex(String hotelId, Long roomId) {
+        HotelIndex hotel = byHotel.get(hotelId);
+        return hotel == null ? null : hotel.byRoom.get(roomId);
+    }
+
+    private void add(Reservation reservation) {
+        if (reservation.getId() == null || reservation.getInitialDate() == null || reservation.getFinalDate() == null) {
+            return;
+        }
+        Reservation stored = copyOf(reservation);
+        HotelIndex hotel = byHotel.computeIfAbsent(stored.getHotelId(), hotelId -> new HotelIndex());
+        hotel.byId.put(stored.getId(), stored);
+        hotel.byRoom.computeIfAbsent(stored.getRoomId(), roomId -> new RoomIndex()).add(stored);
+    }
+
+    private void discard(String hotelId, Long id) {
+        HotelIndex hotel = byHotel.get(hotelId);
+        Reservation previous = hotel == null ? null : hotel.byId.remove(id);
+        if (previous == null) {
+            return;
+        }
+        RoomIndex room = hotel.byRoom.get(previous.getRoomId());
+        room.discard(previous);
+        if (room.isEmpty()) {
+            hotel.byRoom.remove(previous.getRoomId());
+        }
+        if (hotel.byId.isEmpty()) {
+            byHotel.remove(hotelId);
+        }
+    }
+
+    private static String hotelOf(Reservation reservation) {
+        return reservation.getHotelId() != null ? reservation.getHotelId() : HotelContext.DEFAULT_HOTEL;
+    }
+
+    private static Reservation copyOf(Reservation reservation) {
+        return new Reservation(reservation.getId(), reservation.getInitialDate(), reservation.getFinalDate(),
+                reservation.getRoomId(), hotelOf(reservation), null);
+    }
+
+    private static class HotelIndex {
+
+        private final Map<Long, RoomIndex> byRoom = new HashMap<>();
+        private final Map<Long, Reservation> byId = new HashMap<>();
+    }
+
+    private static class RoomIndex {
+
+        private final NavigableMap<LocalDate, Map<Long, Reservation>> byInitialDate = new TreeMap<>();
+        private long longestStay;
+
+        void add(Reservation reservation) {
+            byInitialDate.computeIfAbsent(reservation.getInitialDate(), date -> new HashMap<>())
+                    .put(reservation.getId(), reservation);
+            longestStay = Math.max(longestStay, DAYS.between(reservation.getInitialDate(), reservation.getFinalDate()));
+        }
+
+        void discard(Reservation reservation) {
+            Map<Long, Reservation> sameStart = byInitialDate.get(reservation.getInitialDate());
+            sameStart.remove(reservation.getId());
+            if (sameStart.isEmpty()) {
+                byInitialDate.remove(reservation.getInitialDate());
+            }
+        }
+
+        boolean isEmpty() {
+            return byInitialDate.isEmpty();
+        }
+
+        boolean isAvailable(LocalDate initialDate, LocalDate finalDate, Long exceptId) {
+            LocalDate lowerBound = initialDate.minusDays(longestStay);
+            if (lowerBound.isAfter(finalDate)) {
+                return true;
+            }
+            for (Map<Long, Reservation> sameStart : byInitialDate.subMap(lowerBound, true, finalDate, true).values()) {
+                for (Reservation reservation : sameStart.values()) {
+                    if (!reservation.getFinalDate().isBefore(initialDate) && !reservation.getId().equals(exceptId)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        void occupiedDays(LocalDate fromDate, LocalDate toDate, BitSet occupied) {
+            LocalDate lowerBound = fromDate.minusDays(longestStay);
+            if (lowerBound.isAfter(toDate)) {
+                return;
+            }
+            for (Map<Long, Reservation> sameStart : byInitialDate.subMap(lowerBound, true, toDate, true).values()) {
+                for (Reservation reservation : sameStart.values()) {
+                    if (!reservation.getFinalDate().isBefore(fromDate)) {
+                        LocalDate first = reservation.getInitialDate().isBefore(fromDate) ? fromDate : reservation.getInitialDate();
+                        LocalDate last = reservation.getFinalDate().isAfter(toDate) ? toDate : reservation.getFinalDate();
+                        if (!last.isBefore(first)) {
+                            occupied.set((int) DAYS.between(fromDate, first), (int) DAYS.between(fromDate, last) + 1);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
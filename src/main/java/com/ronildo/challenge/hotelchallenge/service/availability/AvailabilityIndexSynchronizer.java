@@ -0,0 +1,132 @@
+package com.ronildo.challenge.hotelchallenge.service.availability;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.OccupiedDate;
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelShards;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@Profile("!reactive")
+@ConditionalOnProperty(name = "reservation.persistence", havingValue = "jpa", matchIfMissing = true)
+public class AvailabilityIndexSynchronizer {
+
+    private final ReservationRepository reservationRepository;
+    private final OccupiedDateRepository occupiedDateRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityCache availabilityCache;
+    private final BookingCalendar bookingCalendar;
+    // read-write, so that reads come from the primary: a lagging replica would drop fresh bookings
+    private final TransactionTemplate transactionTemplate;
+    private final HotelShards hotelShards;
+
+    @PostConstruct
+    public void load() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (String shard : hotelShards.names()) {
+            hotelShards.callOnShard(shard, () -> {
+                Iterable<Reservation> stored = transactionTemplate.execute(status -> reservationRepository.findAll());
+                stored.forEach(reservations::add);
+                if (transactionTemplate.execute(status -> occupiedDateRepository.count()) == 0) {
+                    backfillOccupiedDates(stored);
+                }
+                return null;
+            });
+        }
+        availabilityIndex.load(reservations);
+        bookingCalendar.load(reservations);
+        availabilityCache.invalidateAll();
+    }
+
+    private void backfillOccupiedDates(Iterable<Reservation> reservations) {
+        for (Reservation reservation : reservations) {
+            if (reservation.getInitialDate() == null || reservation.getFinalDate() == null) {
+                continue;
+            }
+            try {
+                occupiedDateRepository.saveAllAndFlush(OccupiedDate.of(reservation));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Reservation {} overlaps an already occupied date and was not backfilled", reservation.getId());
+            }
+        }
+    }
+
+    @Scheduled(initialDelayString = "${reservation.index.consistency-check-delay:300000}",
+            fixedDelayString = "${reservation.index.consistency-check-delay:300000}")
+    public boolean verifyConsistency() {
+        boolean consistent = true;
+        for (String shard : hotelShards.names()) {
+            consistent &= hotelShards.callOnShard(shard, () -> verifyShard(shard));
+        }
+        return consistent;
+    }
+
+    private boolean verifyShard(String shard) {
+        Map<String, Map<Long, Reservation>> stored = new HashMap<>();
+        for (Reservation reservation : transactionTemplate.execute(status -> reservationRepository.findAll())) {
+            if (reservation.getInitialDate() != null && reservation.getFinalDate() != null) {
+                stored.computeIfAbsent(reservation.getHotelId(), hotelId -> new HashMap<>())
+                        .put(reservation.getId(), reservation);
+            }
+        }
+        Set<String> hotels = new HashSet<>(stored.keySet());
+        availabilityIndex.hotels().stream()
+                .filter(hotelId -> hotelShards.shardOf(hotelId).equals(shard))
+                .forEach(hotels::add);
+
+        boolean consistent = true;
+        for (String hotelId : hotels) {
+            consistent &= verifyHotel(hotelId, stored.getOrDefault(hotelId, Collections.emptyMap()));
+        }
+        return consistent;
+    }
+
+    private boolean verifyHotel(String hotelId, Map<Long, Reservation> stored) {
+        Map<Long, Reservation> indexed = availabilityIndex.snapshot(hotelId);
+        Set<Long> mismatched = new HashSet<>();
+        stored.forEach((id, reservation) -> {
+            if (!reservation.equals(indexed.get(id))) {
+                mismatched.add(id);
+            }
+        });
+        indexed.keySet().stream()
+                .filter(id -> !stored.containsKey(id))
+                .forEach(mismatched::add);
+
+        for (Long id : mismatched) {
+            Optional<Reservation> current = transactionTemplate.execute(status -> reservationRepository.findById(id))
+                    .filter(reservation -> hotelId.equals(reservation.getHotelId()));
+            log.warn("Availability index out of sync for reservation {} of hotel {}: indexed {}, stored {}",
+                    id, hotelId, indexed.get(id), current.orElse(null));
+            if (current.isPresent()) {
+                availabilityIndex.put(current.get());
+            } else {
+                availabilityIndex.remove(hotelId, id);
+            }
+        }
+        if (!mismatched.isEmpty()) {
+            availabilityCache.invalidateAll();
+        }
+        return mismatched.isEmpty();
+    }
+}
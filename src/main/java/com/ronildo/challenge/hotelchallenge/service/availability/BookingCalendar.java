@@ -0,0 +1,177 @@
+package com.ronildo.challenge.hotelchallenge.service.availability;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import lombok.Data;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class BookingCalendar {
+
+    public static final int HORIZON_DAYS = 32;
+
+    private static final long DAY_BITS = 0xFFFFFFFFL;
+
+    private final ConcurrentMap<RoomKey, AtomicLong> words = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public BookingCalendar() {
+        this(Clock.systemDefaultZone());
+    }
+
+    BookingCalendar(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void load(Iterable<Reservation> reservations) {
+        long empty = rebase(0L, today());
+        Map<RoomKey, Long> loaded = new HashMap<>();
+        for (Reservation reservation : reservations) {
+            if (reservation.getInitialDate() != null && reservation.getFinalDate() != null) {
+                String hotelId = reservation.getHotelId() != null ? reservation.getHotelId() : HotelContext.DEFAULT_HOTEL;
+                loaded.merge(new RoomKey(hotelId, reservation.getRoomId()),
+                        mask(empty, reservation.getInitialDate(), reservation.getFinalDate()),
+                        (word, claimed) -> word | claimed);
+            }
+        }
+        words.clear();
+        loaded.forEach((room, claimed) -> words.put(room, new AtomicLong(empty | claimed)));
+    }
+
+    public boolean covers(LocalDate initialDate, LocalDate finalDate) {
+        long base = Math.max(today(), base(wordOf(null)));
+        return initialDate.toEpochDay() >= base
+                && finalDate.toEpochDay() < base + HORIZON_DAYS
+                && !finalDate.isBefore(initialDate);
+    }
+
+    public boolean isFree(LocalDate initialDate, LocalDate finalDate) {
+        return isFree(null, initialDate, finalDate);
+    }
+
+    public boolean isFree(Long roomId, LocalDate initialDate, LocalDate finalDate) {
+        long word = rebase(wordOf(roomId), today());
+        return (word & mask(word, initialDate, finalDate)) == 0;
+    }
+
+    public boolean claim(LocalDate initialDate, LocalDate finalDate) {
+        return claim(null, initialDate, finalDate);
+    }
+
+    public boolean claim(Long roomId, LocalDate initialDate, LocalDate finalDate) {
+        long today = today();
+        AtomicLong word = roomWord(roomId);
+        while (true) {
+            long current = word.get();
+            long rebased = rebase(current, today);
+            long claimed = mask(rebased, initialDate, finalDate);
+            if ((rebased & claimed) != 0) {
+                return false;
+            }
+            if (word.compareAndSet(current, rebased | claimed)) {
+                return true;
+            }
+        }
+    }
+
+    public boolean move(LocalDate fromInitialDate, LocalDate fromFinalDate,
+                        LocalDate toInitialDate, LocalDate toFinalDate) {
+        return move(null, fromInitialDate, fromFinalDate, null, toInitialDate, toFinalDate);
+    }
+
+    public boolean move(Long fromRoomId, LocalDate fromInitialDate, LocalDate fromFinalDate,
+                        Long toRoomId, LocalDate toInitialDate, LocalDate toFinalDate) {
+        if (!Objects.equals(fromRoomId, toRoomId)) {
+            if (!claim(toRoomId, toInitialDate, toFinalDate)) {
+                return false;
+            }
+            release(fromRoomId, fromInitialDate, fromFinalDate);
+            return true;
+        }
+        long today = today();
+        AtomicLong word = roomWord(fromRoomId);
+        while (true) {
+            long current = word.get();
+            long rebased = rebase(current, today);
+            long remaining = rebased & ~mask(rebased, fromInitialDate, fromFinalDate);
+            long claimed = mask(rebased, toInitialDate, toFinalDate);
+            if ((remaining & claimed) != 0) {
+                return false;
+            }
+            if (word.compareAndSet(current, remaining | claimed)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(LocalDate initialDate, LocalDate finalDate) {
+        release(null, initialDate, finalDate);
+    }
+
+    public void release(Long roomId, LocalDate initialDate, LocalDate finalDate) {
+        AtomicLong word = words.get(new RoomKey(HotelContext.hotelId(), roomId));
+        if (word == null) {
+            return;
+        }
+        long today = today();
+        while (true) {
+            long current = word.get();
+            long rebased = rebase(current, today);
+            if (word.compareAndSet(current, rebased & ~mask(rebased, initialDate, finalDate))) {
+                return;
+            }
+        }
+    }
+
+    private long wordOf(Long roomId) {
+        AtomicLong word = words.get(new RoomKey(HotelContext.hotelId(), roomId));
+        return word != null ? word.get() : 0L;
+    }
+
+    private AtomicLong roomWord(Long roomId) {
+        return words.computeIfAbsent(new RoomKey(HotelContext.hotelId(), roomId), room -> new AtomicLong());
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    private static long base(long word) {
+        return word >>> 32;
+    }
+
+    private static long rebase(long word, long today) {
+        long base = base(word);
+        if (base >= today) {
+            return word;
+        }
+        long shift = today - base;
+        long days = shift >= HORIZON_DAYS ? 0 : (word & DAY_BITS) >>> shift;
+        return (today << 32) | days;
+    }
+
+    private static long mask(long word, LocalDate initialDate, LocalDate finalDate) {
+        long base = base(word);
+        long from = Math.max(initialDate.toEpochDay() - base, 0);
+        long to = Math.min(finalDate.toEpochDay() - base, HORIZON_DAYS - 1);
+        if (from > to) {
+            return 0;
+        }
+        return (DAY_BITS >>> (HORIZON_DAYS - (to - from + 1))) << from;
+    }
+
+    @Data
+    private static class RoomKey {
+        private final String hotelId;
+        private final Long roomId;
+    }
+}
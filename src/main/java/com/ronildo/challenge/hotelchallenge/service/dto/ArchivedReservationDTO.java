@@ -0,0 +1,25 @@
+package com.ronildo.challenge.hotelchallenge.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArchivedReservationDTO {
+    Long id;
+
+    LocalDate initialDate;
+
+    LocalDate finalDate;
+
+    Long roomId;
+
+    LocalDateTime archivedAt;
+}
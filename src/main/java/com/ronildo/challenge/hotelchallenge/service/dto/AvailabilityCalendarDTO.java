@@ -0,0 +1,20 @@
+package com.ronildo.challenge.hotelchallenge.service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AvailabilityCalendarDTO {
+    LocalDate fromDate;
+
+    LocalDate toDate;
+
+    String occupancy;
+
+    String bookableStarts;
+}
@@ -0,0 +1,20 @@
+package com.ronildo.challenge.hotelchallenge.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkReservationResultDTO {
+
+    public enum Status { CREATED, INVALID, CONFLICT }
+
+    int index;
+    Status status;
+    ReservationDTO reservation;
+    String details;
+}
@@ -1,5 +1,6 @@
 package com.ronildo.challenge.hotelchallenge.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,5 +23,18 @@ public class ReservationDTO {
     @NotNull(message = "finalDate is mandatory")
     @Future(message = "finalDate must be in the future")
     LocalDate finalDate;
+
+    Long roomId;
+
+    @JsonIgnore
+    Long version;
+
+    public ReservationDTO(Long id, LocalDate initialDate, LocalDate finalDate) {
+        this(id, initialDate, finalDate, null);
+    }
+
+    public ReservationDTO(Long id, LocalDate initialDate, LocalDate finalDate, Long roomId) {
+        this(id, initialDate, finalDate, roomId, null);
+    }
 }
 
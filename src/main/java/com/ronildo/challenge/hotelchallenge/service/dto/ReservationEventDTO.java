@@ -0,0 +1,32 @@
+package com.ronildo.challenge.hotelchallenge.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReservationEventDTO {
+    Long sequence;
+
+    ReservationEvent.Type type;
+
+    Long reservationId;
+
+    LocalDate initialDate;
+
+    LocalDate finalDate;
+
+    Long roomId;
+
+    Long version;
+
+    LocalDateTime occurredAt;
+}
@@ -0,0 +1,23 @@
+package com.ronildo.challenge.hotelchallenge.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoomDTO {
+    Long id;
+
+    @NotBlank(message = "number is mandatory")
+    String number;
+
+    @NotNull(message = "roomTypeId is mandatory")
+    Long roomTypeId;
+}
@@ -0,0 +1,19 @@
+package com.ronildo.challenge.hotelchallenge.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotBlank;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RoomTypeDTO {
+    Long id;
+
+    @NotBlank(message = "name is mandatory")
+    String name;
+}
@@ -0,0 +1,180 @@
+package com.ronildo.challenge.hotelchallenge.service.events;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationEventRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelShards;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+@Component
+@Profile("!reactive")
+public class ReservationOutbox {
+
+    private final ReservationEventRepository reservationEventRepository;
+    private final HotelShards hotelShards;
+    private final Duration gapTimeout;
+    private final List<Runnable> completionListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, ShardSequence> sequences = new ConcurrentHashMap<>();
+
+    public ReservationOutbox(
+            ReservationEventRepository reservationEventRepository,
+            HotelShards hotelShards,
+            @Value("${reservation.events.gap-timeout:PT5S}") Duration gapTimeout) {
+        this.reservationEventRepository = reservationEventRepository;
+        this.hotelShards = hotelShards;
+        this.gapTimeout = gapTimeout;
+    }
+
+    @PostConstruct
+    public void load() {
+        for (String shard : hotelShards.names()) {
+            long maxId = hotelShards.callOnShard(shard, reservationEventRepository::findMaxId);
+            ShardSequence sequence = sequenceOf(shard);
+            synchronized (sequence) {
+                sequence.lastAssigned = maxId;
+            }
+        }
+    }
+
+    public void append(ReservationEvent.Type type, Reservation reservation) {
+        appendAll(type, Collections.singletonList(reservation));
+    }
+
+    public void appendAll(ReservationEvent.Type type, Collection<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        List<ReservationEvent> events = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            events.add(ReservationEvent.of(type, reservation));
+        }
+
+        ShardSequence sequence = sequenceOf(hotelShards.currentShard());
+        List<Long> ids = new ArrayList<>(events.size());
+        synchronized (sequence) {
+            reservationEventRepository.saveAll(events).forEach(event -> ids.add(event.getId()));
+            sequence.inFlight.addAll(ids);
+            sequence.lastAssigned = Math.max(sequence.lastAssigned, Collections.max(ids));
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (sequence) {
+                    sequence.inFlight.removeAll(ids);
+                    if (status == STATUS_ROLLED_BACK) {
+                        long now = System.nanoTime();
+                        ids.forEach(id -> sequence.rolledBack.put(id, now));
+                    }
+                }
+                completionListeners.forEach(Runnable::run);
+            }
+        });
+    }
+
+    public long committedSequence() {
+        return committedSequence(hotelShards.currentShard());
+    }
+
+    public long committedSequence(String shard) {
+        ShardSequence sequence = sequenceOf(shard);
+        synchronized (sequence) {
+            return sequence.inFlight.isEmpty() ? sequence.lastAssigned : sequence.inFlight.first() - 1;
+        }
+    }
+
+    public long visibleSequence(long afterSequence) {
+        String shard = hotelShards.currentShard();
+        long committed = committedSequence(shard);
+        if (committed <= afterSequence) {
+            return committed;
+        }
+        List<Long> recent = reservationEventRepository.findIdsCreatedAfter(afterSequence, committed,
+                LocalDateTime.now().minus(gapTimeout));
+        if (recent.isEmpty()) {
+            return committed;
+        }
+
+        ShardSequence sequence = sequenceOf(shard);
+        Set<Long> rolledBack = sequence.rolledBackSince(System.nanoTime() - gapTimeout.toNanos());
+        Set<Long> visible = new HashSet<>(recent);
+        List<Long> missing = new ArrayList<>();
+        for (long id : recent) {
+            if (id - 1 > afterSequence && !visible.contains(id - 1) && !rolledBack.contains(id - 1)) {
+                missing.add(id - 1);
+            }
+        }
+        if (missing.isEmpty()) {
+            return committed;
+        }
+        missing.removeAll(reservationEventRepository.findExistingIds(missing));
+        if (missing.isEmpty()) {
+            return committed;
+        }
+
+        sequence.recheckAfter(gapTimeout, () -> completionListeners.forEach(Runnable::run));
+        return missing.get(0) - 1;
+    }
+
+    public void onCompletion(Runnable listener) {
+        completionListeners.add(listener);
+    }
+
+    private ShardSequence sequenceOf(String shard) {
+        return sequences.computeIfAbsent(shard, name -> new ShardSequence());
+    }
+
+    private static class ShardSequence {
+
+        final NavigableSet<Long> inFlight = new TreeSet<>();
+        final Map<Long, Long> rolledBack = new LinkedHashMap<>();
+        long lastAssigned;
+        boolean recheckScheduled;
+
+        synchronized Set<Long> rolledBackSince(long since) {
+            for (Iterator<Long> times = rolledBack.values().iterator(); times.hasNext(); ) {
+                if (times.next() - since >= 0) {
+                    break;
+                }
+                times.remove();
+            }
+            return new HashSet<>(rolledBack.keySet());
+        }
+
+        synchronized void recheckAfter(Duration delay, Runnable recheck) {
+            if (recheckScheduled) {
+                return;
+            }
+            recheckScheduled = true;
+            CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+                synchronized (this) {
+                    recheckScheduled = false;
+                }
+                recheck.run();
+            });
+        }
+    }
+}
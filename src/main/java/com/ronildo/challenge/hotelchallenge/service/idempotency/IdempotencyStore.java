@@ -0,0 +1,18 @@
+package com.ronildo.challenge.hotelchallenge.service.idempotency;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.IdempotentRequest;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    Optional<IdempotentRequest> start(String key, String fingerprint);
+
+    void complete(String key, int status, String location, String body);
+
+    void release(String key);
+
+    default boolean isTransactional() {
+        return false;
+    }
+}
@@ -0,0 +1,132 @@
+package com.ronildo.challenge.hotelchallenge.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ronildo.challenge.hotelchallenge.data.entity.IdempotentRequest;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import com.ronildo.challenge.hotelchallenge.exception.IdempotencyKeyInUseException;
+import com.ronildo.challenge.hotelchallenge.exception.IdempotencyKeyReusedException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
+
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+@Component
+@Profile("!reactive")
+public class IdempotentRequests {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public IdempotentRequests(
+            IdempotencyStore idempotencyStore,
+            ObjectMapper objectMapper,
+            ObjectProvider<TransactionTemplate> transactionTemplate,
+            @Value("${reservation.writes.mode:direct}") String writesMode,
+            @Value("${reservation.persistence:jpa}") String persistence) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        // the response is only stored with the write when both commit in the same database transaction
+        this.transactionTemplate = idempotencyStore.isTransactional()
+                && "direct".equals(writesMode) && "jpa".equals(persistence) ? transactionTemplate.getObject() : null;
+    }
+
+    IdempotentRequests(IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                       TransactionTemplate transactionTemplate) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    IdempotentRequests(IdempotencyStore idempotencyStore, ObjectMapper objectMapper) {
+        this(idempotencyStore, objectMapper, null);
+    }
+
+    public <T> ResponseEntity<T> execute(String key, String operation, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+
+        String fingerprint = operation + " " + DigestUtils.md5DigestAsHex(toJson(request).getBytes(StandardCharsets.UTF_8));
+        String hotelKey = hotelKey(key);
+        Optional<IdempotentRequest> stored = idempotencyStore.start(hotelKey, fingerprint);
+        if (stored.isPresent()) {
+            return replay(key, fingerprint, stored.get(), responseType);
+        }
+
+        boolean committed = false;
+        try {
+            ResponseEntity<T> response;
+            if (transactionTemplate != null) {
+                response = transactionTemplate.execute(status -> complete(hotelKey, action.get()));
+                committed = true;
+            } else {
+                response = action.get();
+                committed = true;
+                complete(hotelKey, response);
+            }
+            return response;
+        } finally {
+            if (!committed) {
+                idempotencyStore.release(hotelKey);
+            }
+        }
+    }
+
+    private <T> ResponseEntity<T> complete(String hotelKey, ResponseEntity<T> response) {
+        URI location = response.getHeaders().getLocation();
+        idempotencyStore.complete(hotelKey, response.getStatusCodeValue(),
+                location != null ? location.toString() : null, toJson(response.getBody()));
+        return response;
+    }
+
+    private <T> ResponseEntity<T> replay(String key, String fingerprint, IdempotentRequest stored, Class<T> responseType) {
+        if (!stored.getFingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        if (!stored.isCompleted()) {
+            throw new IdempotencyKeyInUseException(key);
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(stored.getStatus())
+                .header(IDEMPOTENT_REPLAYED, "true");
+        if (stored.getLocation() != null) {
+            response.header(HttpHeaders.LOCATION, stored.getLocation());
+        }
+        try {
+            return response.body(objectMapper.readValue(stored.getBody(), responseType));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String hotelKey(String key) {
+        String hotelId = HotelContext.hotelId();
+        return HotelContext.DEFAULT_HOTEL.equals(hotelId) ? key : hotelId + "/" + key;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.ronildo.challenge.hotelchallenge.service.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ronildo.challenge.hotelchallenge.data.entity.IdempotentRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "reservation.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Cache<String, IdempotentRequest> cache;
+
+    public InMemoryIdempotencyStore(
+            @Value("${reservation.idempotency.maximum-size:100000}") long maximumSize,
+            @Value("${reservation.idempotency.time-to-live:PT24H}") Duration timeToLive,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency");
+    }
+
+    @Override
+    public Optional<IdempotentRequest> start(String key, String fingerprint) {
+        return Optional.ofNullable(cache.asMap().putIfAbsent(key, IdempotentRequest.started(key, fingerprint)));
+    }
+
+    @Override
+    public void complete(String key, int status, String location, String body) {
+        cache.asMap().computeIfPresent(key, (k, started) -> new IdempotentRequest(
+                key, started.getFingerprint(), status, location, body, started.getCreatedAt()));
+    }
+
+    @Override
+    public void release(String key) {
+        cache.invalidate(key);
+    }
+}
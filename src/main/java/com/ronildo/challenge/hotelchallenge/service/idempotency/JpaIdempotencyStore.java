@@ -0,0 +1,99 @@
+package com.ronildo.challenge.hotelchallenge.service.idempotency;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.IdempotentRequest;
+import com.ronildo.challenge.hotelchallenge.data.repository.IdempotentRequestRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelShards;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Slf4j
+@Component
+@Profile("!reactive")
+@ConditionalOnProperty(name = "reservation.idempotency.store", havingValue = "jpa")
+public class JpaIdempotencyStore implements IdempotencyStore {
+
+    private final IdempotentRequestRepository idempotentRequestRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final HotelShards hotelShards;
+    private final Duration timeToLive;
+
+    public JpaIdempotencyStore(
+            IdempotentRequestRepository idempotentRequestRepository,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            HotelShards hotelShards,
+            @Value("${reservation.idempotency.time-to-live:PT24H}") Duration timeToLive) {
+        this.idempotentRequestRepository = idempotentRequestRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.hotelShards = hotelShards;
+        this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public Optional<IdempotentRequest> start(String key, String fingerprint) {
+        try {
+            transactionTemplate.executeWithoutResult(
+                    status -> entityManager.persist(IdempotentRequest.started(key, fingerprint)));
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            Optional<IdempotentRequest> stored = idempotentRequestRepository.findById(key);
+            if (stored.isPresent() && stored.get().getCreatedAt().isBefore(expiredBefore())) {
+                release(key);
+                return start(key, fingerprint);
+            }
+            // released between the insert and the read: report it as running, the client retries
+            return Optional.of(stored.orElseGet(() -> IdempotentRequest.started(key, fingerprint)));
+        }
+    }
+
+    @Override
+    public void complete(String key, int status, String location, String body) {
+        idempotentRequestRepository.findById(key).ifPresent(started -> {
+            started.setStatus(status);
+            started.setLocation(location);
+            started.setBody(body);
+            idempotentRequestRepository.save(started);
+        });
+    }
+
+    @Override
+    public void release(String key) {
+        idempotentRequestRepository.deleteByKey(key);
+    }
+
+    @Override
+    public boolean isTransactional() {
+        return true;
+    }
+
+    @Scheduled(initialDelayString = "${reservation.idempotency.purge-delay:3600000}",
+            fixedDelayString = "${reservation.idempotency.purge-delay:3600000}")
+    public int purgeExpired() {
+        LocalDateTime before = expiredBefore();
+        int purged = 0;
+        for (String shard : hotelShards.names()) {
+            purged += hotelShards.callOnShard(shard, () -> idempotentRequestRepository.deleteCreatedBefore(before));
+        }
+        if (purged > 0) {
+            log.info("Purged {} expired idempotent requests", purged);
+        }
+        return purged;
+    }
+
+    private LocalDateTime expiredBefore() {
+        return LocalDateTime.now().minus(timeToLive);
+    }
+}
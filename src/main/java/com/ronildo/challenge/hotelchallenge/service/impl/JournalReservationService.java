@@ -0,0 +1,557 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationModifiedException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityCache;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.availability.BookingCalendar;
+import com.ronildo.challenge.hotelchallenge.service.dto.AvailabilityCalendarDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO.Status;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.SuggestedStayDTO;
+import com.ronildo.challenge.hotelchallenge.service.journal.ReservationJournal;
+import com.ronildo.challenge.hotelchallenge.service.json.JsonBuffer;
+import com.ronildo.challenge.hotelchallenge.service.json.ReservationJsonCodec;
+import com.ronildo.challenge.hotelchallenge.service.mapper.ReservationMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import static com.ronildo.challenge.hotelchallenge.service.impl.ReservationServiceImpl.CONFLICT_SUGGESTIONS;
+import static java.time.temporal.ChronoUnit.DAYS;
+
+@Slf4j
+@Service
+@Primary
+@Profile("!reactive")
+@ConditionalOnProperty(name = "reservation.persistence", havingValue = "journal")
+public class JournalReservationService implements IReservationService {
+
+    private static final String SERVICE_TIMER = "reservation.service";
+
+    private final ReservationServiceImpl reservationService;
+    private final RoomRepository roomRepository;
+    private final ReservationMapper reservationMapper;
+    private final ReservationJsonCodec reservationJsonCodec;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityCache availabilityCache;
+    private final BookingCalendar bookingCalendar;
+    private final ReservationJournal journal;
+    private final ConcurrentMap<String, NavigableMap<Long, Reservation>> byHotel = new ConcurrentHashMap<>();
+    private final Deque<Change> unpublished = new ArrayDeque<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Object snapshotLock = new Object();
+    private long nextId;
+
+    public JournalReservationService(
+            ReservationServiceImpl reservationService,
+            RoomRepository roomRepository,
+            ReservationMapper reservationMapper,
+            ReservationJsonCodec reservationJsonCodec,
+            AvailabilityIndex availabilityIndex,
+            AvailabilityCache availabilityCache,
+            BookingCalendar bookingCalendar,
+            MeterRegistry meterRegistry,
+            @Value("${reservation.journal.directory:./data/journal}") String directory,
+            @Value("${reservation.journal.segment-size:67108864}") int segmentSize,
+            @Value("${reservation.journal.force-writes:true}") boolean forceWrites,
+            @Value("${reservation.writes.mode:direct}") String writesMode) {
+        if (!"direct".equals(writesMode)) {
+            throw new IllegalStateException("reservation.persistence=journal requires reservation.writes.mode=direct, not "
+                    + writesMode);
+        }
+        this.reservationService = reservationService;
+        this.roomRepository = roomRepository;
+        this.reservationMapper = reservationMapper;
+        this.reservationJsonCodec = reservationJsonCodec;
+        this.availabilityIndex = availabilityIndex;
+        this.availabilityCache = availabilityCache;
+        this.bookingCalendar = bookingCalendar;
+        this.journal = new ReservationJournal(Paths.get(directory), segmentSize, forceWrites);
+        FunctionCounter.builder("reservation.journal.appended", journal, ReservationJournal::appended)
+                .description("Changes appended to the journal")
+                .register(meterRegistry);
+        FunctionCounter.builder("reservation.journal.forces", journal, ReservationJournal::forces)
+                .description("Times the journal was forced to disk")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        long start = System.nanoTime();
+        writeLock.lock();
+        try {
+            byHotel.clear();
+            unpublished.clear();
+            long[] recovered = {0, 0};
+            long snapshotNextId = journal.recover((type, reservation) -> {
+                NavigableMap<Long, Reservation> hotel = reservations(reservation.getHotelId());
+                if (type == ReservationEvent.Type.DELETED) {
+                    hotel.remove(reservation.getId());
+                } else {
+                    hotel.put(reservation.getId(), reservation);
+                }
+                recovered[0] = Math.max(recovered[0], reservation.getId());
+                recovered[1]++;
+            });
+            nextId = Math.max(snapshotNextId, recovered[0] + 1);
+
+            List<Reservation> all = new ArrayList<>();
+            byHotel.values().forEach(hotel -> all.addAll(hotel.values()));
+            availabilityIndex.load(all);
+            bookingCalendar.load(all);
+            availabilityCache.invalidateAll();
+            log.info("Recovered {} reservations from {} journalled entries in {} ms",
+                    all.size(), recovered[1], (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        snapshot();
+        journal.close();
+    }
+
+    @Scheduled(initialDelayString = "${reservation.journal.snapshot-delay:60000}",
+            fixedDelayString = "${reservation.journal.snapshot-delay:60000}")
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            long generation;
+            long snapshotNextId;
+            Map<String, List<Reservation>> reservations = new HashMap<>();
+            writeLock.lock();
+            try {
+                if (!unpublished.isEmpty()) {
+                    settle(unpublished.peekLast().sequence);
+                }
+                generation = journal.startSnapshot();
+                if (generation < 0) {
+                    return;
+                }
+                snapshotNextId = nextId;
+                byHotel.forEach((hotelId, hotel) -> reservations.put(hotelId, new ArrayList<>(hotel.values())));
+            } finally {
+                writeLock.unlock();
+            }
+            journal.writeSnapshot(generation, snapshotNextId, reservations);
+        }
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public ReservationDTO createReservation(ReservationDTO newReservation) {
+        LocalDate initialDate = newReservation.getInitialDate();
+        LocalDate finalDate = newReservation.getFinalDate();
+        Long roomId = newReservation.getRoomId();
+        if (roomId != null && !roomRepository.existsByIdAndHotelId(roomId, HotelContext.hotelId())) {
+            throw new RoomNotFoundException(roomId);
+        }
+
+        Reservation reservation = reservationMapper.mapReservationDTOToReservation(newReservation);
+        reservation.setHotelId(HotelContext.hotelId());
+        reservation.setVersion(0L);
+        long sequence;
+        writeLock.lock();
+        try {
+            if (!reservationService.claimDates(roomId, initialDate, finalDate)) {
+                throw new DatesNotAvailableForReservationException(
+                        reservationService.nearestFreeStays(roomId, initialDate, finalDate, CONFLICT_SUGGESTIONS));
+            }
+            reservation.setId(nextId);
+            try {
+                sequence = journal.append(ReservationEvent.Type.CREATED, reservation.getHotelId(),
+                        Collections.singletonList(reservation));
+            } catch (RuntimeException e) {
+                reservationService.releaseDates(roomId, initialDate, finalDate);
+                throw e;
+            }
+            nextId++;
+            stage(new Change(sequence, reservation, null, false));
+        } finally {
+            writeLock.unlock();
+        }
+        settle(sequence);
+
+        return reservationMapper.mapReservationToReservationDTO(reservation);
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public List<BulkReservationResultDTO> createReservations(List<ReservationDTO> newReservations) {
+        BulkReservationResultDTO[] results = new BulkReservationResultDTO[newReservations.size()];
+        Set<Long> rooms = reservationService.existingRooms(newReservations);
+        List<Integer> valid = new ArrayList<>();
+        LocalDate fromDate = null;
+        LocalDate toDate = null;
+        for (int i = 0; i < newReservations.size(); i++) {
+            ReservationDTO newReservation = newReservations.get(i);
+            List<String> violations = reservationService.violationsOf(newReservation);
+            if (!violations.isEmpty()) {
+                results[i] = new BulkReservationResultDTO(i, Status.INVALID, newReservation, String.join("; ", violations));
+                continue;
+            }
+            Long roomId = newReservation.getRoomId();
+            if (roomId != null && !rooms.contains(roomId)) {
+                results[i] = new BulkReservationResultDTO(i, Status.INVALID, newReservation,
+                        new RoomNotFoundException(roomId).getMessage());
+                continue;
+            }
+            valid.add(i);
+            if (fromDate == null || newReservation.getInitialDate().isBefore(fromDate)) {
+                fromDate = newReservation.getInitialDate();
+            }
+            if (toDate == null || newReservation.getFinalDate().isAfter(toDate)) {
+                toDate = newReservation.getFinalDate();
+            }
+        }
+        if (valid.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        String hotelId = HotelContext.hotelId();
+        Map<Integer, Reservation> accepted = new LinkedHashMap<>();
+        Map<Long, BitSet> batch = new HashMap<>();
+        long sequence;
+        writeLock.lock();
+        try {
+            for (int i : valid) {
+                ReservationDTO newReservation = newReservations.get(i);
+                Long roomId = newReservation.getRoomId();
+                int first = (int) DAYS.between(fromDate, newReservation.getInitialDate());
+                int last = (int) DAYS.between(fromDate, newReservation.getFinalDate()) + 1;
+                BitSet roomBatch = batch.computeIfAbsent(roomId, room -> new BitSet());
+                if (roomBatch.get(first, last).cardinality() > 0) {
+                    results[i] = new BulkReservationResultDTO(i, Status.CONFLICT, newReservation,
+                            "The dates overlap a previous reservation of the batch");
+                } else if (!reservationService.claimDates(roomId, newReservation.getInitialDate(),
+                        newReservation.getFinalDate())) {
+                    results[i] = new BulkReservationResultDTO(i, Status.CONFLICT, newReservation,
+                            new DatesNotAvailableForReservationException().getMessage());
+                } else {
+                    roomBatch.set(first, last);
+                    Reservation reservation = reservationMapper.mapReservationDTOToReservation(newReservation);
+                    reservation.setHotelId(hotelId);
+                    reservation.setVersion(0L);
+                    reservation.setId(nextId + accepted.size());
+                    accepted.put(i, reservation);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return Arrays.asList(results);
+            }
+            try {
+                sequence = journal.append(ReservationEvent.Type.CREATED, hotelId, accepted.values());
+            } catch (RuntimeException e) {
+                accepted.values().forEach(reservation -> reservationService.releaseDates(
+                        reservation.getRoomId(), reservation.getInitialDate(), reservation.getFinalDate()));
+                throw e;
+            }
+            nextId += accepted.size();
+            accepted.values().forEach(reservation -> stage(new Change(sequence, reservation, null, false)));
+        } finally {
+            writeLock.unlock();
+        }
+        settle(sequence);
+
+        accepted.forEach((i, reservation) -> results[i] = new BulkReservationResultDTO(i, Status.CREATED,
+                reservationMapper.mapReservationToReservationDTO(reservation), null));
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public List<ReservationDTO> listAllReservations() {
+        return (List<ReservationDTO>) reservationMapper.mapReservationToReservationDTO(
+                new ArrayList<>(stored(HotelContext.hotelId()).values()));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public JsonBuffer listAllReservationsAsJson() {
+        return reservationJsonCodec.encode(new ArrayList<>(stored(HotelContext.hotelId()).values()));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public List<ReservationDTO> listReservations(Long afterId, LocalDate fromDate, LocalDate toDate, int limit) {
+        List<ReservationDTO> page = new ArrayList<>();
+        for (Reservation reservation : stored(HotelContext.hotelId())
+                .tailMap(afterId == null ? 0L : afterId, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            if (overlaps(reservation, fromDate, toDate)) {
+                page.add(reservationMapper.mapReservationToReservationDTO(reservation));
+            }
+        }
+        return page;
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public void streamReservations(LocalDate fromDate, LocalDate toDate, Consumer<ReservationDTO> consumer) {
+        stored(HotelContext.hotelId()).values().stream()
+                .filter(reservation -> overlaps(reservation, fromDate, toDate))
+                .forEach(reservation -> consumer.accept(reservationMapper.mapReservationToReservationDTO(reservation)));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public ReservationDTO findOneById(Long id) {
+        return reservationMapper.mapReservationToReservationDTO(find(id));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public Long findVersionById(Long id) {
+        return find(id).getVersion();
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public String findAllReservationsVersion() {
+        long count = 0;
+        long versions = 0;
+        NavigableMap<Long, Reservation> hotel = stored(HotelContext.hotelId());
+        for (Reservation reservation : hotel.values()) {
+            count++;
+            versions += reservation.getVersion();
+        }
+        return count + "-" + (hotel.isEmpty() ? 0 : hotel.lastKey()) + "-" + versions;
+    }
+
+    @Override
+    public Boolean checkAvailability(LocalDate initialDate, LocalDate finalDate, Long exceptId) {
+        return reservationService.checkAvailability(initialDate, finalDate, exceptId);
+    }
+
+    @Override
+    public AvailabilityCalendarDTO getAvailabilityCalendar(LocalDate fromDate, LocalDate toDate) {
+        return reservationService.getAvailabilityCalendar(fromDate, toDate);
+    }
+
+    @Override
+    public List<SuggestedStayDTO> suggestStays(LocalDate initialDate, LocalDate finalDate, Long roomId, int limit) {
+        return reservationService.suggestStays(initialDate, finalDate, roomId, limit);
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public ReservationDTO updateReservation(Long id, ReservationDTO reservationDTO) {
+        Reservation reservation;
+        long sequence;
+        writeLock.lock();
+        try {
+            Reservation previous = findLatest(id);
+            if (reservationDTO.getVersion() != null && !reservationDTO.getVersion().equals(previous.getVersion())) {
+                throw new ReservationModifiedException(id);
+            }
+
+            Long roomId = reservationDTO.getRoomId();
+            if (roomId != null && !roomId.equals(previous.getRoomId())
+                    && !roomRepository.existsByIdAndHotelId(roomId, HotelContext.hotelId())) {
+                throw new RoomNotFoundException(roomId);
+            }
+            if (!reservationService.moveDates(id, previous.getRoomId(), previous.getInitialDate(), previous.getFinalDate(),
+                    roomId, reservationDTO.getInitialDate(), reservationDTO.getFinalDate())) {
+                throw new DatesNotAvailableForReservationException();
+            }
+
+            reservation = new Reservation(id, previous.getInitialDate(), previous.getFinalDate(),
+                    previous.getRoomId(), previous.getHotelId(), previous.getVersion() + 1);
+            reservationMapper.updateReservationFromDTO(reservationDTO, reservation);
+            try {
+                sequence = journal.append(ReservationEvent.Type.UPDATED, reservation.getHotelId(),
+                        Collections.singletonList(reservation));
+            } catch (RuntimeException e) {
+                reservationService.moveDatesBack(previous.getRoomId(), previous.getInitialDate(),
+                        previous.getFinalDate(), roomId, reservationDTO.getInitialDate(), reservationDTO.getFinalDate());
+                throw e;
+            }
+            stage(new Change(sequence, reservation, previous, false));
+        } finally {
+            writeLock.unlock();
+        }
+        settle(sequence);
+
+        return reservationMapper.mapReservationToReservationDTO(reservation);
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public void deleteReservation(Long id) {
+        long sequence;
+        writeLock.lock();
+        try {
+            Reservation reservation = findLatest(id);
+            sequence = journal.append(ReservationEvent.Type.DELETED, reservation.getHotelId(),
+                    Collections.singletonList(reservation));
+            stage(new Change(sequence, reservation, null, true));
+        } finally {
+            writeLock.unlock();
+        }
+        settle(sequence);
+    }
+
+    private Reservation find(Long id) {
+        Reservation reservation = stored(HotelContext.hotelId()).get(id);
+        if (reservation == null) {
+            throw new ReservationNotFoundException(id);
+        }
+        return reservation;
+    }
+
+    private Reservation findLatest(Long id) {
+        String hotelId = HotelContext.hotelId();
+        for (Iterator<Change> changes = unpublished.descendingIterator(); changes.hasNext(); ) {
+            Change change = changes.next();
+            if (change.reservation.getId().equals(id) && change.reservation.getHotelId().equals(hotelId)) {
+                if (change.deleted) {
+                    throw new ReservationNotFoundException(id);
+                }
+                return change.reservation;
+            }
+        }
+        return find(id);
+    }
+
+    private void stage(Change change) {
+        Reservation reservation = change.reservation;
+        if (change.deleted) {
+            availabilityIndex.remove(reservation.getHotelId(), reservation.getId());
+            reservationService.releaseDates(reservation.getRoomId(), reservation.getInitialDate(), reservation.getFinalDate());
+        } else {
+            availabilityIndex.put(reservation);
+        }
+        invalidate(change);
+        unpublished.addLast(change);
+    }
+
+    private void settle(long sequence) {
+        try {
+            journal.awaitDurable(sequence);
+        } catch (RuntimeException e) {
+            writeLock.lock();
+            try {
+                discardUnpublished();
+            } finally {
+                writeLock.unlock();
+            }
+            throw e;
+        }
+        writeLock.lock();
+        try {
+            while (!unpublished.isEmpty() && unpublished.peekFirst().sequence <= sequence) {
+                Change change = unpublished.pollFirst();
+                Reservation reservation = change.reservation;
+                if (change.deleted) {
+                    reservations(reservation.getHotelId()).remove(reservation.getId());
+                } else {
+                    reservations(reservation.getHotelId()).put(reservation.getId(), reservation);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void discardUnpublished() {
+        long durable = journal.durable();
+        while (!unpublished.isEmpty() && unpublished.peekLast().sequence > durable) {
+            Change change = unpublished.pollLast();
+            Reservation reservation = change.reservation;
+            if (change.deleted) {
+                availabilityIndex.put(reservation);
+                reservationService.claimDates(reservation.getRoomId(), reservation.getInitialDate(),
+                        reservation.getFinalDate());
+            } else if (change.previous == null) {
+                availabilityIndex.remove(reservation.getHotelId(), reservation.getId());
+                reservationService.releaseDates(reservation.getRoomId(), reservation.getInitialDate(), reservation.getFinalDate());
+            } else {
+                availabilityIndex.put(change.previous);
+                reservationService.moveDatesBack(change.previous.getRoomId(), change.previous.getInitialDate(),
+                        change.previous.getFinalDate(), reservation.getRoomId(), reservation.getInitialDate(),
+                        reservation.getFinalDate());
+            }
+            invalidate(change);
+        }
+    }
+
+    private void invalidate(Change change) {
+        Reservation reservation = change.reservation;
+        availabilityCache.invalidate(reservation.getHotelId(), reservation.getInitialDate(), reservation.getFinalDate());
+        if (change.previous != null) {
+            availabilityCache.invalidate(reservation.getHotelId(), change.previous.getInitialDate(),
+                    change.previous.getFinalDate());
+        }
+    }
+
+    private NavigableMap<Long, Reservation> reservations(String hotelId) {
+        return byHotel.computeIfAbsent(hotelId, hotel -> new ConcurrentSkipListMap<>());
+    }
+
+    private NavigableMap<Long, Reservation> stored(String hotelId) {
+        return byHotel.getOrDefault(hotelId, Collections.emptyNavigableMap());
+    }
+
+    private static boolean overlaps(Reservation reservation, LocalDate fromDate, LocalDate toDate) {
+        return (fromDate == null || !reservation.getFinalDate().isBefore(fromDate))
+                && (toDate == null || !reservation.getInitialDate().isAfter(toDate));
+    }
+
+    private static final class Change {
+
+        final long sequence;
+        final Reservation reservation;
+        final Reservation previous;
+        final boolean deleted;
+
+        Change(long sequence, Reservation reservation, Reservation previous, boolean deleted) {
+            this.sequence = sequence;
+            this.reservation = reservation;
+            this.previous = previous;
+            this.deleted = deleted;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import com.ronildo.challenge.hotelchallenge.data.repository.ArchivedReservationRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelShards;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationArchiveService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityCache;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.dto.ArchivedReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.events.ReservationOutbox;
+import com.ronildo.challenge.hotelchallenge.service.mapper.ReservationMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@Profile("!reactive")
+public class ReservationArchiveServiceImpl implements IReservationArchiveService {
+
+    private static final String SERVICE_TIMER = "reservation.archive";
+
+    private final ReservationRepository reservationRepository;
+    private final OccupiedDateRepository occupiedDateRepository;
+    private final ArchivedReservationRepository archivedReservationRepository;
+    private final ReservationMapper reservationMapper;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityCache availabilityCache;
+    private final ReservationOutbox reservationOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final HotelShards hotelShards;
+    private final int batchSize;
+
+    public ReservationArchiveServiceImpl(
+            ReservationRepository reservationRepository,
+            OccupiedDateRepository occupiedDateRepository,
+            ArchivedReservationRepository archivedReservationRepository,
+            ReservationMapper reservationMapper,
+            AvailabilityIndex availabilityIndex,
+            AvailabilityCache availabilityCache,
+            ReservationOutbox reservationOutbox,
+            TransactionTemplate transactionTemplate,
+            HotelShards hotelShards,
+            @Value("${reservation.archive.batch-size:500}") int batchSize) {
+        this.reservationRepository = reservationRepository;
+        this.occupiedDateRepository = occupiedDateRepository;
+        this.archivedReservationRepository = archivedReservationRepository;
+        this.reservationMapper = reservationMapper;
+        this.availabilityIndex = availabilityIndex;
+        this.availabilityCache = availabilityCache;
+        this.reservationOutbox = reservationOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.hotelShards = hotelShards;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Scheduled(cron = "${reservation.archive.cron:0 30 3 * * *}")
+    public int archiveCompletedReservations() {
+        LocalDate today = LocalDate.now();
+        int archived = 0;
+        for (String shard : hotelShards.names()) {
+            int batch;
+            do {
+                batch = hotelShards.callOnShard(shard, () -> transactionTemplate.execute(status -> archiveBatch(today)));
+                archived += batch;
+            } while (batch == batchSize);
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} reservations that ended before {}", archived, today);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(LocalDate before) {
+        List<Reservation> completed = reservationRepository.findCompletedBefore(before, PageRequest.of(0, batchSize));
+        if (completed.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = completed.stream().map(Reservation::getId).collect(Collectors.toList());
+
+        archivedReservationRepository.archive(ids, LocalDateTime.now());
+        occupiedDateRepository.deleteByReservationIdIn(ids);
+        reservationRepository.deleteByIdIn(ids);
+        reservationOutbox.appendAll(ReservationEvent.Type.ARCHIVED, completed);
+
+        Map<String, List<Reservation>> byHotel = completed.stream().collect(Collectors.groupingBy(Reservation::getHotelId));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                byHotel.forEach((hotelId, reservations) -> {
+                    LocalDate firstDate = reservations.stream().map(Reservation::getInitialDate).min(LocalDate::compareTo).get();
+                    availabilityIndex.removeAll(hotelId,
+                            reservations.stream().map(Reservation::getId).collect(Collectors.toList()));
+                    availabilityCache.invalidate(hotelId, firstDate, before);
+                });
+            }
+        });
+        return completed.size();
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public List<ArchivedReservationDTO> listArchivedReservations(Long afterId, LocalDate fromDate, LocalDate toDate,
+                                                                 int limit) {
+        return reservationMapper.mapArchivedReservationToDTO(archivedReservationRepository.findPage(HotelContext.hotelId(),
+                afterId == null ? 0L : afterId, fromDate, toDate, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public ArchivedReservationDTO findArchivedById(Long id) {
+        return reservationMapper.mapArchivedReservationToDTO(archivedReservationRepository.findByIdAndHotelId(id, HotelContext.hotelId())
+                .orElseThrow(() -> new ReservationNotFoundException(id)));
+    }
+}
@@ -0,0 +1,141 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationEventRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelShards;
+import com.ronildo.challenge.hotelchallenge.service.IReservationEventService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationEventDTO;
+import com.ronildo.challenge.hotelchallenge.service.events.ReservationOutbox;
+import com.ronildo.challenge.hotelchallenge.service.mapper.ReservationMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(name = "reservation.persistence", havingValue = "jpa", matchIfMissing = true)
+public class ReservationEventServiceImpl implements IReservationEventService {
+
+    private static final String SERVICE_TIMER = "reservation.events";
+
+    private final ReservationEventRepository reservationEventRepository;
+    private final ReservationOutbox reservationOutbox;
+    private final ReservationMapper reservationMapper;
+    private final HotelShards hotelShards;
+    private final Executor taskExecutor;
+    private final Duration retention;
+    private final Set<Poll> polls = ConcurrentHashMap.newKeySet();
+
+    public ReservationEventServiceImpl(
+            ReservationEventRepository reservationEventRepository,
+            ReservationOutbox reservationOutbox,
+            ReservationMapper reservationMapper,
+            HotelShards hotelShards,
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor taskExecutor,
+            @Value("${reservation.events.retention:P7D}") Duration retention) {
+        this.reservationEventRepository = reservationEventRepository;
+        this.reservationOutbox = reservationOutbox;
+        this.reservationMapper = reservationMapper;
+        this.hotelShards = hotelShards;
+        this.taskExecutor = taskExecutor;
+        this.retention = retention;
+        reservationOutbox.onCompletion(this::answerPolls);
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public List<ReservationEventDTO> listEvents(long afterSequence, int limit) {
+        long visible = reservationOutbox.visibleSequence(afterSequence);
+        if (visible <= afterSequence) {
+            return Collections.emptyList();
+        }
+        return reservationMapper.mapReservationEventToDTO(
+                reservationEventRepository.findPage(HotelContext.hotelId(), afterSequence, visible,
+                        PageRequest.of(0, limit)));
+    }
+
+    @Override
+    public CompletableFuture<List<ReservationEventDTO>> awaitEvents(long afterSequence, int limit, Duration timeout) {
+        List<ReservationEventDTO> events = listEvents(afterSequence, limit);
+        if (!events.isEmpty() || timeout.isZero()) {
+            return CompletableFuture.completedFuture(events);
+        }
+
+        Poll poll = new Poll(HotelContext.hotelId(), afterSequence, limit, new CompletableFuture<>());
+        polls.add(poll);
+        poll.events.completeOnTimeout(Collections.emptyList(), timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((result, error) -> polls.remove(poll));
+        // a write may have completed between the first read and the registration
+        answer(poll);
+        return poll.events;
+    }
+
+    @Scheduled(cron = "${reservation.events.purge-cron:0 45 3 * * *}")
+    public int purgeExpired() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        int purged = 0;
+        for (String shard : hotelShards.names()) {
+            purged += hotelShards.callOnShard(shard, () -> reservationEventRepository.deleteCreatedBefore(before));
+        }
+        if (purged > 0) {
+            log.info("Purged {} reservation events older than {}", purged, retention);
+        }
+        return purged;
+    }
+
+    private void answerPolls() {
+        Map<String, Long> committed = new HashMap<>();
+        for (Poll poll : polls) {
+            String shard = hotelShards.shardOf(poll.hotelId);
+            if (poll.afterSequence < committed.computeIfAbsent(shard, reservationOutbox::committedSequence)) {
+                taskExecutor.execute(() -> answer(poll));
+            }
+        }
+    }
+
+    private void answer(Poll poll) {
+        if (poll.events.isDone()) {
+            return;
+        }
+        List<ReservationEventDTO> events = hotelShards.callAs(poll.hotelId,
+                () -> listEvents(poll.afterSequence, poll.limit));
+        if (!events.isEmpty()) {
+            poll.events.complete(events);
+        }
+    }
+
+    private static class Poll {
+
+        final String hotelId;
+        final long afterSequence;
+        final int limit;
+        final CompletableFuture<List<ReservationEventDTO>> events;
+
+        Poll(String hotelId, long afterSequence, int limit, CompletableFuture<List<ReservationEventDTO>> events) {
+            this.hotelId = hotelId;
+            this.afterSequence = afterSequence;
+            this.limit = limit;
+            this.events = events;
+        }
+    }
+}
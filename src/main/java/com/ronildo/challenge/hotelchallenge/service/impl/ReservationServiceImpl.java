@@ -1,78 +1,521 @@
 package com.ronildo.challenge.hotelchallenge.service.impl;
 
+import com.ronildo.challenge.hotelchallenge.controller.validation.ReservationDatesValidator;
+import com.ronildo.challenge.hotelchallenge.data.entity.OccupiedDate;
 import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
 import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
 import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.InvalidPeriodException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationModifiedException;
 import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomNotFoundException;
 import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityCache;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.availability.BookingCalendar;
+import com.ronildo.challenge.hotelchallenge.service.dto.AvailabilityCalendarDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO.Status;
 import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.SuggestedStayDTO;
+import com.ronildo.challenge.hotelchallenge.service.events.ReservationOutbox;
+import com.ronildo.challenge.hotelchallenge.service.json.JsonBuffer;
+import com.ronildo.challenge.hotelchallenge.service.json.ReservationJsonCodec;
 import com.ronildo.challenge.hotelchallenge.service.mapper.ReservationMapper;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ronildo.challenge.hotelchallenge.controller.validation.ReservationDatesValidator.MAX_DAYS_IN_ADVANCE;
+import static com.ronildo.challenge.hotelchallenge.controller.validation.ReservationDatesValidator.MAX_STAY_DAYS;
+import static java.time.temporal.ChronoUnit.DAYS;
 
 @Service
 @RequiredArgsConstructor
+@Profile("!reactive")
 public class ReservationServiceImpl implements IReservationService {
 
+    private static final String SERVICE_TIMER = "reservation.service";
+    private static final int MAX_CALENDAR_DAYS = 366;
+    static final int CONFLICT_SUGGESTIONS = 3;
+
     private final ReservationRepository reservationRepository;
+    private final OccupiedDateRepository occupiedDateRepository;
+    private final RoomRepository roomRepository;
     private final ReservationMapper reservationMapper;
+    private final ReservationJsonCodec reservationJsonCodec;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityCache availabilityCache;
+    private final BookingCalendar bookingCalendar;
+    private final ReservationOutbox reservationOutbox;
+    private final EntityManager entityManager;
+    private final Validator validator;
 
     @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional
     public ReservationDTO createReservation(ReservationDTO newReservation) {
-        if (!this.checkAvailability(newReservation.getInitialDate(), newReservation.getFinalDate(), null)) {
-            throw new DatesNotAvailableForReservationException();
+        LocalDate initialDate = newReservation.getInitialDate();
+        LocalDate finalDate = newReservation.getFinalDate();
+        Long roomId = newReservation.getRoomId();
+        if (roomId != null && !roomRepository.existsByIdAndHotelId(roomId, HotelContext.hotelId())) {
+            throw new RoomNotFoundException(roomId);
+        }
+        if (!this.claimDates(roomId, initialDate, finalDate)) {
+            throw new DatesNotAvailableForReservationException(
+                    nearestFreeStays(roomId, initialDate, finalDate, CONFLICT_SUGGESTIONS));
+        }
+        if (reservationRepository.existsOverlapping(HotelContext.hotelId(), roomId, initialDate, finalDate, null)) {
+            releaseDates(roomId, initialDate, finalDate);
+            throw new DatesNotAvailableForReservationException(
+                    nearestFreeStays(roomId, initialDate, finalDate, CONFLICT_SUGGESTIONS));
         }
 
         Reservation reservation = reservationMapper.mapReservationDTOToReservation(newReservation);
+        reservation.setHotelId(HotelContext.hotelId());
+        updateAvailabilityAfterCompletion(reservation, null, null,
+                () -> releaseDates(roomId, initialDate, finalDate));
+
         reservation = reservationRepository.save(reservation);
+        occupyDates(reservation);
+        reservationOutbox.append(ReservationEvent.Type.CREATED, reservation);
 
         return reservationMapper.mapReservationToReservationDTO(reservation);
     }
 
     @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional
+    public List<BulkReservationResultDTO> createReservations(List<ReservationDTO> newReservations) {
+        BulkReservationResultDTO[] results = new BulkReservationResultDTO[newReservations.size()];
+        Set<Long> rooms = existingRooms(newReservations);
+        List<Integer> valid = new ArrayList<>();
+        LocalDate fromDate = null;
+        LocalDate toDate = null;
+        for (int i = 0; i < newReservations.size(); i++) {
+            ReservationDTO newReservation = newReservations.get(i);
+            List<String> violations = violationsOf(newReservation);
+            if (!violations.isEmpty()) {
+                results[i] = new BulkReservationResultDTO(i, Status.INVALID, newReservation, String.join("; ", violations));
+                continue;
+            }
+            Long roomId = newReservation.getRoomId();
+            if (roomId != null && !rooms.contains(roomId)) {
+                results[i] = new BulkReservationResultDTO(i, Status.INVALID, newReservation,
+                        new RoomNotFoundException(roomId).getMessage());
+                continue;
+            }
+            valid.add(i);
+            if (fromDate == null || newReservation.getInitialDate().isBefore(fromDate)) {
+                fromDate = newReservation.getInitialDate();
+            }
+            if (toDate == null || newReservation.getFinalDate().isAfter(toDate)) {
+                toDate = newReservation.getFinalDate();
+            }
+        }
+        if (valid.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        List<Reservation> accepted = new ArrayList<>();
+        updateAvailabilityAfterCompletion(accepted, fromDate, toDate);
+
+        LocalDate periodStart = fromDate;
+        LocalDate periodEnd = toDate;
+        Map<Long, BitSet> stored = new HashMap<>();
+        Map<Long, BitSet> batch = new HashMap<>();
+        for (int i : valid) {
+            ReservationDTO newReservation = newReservations.get(i);
+            Long roomId = newReservation.getRoomId();
+            int first = (int) DAYS.between(fromDate, newReservation.getInitialDate());
+            int last = (int) DAYS.between(fromDate, newReservation.getFinalDate()) + 1;
+            BitSet roomBatch = batch.computeIfAbsent(roomId, room -> new BitSet());
+            if (roomBatch.get(first, last).cardinality() > 0) {
+                results[i] = new BulkReservationResultDTO(i, Status.CONFLICT, newReservation,
+                        "The dates overlap a previous reservation of the batch");
+            } else if (stored.computeIfAbsent(roomId, room -> availabilityIndex.occupiedDays(room, periodStart, periodEnd))
+                    .get(first, last).cardinality() > 0
+                    || !this.claimDates(roomId, newReservation.getInitialDate(), newReservation.getFinalDate())) {
+                results[i] = new BulkReservationResultDTO(i, Status.CONFLICT, newReservation,
+                        new DatesNotAvailableForReservationException().getMessage());
+            } else if (reservationRepository.existsOverlapping(HotelContext.hotelId(), roomId,
+                    newReservation.getInitialDate(), newReservation.getFinalDate(), null)) {
+                releaseDates(roomId, newReservation.getInitialDate(), newReservation.getFinalDate());
+                results[i] = new BulkReservationResultDTO(i, Status.CONFLICT, newReservation,
+                        new DatesNotAvailableForReservationException().getMessage());
+            } else {
+                roomBatch.set(first, last);
+                Reservation reservation = reservationMapper.mapReservationDTOToReservation(newReservation);
+                reservation.setHotelId(HotelContext.hotelId());
+                accepted.add(reservation);
+            }
+        }
+
+        reservationRepository.saveAll(accepted);
+        List<OccupiedDate> occupiedDates = new ArrayList<>();
+        accepted.forEach(reservation -> occupiedDates.addAll(OccupiedDate.of(reservation)));
+        try {
+            occupiedDateRepository.saveAllAndFlush(occupiedDates);
+        } catch (DataIntegrityViolationException e) {
+            throw new DatesNotAvailableForReservationException();
+        }
+        reservationOutbox.appendAll(ReservationEvent.Type.CREATED, accepted);
+
+        Iterator<Reservation> created = accepted.iterator();
+        for (int i : valid) {
+            if (results[i] == null) {
+                results[i] = new BulkReservationResultDTO(i, Status.CREATED,
+                        reservationMapper.mapReservationToReservationDTO(created.next()), null);
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
     public List<ReservationDTO> listAllReservations() {
-        Collection<Reservation> all = (Collection<Reservation>) reservationRepository.findAll();
+        Collection<Reservation> all = reservationRepository.findByHotelId(HotelContext.hotelId());
 
         return (List<ReservationDTO>) reservationMapper.mapReservationToReservationDTO(all);
     }
 
     @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public JsonBuffer listAllReservationsAsJson() {
+        return reservationJsonCodec.encode(reservationRepository.findByHotelId(HotelContext.hotelId()));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> listReservations(Long afterId, LocalDate fromDate, LocalDate toDate, int limit) {
+        List<Reservation> page = reservationRepository.findPage(HotelContext.hotelId(),
+                afterId == null ? 0L : afterId, fromDate, toDate, PageRequest.of(0, limit));
+
+        return (List<ReservationDTO>) reservationMapper.mapReservationToReservationDTO(page);
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public void streamReservations(LocalDate fromDate, LocalDate toDate, Consumer<ReservationDTO> consumer) {
+        try (Stream<Reservation> reservations = reservationRepository.streamAll(HotelContext.hotelId(), fromDate, toDate)) {
+            reservations.forEach(reservation -> {
+                consumer.accept(reservationMapper.mapReservationToReservationDTO(reservation));
+                entityManager.detach(reservation);
+            });
+        }
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
     public ReservationDTO findOneById(Long id) {
-        Optional<Reservation> entity = reservationRepository.findById(id);
+        Optional<Reservation> entity = reservationRepository.findByIdAndHotelId(id, HotelContext.hotelId());
 
         return reservationMapper.mapReservationToReservationDTO(
                 entity.orElseThrow(() -> new ReservationNotFoundException(id)));
     }
 
     @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public Long findVersionById(Long id) {
+        return reservationRepository.findVersionById(HotelContext.hotelId(), id)
+                .orElseThrow(() -> new ReservationNotFoundException(id));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public String findAllReservationsVersion() {
+        return reservationRepository.findCollectionVersion(HotelContext.hotelId());
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
     public Boolean checkAvailability(LocalDate initialDate, LocalDate finalDate, Long exceptId) {
-        List<Reservation> reservations = reservationRepository.checkReservationInPeriod(initialDate, finalDate, exceptId);
-        return reservations.isEmpty();
+        if (exceptId != null) {
+            return availabilityIndex.isAvailable(initialDate, finalDate, exceptId);
+        }
+        return availabilityCache.isAvailable(initialDate, finalDate,
+                () -> availabilityIndex.isAvailable(initialDate, finalDate, null));
     }
 
     @Override
-    public ReservationDTO updateReservation(Long id, ReservationDTO reservationDTO) {
-        if (!this.checkAvailability(reservationDTO.getInitialDate(), reservationDTO.getFinalDate(), id)) {
-            throw new DatesNotAvailableForReservationException();
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public AvailabilityCalendarDTO getAvailabilityCalendar(LocalDate fromDate, LocalDate toDate) {
+        LocalDate today = LocalDate.now();
+        LocalDate from = fromDate != null ? fromDate : today.plusDays(1);
+        LocalDate to = toDate != null ? toDate : today.plusDays(MAX_DAYS_IN_ADVANCE);
+        if (to.isBefore(from) || DAYS.between(from, to) >= MAX_CALENDAR_DAYS) {
+            throw new InvalidPeriodException(
+                    "The calendar must end after it starts and span at most " + MAX_CALENDAR_DAYS + " days");
+        }
+
+        int days = (int) DAYS.between(from, to) + 1;
+        BitSet occupied = availabilityIndex.occupiedDays(from, to.plusDays(1));
+        LocalDate lastFinalDate = today.plusDays(MAX_DAYS_IN_ADVANCE);
+
+        StringBuilder occupancy = new StringBuilder(days);
+        StringBuilder bookableStarts = new StringBuilder(days);
+        for (int day = 0; day < days; day++) {
+            LocalDate date = from.plusDays(day);
+            boolean bookable = date.isAfter(today)
+                    && !date.plusDays(1).isAfter(lastFinalDate)
+                    && !occupied.get(day)
+                    && !occupied.get(day + 1);
+            occupancy.append(occupied.get(day) ? '1' : '0');
+            bookableStarts.append(bookable ? '1' : '0');
         }
 
-        Reservation reservation = reservationRepository.findById(id)
+        return new AvailabilityCalendarDTO(from, to, occupancy.toString(), bookableStarts.toString());
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public List<SuggestedStayDTO> suggestStays(LocalDate initialDate, LocalDate finalDate, Long roomId, int limit) {
+        long nights = DAYS.between(initialDate, finalDate);
+        if (nights < 1 || nights > MAX_STAY_DAYS) {
+            throw new InvalidPeriodException("The stay must last between 1 and " + MAX_STAY_DAYS + " days");
+        }
+        if (roomId != null && !roomRepository.existsByIdAndHotelId(roomId, HotelContext.hotelId())) {
+            throw new RoomNotFoundException(roomId);
+        }
+        return nearestFreeStays(roomId, initialDate, finalDate, limit);
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional
+    public ReservationDTO updateReservation(Long id, ReservationDTO reservationDTO) {
+        Reservation reservation = reservationRepository.findByIdAndHotelId(id, HotelContext.hotelId())
                 .orElseThrow(() -> new ReservationNotFoundException(id));
+        if (reservationDTO.getVersion() != null && !reservationDTO.getVersion().equals(reservation.getVersion())) {
+            throw new ReservationModifiedException(id);
+        }
+
+        LocalDate previousInitialDate = reservation.getInitialDate();
+        LocalDate previousFinalDate = reservation.getFinalDate();
+        Long previousRoomId = reservation.getRoomId();
+        Long roomId = reservationDTO.getRoomId();
+        if (roomId != null && !roomId.equals(previousRoomId)
+                && !roomRepository.existsByIdAndHotelId(roomId, HotelContext.hotelId())) {
+            throw new RoomNotFoundException(roomId);
+        }
+        if (!this.moveDates(id, previousRoomId, previousInitialDate, previousFinalDate,
+                roomId, reservationDTO.getInitialDate(), reservationDTO.getFinalDate())) {
+            throw new DatesNotAvailableForReservationException();
+        }
+        if (reservationRepository.existsOverlapping(HotelContext.hotelId(), roomId,
+                reservationDTO.getInitialDate(), reservationDTO.getFinalDate(), id)) {
+            this.moveDatesBack(previousRoomId, previousInitialDate, previousFinalDate,
+                    roomId, reservationDTO.getInitialDate(), reservationDTO.getFinalDate());
+            throw new DatesNotAvailableForReservationException();
+        }
 
         reservationMapper.updateReservationFromDTO(reservationDTO, reservation);
-        return reservationMapper.mapReservationToReservationDTO(reservationRepository.save(reservation));
+        updateAvailabilityAfterCompletion(reservation, previousInitialDate, previousFinalDate,
+                () -> this.moveDatesBack(previousRoomId, previousInitialDate, previousFinalDate,
+                        roomId, reservationDTO.getInitialDate(), reservationDTO.getFinalDate()));
+
+        reservation = reservationRepository.save(reservation);
+        occupiedDateRepository.deleteByReservationId(id);
+        occupyDates(reservation);
+        reservationOutbox.append(ReservationEvent.Type.UPDATED, reservation);
+
+        return reservationMapper.mapReservationToReservationDTO(reservation);
     }
 
     @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional
     public void deleteReservation(Long id) {
-        Reservation reservation = reservationRepository.findById(id)
+        Reservation reservation = reservationRepository.findByIdAndHotelId(id, HotelContext.hotelId())
                 .orElseThrow(() -> new ReservationNotFoundException(id));
 
+        occupiedDateRepository.deleteByReservationId(id);
         reservationRepository.delete(reservation);
+        reservationOutbox.append(ReservationEvent.Type.DELETED, reservation);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                availabilityIndex.remove(reservation.getHotelId(), id);
+                availabilityCache.invalidate(reservation.getHotelId(), reservation.getInitialDate(), reservation.getFinalDate());
+                releaseDates(reservation.getRoomId(), reservation.getInitialDate(), reservation.getFinalDate());
+            }
+        });
+    }
+
+    private void occupyDates(Reservation reservation) {
+        try {
+            occupiedDateRepository.saveAllAndFlush(OccupiedDate.of(reservation));
+        } catch (DataIntegrityViolationException e) {
+            throw new DatesNotAvailableForReservationException();
+        }
+    }
+
+    private void updateAvailabilityAfterCompletion(Reservation reservation,
+                                                   LocalDate previousInitialDate, LocalDate previousFinalDate,
+                                                   Runnable onRollback) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    availabilityIndex.put(reservation);
+                    availabilityCache.invalidate(reservation.getInitialDate(), reservation.getFinalDate());
+                    if (previousInitialDate != null) {
+                        availabilityCache.invalidate(previousInitialDate, previousFinalDate);
+                    }
+                } else {
+                    onRollback.run();
+                }
+            }
+        });
+    }
+
+    private void updateAvailabilityAfterCompletion(List<Reservation> reservations,
+                                                   LocalDate fromDate, LocalDate toDate) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    reservations.forEach(availabilityIndex::put);
+                    availabilityCache.invalidate(fromDate, toDate);
+                } else {
+                    reservations.forEach(reservation ->
+                            releaseDates(reservation.getRoomId(), reservation.getInitialDate(), reservation.getFinalDate()));
+                }
+            }
+        });
+    }
+
+    List<String> violationsOf(ReservationDTO reservationDTO) {
+        if (reservationDTO == null) {
+            return Collections.singletonList("reservation is mandatory");
+        }
+        List<String> violations = validator.validate(reservationDTO).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.toList());
+        if (violations.isEmpty()) {
+            violations = ReservationDatesValidator.violations(reservationDTO);
+        }
+        return violations;
+    }
+
+    Set<Long> existingRooms(List<ReservationDTO> reservations) {
+        Set<Long> requested = reservations.stream()
+                .filter(Objects::nonNull)
+                .map(ReservationDTO::getRoomId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> rooms = new HashSet<>();
+        if (!requested.isEmpty()) {
+            roomRepository.findByHotelIdAndIdIn(HotelContext.hotelId(), requested).forEach(room -> rooms.add(room.getId()));
+        }
+        return rooms;
+    }
+
+    List<SuggestedStayDTO> nearestFreeStays(Long roomId, LocalDate initialDate, LocalDate finalDate, int limit) {
+        int nights = (int) DAYS.between(initialDate, finalDate);
+        LocalDate first = LocalDate.now().plusDays(1);
+        LocalDate last = LocalDate.now().plusDays(MAX_DAYS_IN_ADVANCE);
+        int days = (int) DAYS.between(first, last) + 1;
+        int starts = days - nights;
+        if (starts <= 0) {
+            return Collections.emptyList();
+        }
+
+        BitSet occupied = availabilityIndex.occupiedDays(roomId, first, last);
+        BitSet fits = new BitSet(starts);
+        int freeDays = 0;
+        for (int day = days - 1; day >= 0; day--) {
+            freeDays = occupied.get(day) ? 0 : freeDays + 1;
+            if (day < starts && freeDays > nights) {
+                fits.set(day);
+            }
+        }
+
+        int requested = (int) DAYS.between(first, initialDate);
+        int after = Math.max(0, Math.min(requested, starts));
+        int before = after - 1;
+        List<SuggestedStayDTO> suggestions = new ArrayList<>(limit);
+        while (suggestions.size() < limit && (before >= 0 || after < starts)) {
+            int start;
+            if (after >= starts || (before >= 0 && requested - before <= after - requested)) {
+                start = before--;
+            } else {
+                start = after++;
+            }
+            if (fits.get(start)) {
+                LocalDate suggested = first.plusDays(start);
+                suggestions.add(new SuggestedStayDTO(suggested, suggested.plusDays(nights), roomId));
+            }
+        }
+        return suggestions;
+    }
+
+    boolean claimDates(Long roomId, LocalDate initialDate, LocalDate finalDate) {
+        if (bookingCalendar.covers(initialDate, finalDate)) {
+            return bookingCalendar.claim(roomId, initialDate, finalDate);
+        }
+        return availabilityIndex.isAvailable(roomId, initialDate, finalDate, null);
+    }
+
+    void releaseDates(Long roomId, LocalDate initialDate, LocalDate finalDate) {
+        bookingCalendar.release(roomId, initialDate, finalDate);
+    }
+
+    boolean moveDates(Long id, Long fromRoomId, LocalDate fromInitialDate, LocalDate fromFinalDate,
+                      Long toRoomId, LocalDate toInitialDate, LocalDate toFinalDate) {
+        if (bookingCalendar.covers(toInitialDate, toFinalDate)) {
+            return bookingCalendar.move(fromRoomId, fromInitialDate, fromFinalDate, toRoomId, toInitialDate, toFinalDate);
+        }
+        if (!availabilityIndex.isAvailable(toRoomId, toInitialDate, toFinalDate, id)) {
+            return false;
+        }
+        releaseDates(fromRoomId, fromInitialDate, fromFinalDate);
+        return true;
+    }
+
+    void moveDatesBack(Long fromRoomId, LocalDate fromInitialDate, LocalDate fromFinalDate,
+                       Long toRoomId, LocalDate toInitialDate, LocalDate toFinalDate) {
+        releaseDates(toRoomId, toInitialDate, toFinalDate);
+        bookingCalendar.claim(fromRoomId, fromInitialDate, fromFinalDate);
     }
 }
@@ -0,0 +1,108 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Room;
+import com.ronildo.challenge.hotelchallenge.data.entity.RoomType;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomTypeRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.InvalidPeriodException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomNotFoundException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomTypeNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IRoomService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomTypeDTO;
+import com.ronildo.challenge.hotelchallenge.service.mapper.RoomMapper;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Profile("!reactive")
+public class RoomServiceImpl implements IRoomService {
+
+    private static final String SERVICE_TIMER = "room.service";
+
+    private final RoomTypeRepository roomTypeRepository;
+    private final RoomRepository roomRepository;
+    private final RoomMapper roomMapper;
+    private final AvailabilityIndex availabilityIndex;
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional
+    public RoomTypeDTO createRoomType(RoomTypeDTO newRoomType) {
+        RoomType roomType = roomMapper.mapRoomTypeDTOToRoomType(newRoomType);
+        roomType.setHotelId(HotelContext.hotelId());
+        return roomMapper.mapRoomTypeToRoomTypeDTO(roomTypeRepository.save(roomType));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public List<RoomTypeDTO> listRoomTypes() {
+        return roomMapper.mapRoomTypeToRoomTypeDTO(roomTypeRepository.findByHotelIdOrderById(HotelContext.hotelId()));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public RoomTypeDTO findRoomTypeById(Long id) {
+        return roomMapper.mapRoomTypeToRoomTypeDTO(roomTypeRepository.findByIdAndHotelId(id, HotelContext.hotelId())
+                .orElseThrow(() -> new RoomTypeNotFoundException(id)));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional
+    public RoomDTO createRoom(RoomDTO newRoom) {
+        if (!roomTypeRepository.existsByIdAndHotelId(newRoom.getRoomTypeId(), HotelContext.hotelId())) {
+            throw new RoomTypeNotFoundException(newRoom.getRoomTypeId());
+        }
+        Room room = roomMapper.mapRoomDTOToRoom(newRoom);
+        room.setHotelId(HotelContext.hotelId());
+        return roomMapper.mapRoomToRoomDTO(roomRepository.save(room));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public List<RoomDTO> listRooms(Long roomTypeId) {
+        Iterable<Room> rooms = roomTypeId == null
+                ? roomRepository.findByHotelIdOrderById(HotelContext.hotelId())
+                : roomRepository.findByHotelIdAndRoomTypeIdOrderById(HotelContext.hotelId(), roomTypeId);
+        return roomMapper.mapRoomToRoomDTO(rooms);
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    @Transactional(readOnly = true)
+    public RoomDTO findRoomById(Long id) {
+        return roomMapper.mapRoomToRoomDTO(roomRepository.findByIdAndHotelId(id, HotelContext.hotelId())
+                .orElseThrow(() -> new RoomNotFoundException(id)));
+    }
+
+    @Override
+    @Timed(value = SERVICE_TIMER, histogram = true)
+    public RoomDTO findFreeRoom(Long roomTypeId, LocalDate initialDate, LocalDate finalDate) {
+        if (finalDate.isBefore(initialDate)) {
+            throw new InvalidPeriodException("The final date must not be before the initial date");
+        }
+        if (!roomTypeRepository.existsByIdAndHotelId(roomTypeId, HotelContext.hotelId())) {
+            throw new RoomTypeNotFoundException(roomTypeId);
+        }
+
+        Long roomId = availabilityIndex.findFreeRoom(
+                        roomRepository.findIdsByRoomTypeId(HotelContext.hotelId(), roomTypeId), initialDate, finalDate)
+                .orElseThrow(DatesNotAvailableForReservationException::new);
+        return roomMapper.mapRoomToRoomDTO(roomRepository.findByIdAndHotelId(roomId, HotelContext.hotelId())
+                .orElseThrow(() -> new RoomNotFoundException(roomId)));
+    }
+}
@@ -0,0 +1,116 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.dto.AvailabilityCalendarDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.SuggestedStayDTO;
+import com.ronildo.challenge.hotelchallenge.service.json.JsonBuffer;
+import com.ronildo.challenge.hotelchallenge.service.sequencer.BookingSequencer;
+import com.ronildo.challenge.hotelchallenge.service.sequencer.SequencedWritesCondition;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+@Service
+@Primary
+@Profile("!reactive")
+@Conditional(SequencedWritesCondition.class)
+@RequiredArgsConstructor
+public class SequencedReservationService implements IReservationService {
+
+    private final ReservationServiceImpl reservationService;
+    private final BookingSequencer bookingSequencer;
+
+    @Override
+    public ReservationDTO createReservation(ReservationDTO newReservation) {
+        return await(bookingSequencer.create(newReservation));
+    }
+
+    @Override
+    public List<BulkReservationResultDTO> createReservations(List<ReservationDTO> newReservations) {
+        return await(bookingSequencer.createAll(newReservations));
+    }
+
+    @Override
+    public List<ReservationDTO> listAllReservations() {
+        return reservationService.listAllReservations();
+    }
+
+    @Override
+    public JsonBuffer listAllReservationsAsJson() {
+        return reservationService.listAllReservationsAsJson();
+    }
+
+    @Override
+    public List<ReservationDTO> listReservations(Long afterId, LocalDate fromDate, LocalDate toDate, int limit) {
+        return reservationService.listReservations(afterId, fromDate, toDate, limit);
+    }
+
+    @Override
+    public void streamReservations(LocalDate fromDate, LocalDate toDate, Consumer<ReservationDTO> consumer) {
+        reservationService.streamReservations(fromDate, toDate, consumer);
+    }
+
+    @Override
+    public ReservationDTO findOneById(Long id) {
+        return reservationService.findOneById(id);
+    }
+
+    @Override
+    public Long findVersionById(Long id) {
+        return reservationService.findVersionById(id);
+    }
+
+    @Override
+    public String findAllReservationsVersion() {
+        return reservationService.findAllReservationsVersion();
+    }
+
+    @Override
+    public Boolean checkAvailability(LocalDate initialDate, LocalDate finalDate, Long id) {
+        return reservationService.checkAvailability(initialDate, finalDate, id);
+    }
+
+    @Override
+    public AvailabilityCalendarDTO getAvailabilityCalendar(LocalDate fromDate, LocalDate toDate) {
+        return reservationService.getAvailabilityCalendar(fromDate, toDate);
+    }
+
+    @Override
+    public List<SuggestedStayDTO> suggestStays(LocalDate initialDate, LocalDate finalDate, Long roomId, int limit) {
+        return reservationService.suggestStays(initialDate, finalDate, roomId, limit);
+    }
+
+    @Override
+    public ReservationDTO updateReservation(Long id, ReservationDTO reservationDTO) {
+        return await(bookingSequencer.update(id, reservationDTO));
+    }
+
+    @Override
+    public void deleteReservation(Long id) {
+        await(bookingSequencer.delete(id));
+    }
+
+    private static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.ronildo.challenge.hotelchallenge.service.journal;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+@Slf4j
+public final class ReservationJournal implements Closeable {
+
+    private static final Pattern SEGMENT = Pattern.compile("journal-(\\d{16})\\.log");
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d{16})\\.bin");
+    private static final int SNAPSHOT_MAGIC = 0x52534E50;
+    private static final int RECORD_HEADER = 8;
+    private static final int ENTRY_SIZE = 32;
+    private static final ReservationEvent.Type[] TYPES = ReservationEvent.Type.values();
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean forceWrites;
+    private final ReentrantLock forceLock = new ReentrantLock();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long generation;
+    private long snapshotGeneration;
+    private long appended;
+    private long forces;
+    private volatile long durable;
+    private boolean closed;
+    private boolean failed;
+
+    public ReservationJournal(Path directory, int segmentSize, boolean forceWrites) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.forceWrites = forceWrites;
+    }
+
+    public synchronized long recover(BiConsumer<ReservationEvent.Type, Reservation> apply) throws IOException {
+        Files.createDirectories(directory);
+        if (segment != null && !closed) {
+            segment.force();
+            channel.close();
+        }
+        segment = null;
+        closed = false;
+        failed = false;
+        long nextId = 1;
+        snapshotGeneration = 0;
+        List<Long> snapshots = generations(SNAPSHOT);
+        if (!snapshots.isEmpty()) {
+            long latest = snapshots.get(snapshots.size() - 1);
+            List<Reservation> reservations = new ArrayList<>();
+            Long snapshotNextId = readSnapshot(snapshotPath(latest), reservations);
+            if (snapshotNextId == null) {
+                throw new IOException("Journal snapshot " + snapshotPath(latest).getFileName() + " is unreadable");
+            }
+            reservations.forEach(reservation -> apply.accept(ReservationEvent.Type.CREATED, reservation));
+            nextId = snapshotNextId;
+            snapshotGeneration = latest;
+        }
+
+        generation = snapshotGeneration;
+        for (long segmentGeneration : generations(SEGMENT)) {
+            if (segmentGeneration >= snapshotGeneration) {
+                replay(segmentPath(segmentGeneration), apply);
+            }
+            generation = Math.max(generation, segmentGeneration);
+        }
+        openSegment(generation + 1);
+        return nextId;
+    }
+
+    public synchronized long append(ReservationEvent.Type type, String hotelId, Collection<Reservation> reservations) {
+        if (closed) {
+            throw new IllegalStateException("The reservation journal is closed");
+        }
+        if (failed) {
+            throw new IllegalStateException("The reservation journal failed to reach the disk");
+        }
+        byte[] hotel = hotelId.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 2 + hotel.length + 4 + reservations.size() * ENTRY_SIZE;
+        ByteBuffer payload = ByteBuffer.allocate(length);
+        payload.put((byte) type.ordinal());
+        payload.putShort((short) hotel.length);
+        payload.put(hotel);
+        payload.putInt(reservations.size());
+        reservations.forEach(reservation -> putEntry(payload, reservation));
+        payload.flip();
+
+        try {
+            if (segment.remaining() < RECORD_HEADER + length + 4) {
+                openSegment(generation + 1, RECORD_HEADER + length + 4);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        int start = segment.position();
+        segment.position(start + 4);
+        segment.putInt((int) crc.getValue());
+        segment.put(payload);
+        // the length goes last, so that a reader never takes a record for complete before it is
+        segment.putInt(start, length);
+        return ++appended;
+    }
+
+    public void awaitDurable(long sequence) {
+        if (!forceWrites || durable >= sequence) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            if (durable >= sequence) {
+                return;
+            }
+            MappedByteBuffer current;
+            long upTo;
+            synchronized (this) {
+                if (failed) {
+                    throw new IllegalStateException("The reservation journal failed to reach the disk");
+                }
+                current = segment;
+                upTo = appended;
+                forces++;
+            }
+            try {
+                current.force();
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    failed = true;
+                }
+                throw e;
+            }
+            durable = upTo;
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    public long durable() {
+        return forceWrites ? durable : appended();
+    }
+
+    public synchronized long startSnapshot() throws IOException {
+        if (segment.position() > 0) {
+            openSegment(generation + 1);
+        }
+        return generation > snapshotGeneration ? generation : -1;
+    }
+
+    public void writeSnapshot(long snapshot, long nextId, Map<String, ? extends Collection<Reservation>> reservations)
+            throws IOException {
+        int size = 4 + 8 + 4;
+        List<byte[]> hotels = new ArrayList<>(reservations.size());
+        for (Map.Entry<String, ? extends Collection<Reservation>> hotel : reservations.entrySet()) {
+            byte[] hotelId = hotel.getKey().getBytes(StandardCharsets.UTF_8);
+            hotels.add(hotelId);
+            size += 2 + hotelId.length + 4 + hotel.getValue().size() * ENTRY_SIZE;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size + 4);
+        buffer.putInt(SNAPSHOT_MAGIC);
+        buffer.putLong(nextId);
+        buffer.putInt(reservations.size());
+        int i = 0;
+        for (Collection<Reservation> hotel : reservations.values()) {
+            byte[] hotelId = hotels.get(i++);
+            buffer.putShort((short) hotelId.length);
+            buffer.put(hotelId);
+            buffer.putInt(hotel.size());
+            hotel.forEach(reservation -> putEntry(buffer, reservation));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, size);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+
+        Path path = snapshotPath(snapshot);
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel file = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                file.write(buffer);
+            }
+            file.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        if (readSnapshot(path, new ArrayList<>()) == null) {
+            Files.delete(path);
+            throw new IOException("Journal snapshot " + path.getFileName() + " did not read back");
+        }
+
+        synchronized (this) {
+            snapshotGeneration = Math.max(snapshotGeneration, snapshot);
+        }
+        for (long older : generations(SEGMENT)) {
+            if (older < snapshot) {
+                Files.deleteIfExists(segmentPath(older));
+            }
+        }
+        for (long older : generations(SNAPSHOT)) {
+            if (older < snapshot) {
+                Files.deleteIfExists(snapshotPath(older));
+            }
+        }
+    }
+
+    public synchronized long appended() {
+        return appended;
+    }
+
+    public synchronized long forces() {
+        return forces;
+    }
+
+    @Override
+    public void close() throws IOException {
+        forceLock.lock();
+        try {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                if (segment != null) {
+                    segment.force();
+                    channel.close();
+                }
+            }
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void openSegment(long next) throws IOException {
+        openSegment(next, segmentSize);
+    }
+
+    private void openSegment(long next, int minimumSize) throws IOException {
+        if (segment != null) {
+            segment.force();
+            channel.close();
+            durable = appended;
+        }
+        channel = FileChannel.open(segmentPath(next),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentSize, minimumSize));
+        generation = next;
+    }
+
+    private static void replay(Path path, BiConsumer<ReservationEvent.Type, Reservation> apply) throws IOException {
+        MappedByteBuffer records;
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.READ)) {
+            records = file.map(FileChannel.MapMode.READ_ONLY, 0, file.size());
+        }
+        CRC32 crc = new CRC32();
+        while (records.remaining() >= RECORD_HEADER) {
+            int start = records.position();
+            int length = records.getInt();
+            int checksum = records.getInt();
+            if (length == 0) {
+                return;
+            }
+            if (length < 0 || length > records.remaining()) {
+                log.warn("Journal {} ends with a torn record at {}", path.getFileName(), start);
+                return;
+            }
+            ByteBuffer payload = records.slice();
+            payload.limit(length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Journal {} ends with a torn record at {}", path.getFileName(), start);
+                return;
+            }
+            records.position(records.position() + length);
+
+            ReservationEvent.Type type = TYPES[payload.get()];
+            String hotelId = getHotelId(payload);
+            for (int count = payload.getInt(); count > 0; count--) {
+                apply.accept(type, getEntry(payload, hotelId));
+            }
+        }
+    }
+
+    private static Long readSnapshot(Path path, List<Reservation> reservations) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (buffer.remaining() < 4 + 8 + 4 + 4 || buffer.getInt() != SNAPSHOT_MAGIC) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - 4);
+        if ((int) crc.getValue() != buffer.getInt(buffer.limit() - 4)) {
+            return null;
+        }
+        long nextId = buffer.getLong();
+        for (int hotels = buffer.getInt(); hotels > 0; hotels--) {
+            String hotelId = getHotelId(buffer);
+            for (int count = buffer.getInt(); count > 0; count--) {
+                reservations.add(getEntry(buffer, hotelId));
+            }
+        }
+        return nextId;
+    }
+
+    private static void putEntry(ByteBuffer buffer, Reservation reservation) {
+        buffer.putLong(reservation.getId());
+        buffer.putLong(reservation.getVersion() != null ? reservation.getVersion() : 0L);
+        buffer.putLong(reservation.getRoomId() != null ? reservation.getRoomId() : 0L);
+        buffer.putInt((int) reservation.getInitialDate().toEpochDay());
+        buffer.putInt((int) reservation.getFinalDate().toEpochDay());
+    }
+
+    private static Reservation getEntry(ByteBuffer buffer, String hotelId) {
+        long id = buffer.getLong();
+        long version = buffer.getLong();
+        long roomId = buffer.getLong();
+        LocalDate initialDate = LocalDate.ofEpochDay(buffer.getInt());
+        LocalDate finalDate = LocalDate.ofEpochDay(buffer.getInt());
+        return new Reservation(id, initialDate, finalDate, roomId != 0 ? roomId : null, hotelId, version);
+    }
+
+    private static String getHotelId(ByteBuffer buffer) {
+        byte[] hotelId = new byte[buffer.getShort()];
+        buffer.get(hotelId);
+        return new String(hotelId, StandardCharsets.UTF_8);
+    }
+
+    private List<Long> generations(Pattern pattern) throws IOException {
+        List<Long> generations = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    generations.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private Path segmentPath(long generation) {
+        return directory.resolve(String.format("journal-%016d.log", generation));
+    }
+
+    private Path snapshotPath(long generation) {
+        return directory.resolve(String.format("snapshot-%016d.bin", generation));
+    }
+}
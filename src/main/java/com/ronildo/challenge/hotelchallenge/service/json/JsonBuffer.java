@@ -0,0 +1,103 @@
+package com.ronildo.challenge.hotelchallenge.service.json;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public final class JsonBuffer implements Closeable {
+
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private final ReservationJsonCodec codec;
+    private byte[] bytes;
+    private int length;
+    private boolean closed;
+
+    JsonBuffer(ReservationJsonCodec codec, int capacity) {
+        this.codec = codec;
+        this.bytes = new byte[capacity];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        outputStream.write(bytes, 0, length);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            codec.release(this);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    int capacity() {
+        return bytes.length;
+    }
+
+    void reset() {
+        length = 0;
+        closed = false;
+    }
+
+    void ensureCapacity(int capacity) {
+        if (capacity > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(capacity, bytes.length * 2));
+        }
+    }
+
+    void put(byte b) {
+        ensureCapacity(length + 1);
+        bytes[length++] = b;
+    }
+
+    void put(byte[] source) {
+        put(source, 0, source.length);
+    }
+
+    void put(byte[] source, int offset, int count) {
+        ensureCapacity(length + count);
+        System.arraycopy(source, offset, bytes, length, count);
+        length += count;
+    }
+
+    void putLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            put(MIN_LONG);
+            return;
+        }
+        if (value < 0) {
+            put((byte) '-');
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+        ensureCapacity(length + digits);
+        for (int i = length + digits - 1; i >= length; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    void putPadded(int value, int width) {
+        ensureCapacity(length + width);
+        for (int i = length + width - 1; i >= length; i--) {
+            bytes[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        length += width;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ronildo.challenge.hotelchallenge.service.json;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static com.ronildo.challenge.hotelchallenge.controller.validation.ReservationDatesValidator.MAX_DAYS_IN_ADVANCE;
+import static com.ronildo.challenge.hotelchallenge.controller.validation.ReservationDatesValidator.MAX_STAY_DAYS;
+
+@Component
+public class ReservationJsonCodec {
+
+    static final int CACHED_DAYS_BEFORE = 366;
+    static final int CACHED_DAYS_AFTER = MAX_DAYS_IN_ADVANCE + MAX_STAY_DAYS + 1;
+    private static final int DATE_LENGTH = 10;
+    private static final int BYTES_PER_RESERVATION = 80;
+
+    private static final byte[] ID = ascii("\"id\":");
+    private static final byte[] INITIAL_DATE = ascii("\"initialDate\":\"");
+    private static final byte[] FINAL_DATE = ascii("\"finalDate\":\"");
+    private static final byte[] ROOM_ID = ascii("\"roomId\":");
+
+    private final BlockingQueue<JsonBuffer> pool;
+    private final int maxPooledBufferSize;
+    private volatile DateTable dates;
+
+    public ReservationJsonCodec(
+            @Value("${reservation.json.pooled-buffers:16}") int pooledBuffers,
+            @Value("${reservation.json.max-pooled-buffer-size:1048576}") int maxPooledBufferSize) {
+        this.pool = new ArrayBlockingQueue<>(pooledBuffers);
+        this.maxPooledBufferSize = maxPooledBufferSize;
+        refreshDates();
+    }
+
+    @Scheduled(cron = "${reservation.json.date-refresh-cron:0 0 0 * * *}")
+    public void refreshDates() {
+        dates = new DateTable(LocalDate.now().toEpochDay() - CACHED_DAYS_BEFORE,
+                CACHED_DAYS_BEFORE + CACHED_DAYS_AFTER + 1);
+    }
+
+    public JsonBuffer encode(List<Reservation> reservations) {
+        DateTable dates = this.dates;
+        JsonBuffer buffer = acquire();
+        buffer.ensureCapacity(2 + reservations.size() * BYTES_PER_RESERVATION);
+        buffer.put((byte) '[');
+        for (int i = 0; i < reservations.size(); i++) {
+            if (i > 0) {
+                buffer.put((byte) ',');
+            }
+            write(buffer, reservations.get(i), dates);
+        }
+        buffer.put((byte) ']');
+        return buffer;
+    }
+
+    private static void write(JsonBuffer buffer, Reservation reservation, DateTable dates) {
+        boolean first = true;
+        buffer.put((byte) '{');
+        if (reservation.getId() != null) {
+            buffer.put(ID);
+            buffer.putLong(reservation.getId());
+            first = false;
+        }
+        if (reservation.getInitialDate() != null) {
+            first = separate(buffer, first);
+            buffer.put(INITIAL_DATE);
+            dates.write(buffer, reservation.getInitialDate());
+            buffer.put((byte) '"');
+        }
+        if (reservation.getFinalDate() != null) {
+            first = separate(buffer, first);
+            buffer.put(FINAL_DATE);
+            dates.write(buffer, reservation.getFinalDate());
+            buffer.put((byte) '"');
+        }
+        if (reservation.getRoomId() != null) {
+            separate(buffer, first);
+            buffer.put(ROOM_ID);
+            buffer.putLong(reservation.getRoomId());
+        }
+        buffer.put((byte) '}');
+    }
+
+    private static boolean separate(JsonBuffer buffer, boolean first) {
+        if (!first) {
+            buffer.put((byte) ',');
+        }
+        return false;
+    }
+
+    private JsonBuffer acquire() {
+        JsonBuffer buffer = pool.poll();
+        if (buffer == null) {
+            return new JsonBuffer(this, 8192);
+        }
+        buffer.reset();
+        return buffer;
+    }
+
+    void release(JsonBuffer buffer) {
+        if (buffer.capacity() <= maxPooledBufferSize) {
+            pool.offer(buffer);
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static class DateTable {
+
+        private final long firstEpochDay;
+        private final int days;
+        private final byte[] text;
+
+        DateTable(long firstEpochDay, int days) {
+            this.firstEpochDay = firstEpochDay;
+            this.days = days;
+            this.text = new byte[days * DATE_LENGTH];
+            for (int day = 0; day < days; day++) {
+                byte[] date = ascii(LocalDate.ofEpochDay(firstEpochDay + day).toString());
+                System.arraycopy(date, 0, text, day * DATE_LENGTH, DATE_LENGTH);
+            }
+        }
+
+        void write(JsonBuffer buffer, LocalDate date) {
+            long day = date.toEpochDay() - firstEpochDay;
+            if (day >= 0 && day < days) {
+                buffer.put(text, (int) day * DATE_LENGTH, DATE_LENGTH);
+            } else if (date.getYear() >= 0 && date.getYear() <= 9999) {
+                buffer.putPadded(date.getYear(), 4);
+                buffer.put((byte) '-');
+                buffer.putPadded(date.getMonthValue(), 2);
+                buffer.put((byte) '-');
+                buffer.putPadded(date.getDayOfMonth(), 2);
+            } else {
+                buffer.put(ascii(date.toString()));
+            }
+        }
+    }
+}
@@ -1,16 +1,22 @@
 package com.ronildo.challenge.hotelchallenge.service.mapper;
 
+import com.ronildo.challenge.hotelchallenge.data.entity.ArchivedReservation;
 import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import com.ronildo.challenge.hotelchallenge.service.dto.ArchivedReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationEventDTO;
 import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface ReservationMapper {
 
+    @Mapping(target = "hotelId", ignore = true)
     Reservation mapReservationDTOToReservation(ReservationDTO reservationDTO);
 
     ReservationDTO mapReservationToReservationDTO(Reservation reservation);
@@ -19,7 +25,19 @@ public interface ReservationMapper {
 
     Collection<ReservationDTO> mapReservationToReservationDTO(Collection<Reservation> setReservation);
 
+    ArchivedReservationDTO mapArchivedReservationToDTO(ArchivedReservation archivedReservation);
+
+    List<ArchivedReservationDTO> mapArchivedReservationToDTO(List<ArchivedReservation> archivedReservations);
+
+    @Mapping(source = "id", target = "sequence")
+    @Mapping(source = "createdAt", target = "occurredAt")
+    ReservationEventDTO mapReservationEventToDTO(ReservationEvent reservationEvent);
+
+    List<ReservationEventDTO> mapReservationEventToDTO(List<ReservationEvent> reservationEvents);
+
     @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "hotelId", ignore = true)
     void updateReservationFromDTO(ReservationDTO reservationDTO, @MappingTarget Reservation reservation);
 }
 
@@ -0,0 +1,28 @@
+package com.ronildo.challenge.hotelchallenge.service.mapper;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Room;
+import com.ronildo.challenge.hotelchallenge.data.entity.RoomType;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomTypeDTO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.List;
+
+@Mapper
+public interface RoomMapper {
+
+    @Mapping(target = "hotelId", ignore = true)
+    Room mapRoomDTOToRoom(RoomDTO roomDTO);
+
+    RoomDTO mapRoomToRoomDTO(Room room);
+
+    List<RoomDTO> mapRoomToRoomDTO(Iterable<Room> rooms);
+
+    @Mapping(target = "hotelId", ignore = true)
+    RoomType mapRoomTypeDTOToRoomType(RoomTypeDTO roomTypeDTO);
+
+    RoomTypeDTO mapRoomTypeToRoomTypeDTO(RoomType roomType);
+
+    List<RoomTypeDTO> mapRoomTypeToRoomTypeDTO(Iterable<RoomType> roomTypes);
+}
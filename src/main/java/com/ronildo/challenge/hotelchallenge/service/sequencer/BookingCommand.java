@@ -0,0 +1,34 @@
+package com.ronildo.challenge.hotelchallenge.service.sequencer;
+
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+final class BookingCommand {
+
+    enum Type {
+        CREATE, CREATE_ALL, UPDATE, DELETE
+    }
+
+    Type type;
+    String hotelId;
+    Long id;
+    ReservationDTO reservation;
+    List<ReservationDTO> reservations;
+    CompletableFuture<Object> result;
+
+    void set(Type type, String hotelId, Long id, ReservationDTO reservation, List<ReservationDTO> reservations,
+             CompletableFuture<Object> result) {
+        this.type = type;
+        this.hotelId = hotelId;
+        this.id = id;
+        this.reservation = reservation;
+        this.reservations = reservations;
+        this.result = result;
+    }
+
+    void clear() {
+        set(null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,212 @@
+package com.ronildo.challenge.hotelchallenge.service.sequencer;
+
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import com.ronildo.challenge.hotelchallenge.exception.ServiceOverloadedException;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.impl.ReservationServiceImpl;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.ronildo.challenge.hotelchallenge.service.sequencer.BookingCommand.Type.*;
+
+@Slf4j
+@Component
+@Profile("!reactive")
+@Conditional(SequencedWritesCondition.class)
+public class BookingSequencer {
+
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ReservationServiceImpl reservationService;
+    private final TransactionTemplate transactionTemplate;
+    private final CommandRingBuffer ring;
+    private final int batchSize;
+    private final Duration stopTimeout;
+    private final DistributionSummary batchSizes;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean stopped;
+
+    public BookingSequencer(
+            ReservationServiceImpl reservationService,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${reservation.writes.sequencer.capacity:1024}") int capacity,
+            @Value("${reservation.writes.sequencer.batch-size:64}") int batchSize,
+            @Value("${reservation.writes.sequencer.stop-timeout:PT30S}") Duration stopTimeout) {
+        this.reservationService = reservationService;
+        this.transactionTemplate = transactionTemplate;
+        this.ring = new CommandRingBuffer(capacity);
+        this.batchSize = batchSize;
+        this.stopTimeout = stopTimeout;
+        this.batchSizes = DistributionSummary.builder("reservation.sequencer.batch.size")
+                .description("Commands applied per transaction")
+                .register(meterRegistry);
+        Gauge.builder("reservation.sequencer.pending", ring, CommandRingBuffer::pending)
+                .description("Commands waiting in the ring")
+                .register(meterRegistry);
+        this.thread = new Thread(this::run, "booking-sequencer");
+        this.thread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(Math.max(1, stopTimeout.toMillis()));
+        if (thread.isAlive()) {
+            log.warn("The booking sequencer did not stop within {}", stopTimeout);
+            return;
+        }
+        stopped = true;
+        List<BookingCommand> leftovers = new ArrayList<>();
+        ring.drainRemainingTo(leftovers);
+        leftovers.forEach(command -> command.result.completeExceptionally(new ServiceOverloadedException(1)));
+    }
+
+    public CompletableFuture<ReservationDTO> create(ReservationDTO reservation) {
+        return submit(CREATE, null, reservation, null);
+    }
+
+    public CompletableFuture<List<BulkReservationResultDTO>> createAll(List<ReservationDTO> reservations) {
+        return submit(CREATE_ALL, null, null, reservations);
+    }
+
+    public CompletableFuture<ReservationDTO> update(Long id, ReservationDTO reservation) {
+        return submit(UPDATE, id, reservation, null);
+    }
+
+    public CompletableFuture<Void> delete(Long id) {
+        return submit(DELETE, id, null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> submit(BookingCommand.Type type, Long id, ReservationDTO reservation,
+                                            List<ReservationDTO> reservations) {
+        long sequence = running ? ring.tryClaim() : -1;
+        if (sequence < 0) {
+            throw new ServiceOverloadedException(1);
+        }
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        ring.slot(sequence).set(type, HotelContext.hotelId(), id, reservation, reservations, result);
+        ring.publish(sequence);
+        LockSupport.unpark(thread);
+        if (stopped) {
+            // published after stop() looked for leftovers
+            result.completeExceptionally(new ServiceOverloadedException(1));
+        }
+        return (CompletableFuture<T>) result;
+    }
+
+    private void run() {
+        List<BookingCommand> batch = new ArrayList<>(batchSize);
+        while (running || ring.pending() > 0) {
+            if (ring.drainTo(batch, batchSize) == 0) {
+                LockSupport.parkNanos(this, IDLE_NANOS);
+                continue;
+            }
+            batchSizes.record(batch.size());
+            try {
+                int from = 0;
+                for (int i = 1; i <= batch.size(); i++) {
+                    if (i == batch.size() || !batch.get(i).hotelId.equals(batch.get(from).hotelId)) {
+                        apply(batch.subList(from, i));
+                        from = i;
+                    }
+                }
+            } catch (Throwable e) {
+                log.error("Could not apply {} reservation commands", batch.size(), e);
+                batch.forEach(command -> command.result.completeExceptionally(e));
+            }
+            batch.clear();
+            ring.release();
+        }
+    }
+
+    private void apply(List<BookingCommand> commands) {
+        String hotelId = commands.get(0).hotelId;
+        Object[] results = new Object[commands.size()];
+        int from = 0;
+        int to = commands.size();
+        while (from < commands.size()) {
+            List<BookingCommand> attempt = commands.subList(from, to);
+            RuntimeException[] failure = new RuntimeException[1];
+            int[] failed = {-1};
+            int offset = from;
+            try {
+                HotelContext.call(hotelId, null, () -> transactionTemplate.execute(status -> {
+                    for (int i = 0; i < attempt.size(); i++) {
+                        try {
+                            results[offset + i] = execute(attempt.get(i));
+                        } catch (RuntimeException e) {
+                            failure[0] = e;
+                            failed[0] = i;
+                            status.setRollbackOnly();
+                            return null;
+                        }
+                    }
+                    return null;
+                }));
+            } catch (RuntimeException e) {
+                failure[0] = e;
+                failed[0] = 0;
+                if (attempt.size() > 1) {
+                    to = from + 1;
+                    continue;
+                }
+            }
+
+            if (failed[0] < 0) {
+                for (int i = from; i < to; i++) {
+                    commands.get(i).result.complete(results[i]);
+                }
+                from = to;
+                to = commands.size();
+            } else if (failed[0] == 0) {
+                commands.get(from).result.completeExceptionally(failure[0]);
+                from++;
+                to = commands.size();
+            } else {
+                to = from + failed[0];
+            }
+        }
+    }
+
+    private Object execute(BookingCommand command) {
+        switch (command.type) {
+            case CREATE:
+                return reservationService.createReservation(command.reservation);
+            case CREATE_ALL:
+                return reservationService.createReservations(command.reservations);
+            case UPDATE:
+                return reservationService.updateReservation(command.id, command.reservation);
+            case DELETE:
+                reservationService.deleteReservation(command.id);
+                return null;
+            default:
+                throw new IllegalStateException("Unknown command " + command.type);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ronildo.challenge.hotelchallenge.service.sequencer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+final class CommandRingBuffer {
+
+    private final BookingCommand[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long released = -1;
+    private long drained = -1;
+
+    CommandRingBuffer(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a power of two, not " + capacity);
+        }
+        this.slots = new BookingCommand[capacity];
+        this.published = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new BookingCommand();
+            published.set(i, -1);
+        }
+    }
+
+    long tryClaim() {
+        while (true) {
+            long current = claimed.get();
+            if (current - released >= slots.length) {
+                return -1;
+            }
+            if (claimed.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    BookingCommand slot(long sequence) {
+        return slots[(int) sequence & mask];
+    }
+
+    void publish(long sequence) {
+        published.set((int) sequence & mask, sequence);
+    }
+
+    int drainTo(List<BookingCommand> commands, int max) {
+        int count = 0;
+        while (count < max && published.get((int) (drained + 1) & mask) == drained + 1) {
+            commands.add(slot(++drained));
+            count++;
+        }
+        return count;
+    }
+
+    int drainRemainingTo(List<BookingCommand> commands) {
+        int count = 0;
+        for (long sequence = drained + 1, last = claimed.get(); sequence <= last; sequence++) {
+            if (published.get((int) sequence & mask) == sequence) {
+                commands.add(slot(sequence));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void release() {
+        for (long sequence = released + 1; sequence <= drained; sequence++) {
+            slot(sequence).clear();
+        }
+        released = drained;
+    }
+
+    int pending() {
+        return (int) (claimed.get() - released);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ronildo.challenge.hotelchallenge.service.sequencer;
+
+import org.springframework.boot.autoconfigure.condition.AllNestedConditions;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+
+public class SequencedWritesCondition extends AllNestedConditions {
+
+    public SequencedWritesCondition() {
+        super(ConfigurationPhase.REGISTER_BEAN);
+    }
+
+    @ConditionalOnProperty(name = "reservation.writes.mode", havingValue = "sequenced")
+    static class Sequenced {
+    }
+
+    // the journal refuses sequenced writes at startup instead of competing with them for the primary service
+    @ConditionalOnProperty(name = "reservation.persistence", havingValue = "jpa", matchIfMissing = true)
+    static class Jpa {
+    }
+}
@@ -0,0 +1,213 @@
+package com.ronildo.challenge.hotelchallenge.controller;
+
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReactiveReservationService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(controllers = ReactiveReservationController.class)
+@ActiveProfiles("reactive")
+@Import(SimpleMeterRegistry.class)
+class ReactiveReservationControllerTest {
+
+    private final String apiController = "/api/reservations";
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private IReactiveReservationService reservationService;
+
+    @Test
+    void listAllReservations() {
+        ReservationDTO reservation = new ReservationDTO(1L, LocalDate.now(), LocalDate.now().plusDays(1));
+
+        when(reservationService.listAllReservations()).thenReturn(Flux.just(reservation));
+
+        webTestClient.get().uri(apiController)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ReservationDTO.class).isEqualTo(Arrays.asList(reservation));
+    }
+
+    @Test
+    void pageOfReservationsLinksToTheNextPage() {
+        ReservationDTO reservation = new ReservationDTO(7L, LocalDate.now(), LocalDate.now().plusDays(1));
+
+        when(reservationService.listReservations(null, null, null, 1)).thenReturn(Flux.just(reservation));
+
+        webTestClient.get().uri(apiController + "?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().value(HttpHeaders.LINK, containsString("afterId=7>; rel=\"next\""))
+                .expectBodyList(ReservationDTO.class).isEqualTo(Arrays.asList(reservation));
+    }
+
+    @Test
+    void pageOfReservationsRejectsALimitOutOfRange() {
+        webTestClient.get().uri(apiController + "?limit=0")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Validation Failed");
+    }
+
+    @Test
+    void streamReservationsAsNdjson() {
+        ReservationDTO reservation1 = new ReservationDTO(1L, LocalDate.now(), LocalDate.now().plusDays(1));
+        ReservationDTO reservation2 = new ReservationDTO(2L, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5));
+
+        when(reservationService.streamReservations(null, null)).thenReturn(Flux.just(reservation1, reservation2));
+
+        webTestClient.get().uri(apiController + "/stream")
+                .accept(MediaType.parseMediaType(ReservationController.APPLICATION_NDJSON_VALUE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ReservationDTO.class).isEqualTo(Arrays.asList(reservation1, reservation2));
+    }
+
+    @Test
+    void findOneReservation() {
+        ReservationDTO reservation = new ReservationDTO(1L, LocalDate.now(), LocalDate.now().plusDays(1));
+
+        when(reservationService.findOneById(1L)).thenReturn(Mono.just(reservation));
+
+        webTestClient.get().uri(apiController + "/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ReservationDTO.class).isEqualTo(reservation);
+    }
+
+    @Test
+    void findOneReservationNotFound() {
+        when(reservationService.findOneById(1L)).thenReturn(Mono.error(new ReservationNotFoundException(1L)));
+
+        webTestClient.get().uri(apiController + "/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Could not find reservation 1");
+    }
+
+    @Test
+    void saveReservation() {
+        ReservationDTO newReservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        ReservationDTO created = new ReservationDTO(1L, newReservation.getInitialDate(), newReservation.getFinalDate());
+
+        when(reservationService.createReservation(newReservation)).thenReturn(Mono.just(created));
+
+        webTestClient.post().uri(apiController)
+                .bodyValue(newReservation)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().value(HttpHeaders.LOCATION, containsString(apiController + "/1"))
+                .expectBody(ReservationDTO.class).isEqualTo(created);
+    }
+
+    @Test
+    void saveReservationMissingFinalDate() {
+        webTestClient.post().uri(apiController)
+                .bodyValue(new ReservationDTO(null, LocalDate.now().plusDays(1), null))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation Failed")
+                .jsonPath("$.details").value(containsString("finalDate is mandatory"));
+    }
+
+    @Test
+    void saveReservationLongerThanThreeDays() {
+        webTestClient.post().uri(apiController)
+                .bodyValue(new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(6)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Validation Failed")
+                .jsonPath("$.details").value(containsString("The stay can’t be longer than 3 days"));
+    }
+
+    @Test
+    void saveReservationDatesNotAvailable() {
+        when(reservationService.createReservation(any()))
+                .thenReturn(Mono.error(new DatesNotAvailableForReservationException()));
+
+        webTestClient.post().uri(apiController)
+                .bodyValue(new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Dates are not available for reservation");
+    }
+
+    @Test
+    void checkAvailability() {
+        when(reservationService.checkAvailability(LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null))
+                .thenReturn(Mono.just(true));
+
+        webTestClient.get().uri(apiController + "/check_availability?initialDate={initialDate}&finalDate={finalDate}",
+                        LocalDate.now().plusDays(1), LocalDate.now().plusDays(2))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Boolean.class).isEqualTo(true);
+    }
+
+    @Test
+    void checkAvailabilityMissingParameter() {
+        webTestClient.get().uri(apiController + "/check_availability?initialDate={initialDate}", LocalDate.now())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.argument").isEqualTo("finalDate")
+                .jsonPath("$.message").isEqualTo("Required request parameter for type LocalDate is not present");
+    }
+
+    @Test
+    void checkAvailabilityTypeMismatch() {
+        webTestClient.get().uri(apiController + "/check_availability?initialDate=tomorrow&finalDate={finalDate}",
+                        LocalDate.now())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.argument").isEqualTo("initialDate")
+                .jsonPath("$.message").value(containsString("Failed to convert value to required type"));
+    }
+
+    @Test
+    void updateReservation() {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        ReservationDTO updated = new ReservationDTO(1L, reservation.getInitialDate(), reservation.getFinalDate());
+
+        when(reservationService.updateReservation(1L, reservation)).thenReturn(Mono.just(updated));
+
+        webTestClient.put().uri(apiController + "/1")
+                .bodyValue(reservation)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(ReservationDTO.class).isEqualTo(updated);
+    }
+
+    @Test
+    void deleteReservation() {
+        when(reservationService.deleteReservation(1L)).thenReturn(Mono.empty());
+
+        webTestClient.delete().uri(apiController + "/1")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+}
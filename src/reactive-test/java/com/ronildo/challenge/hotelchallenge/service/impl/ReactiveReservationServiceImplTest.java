@@ -0,0 +1,204 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReactiveReservationRepository;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReactiveReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.ReactiveAvailabilityIndexSynchronizer;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+class ReactiveReservationServiceImplTest {
+
+    @Autowired
+    IReactiveReservationService reservationService;
+
+    @Autowired
+    ReactiveReservationRepository reservationRepository;
+
+    @Autowired
+    ReactiveAvailabilityIndexSynchronizer availabilityIndexSynchronizer;
+
+    @Autowired
+    DatabaseClient databaseClient;
+
+    @BeforeEach
+    void clearReservations() {
+        databaseClient.sql("DELETE FROM occupied_date").then()
+                .then(databaseClient.sql("DELETE FROM reservation").then())
+                .then(databaseClient.sql("DELETE FROM room").then())
+                .then(databaseClient.sql("INSERT INTO room (id, number, room_type_id) VALUES (7, '101', 1)").then())
+                .block();
+        availabilityIndexSynchronizer.load();
+    }
+
+    @Test
+    void createAndFindReservation() {
+        LocalDate initialDate = LocalDate.now().plusDays(1);
+        ReservationDTO created = reservationService
+                .createReservation(new ReservationDTO(null, initialDate, initialDate.plusDays(2)))
+                .block();
+
+        assertNotNull(created.getId());
+        StepVerifier.create(reservationService.findOneById(created.getId()))
+                .expectNext(created)
+                .verifyComplete();
+        StepVerifier.create(reservationService.checkAvailability(initialDate.plusDays(1), initialDate.plusDays(3), null))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void createReservationOverlappingAnotherOne() {
+        LocalDate initialDate = LocalDate.now().plusDays(1);
+        reservationService.createReservation(new ReservationDTO(null, initialDate, initialDate.plusDays(2))).block();
+
+        StepVerifier.create(reservationService.createReservation(
+                        new ReservationDTO(null, initialDate.plusDays(2), initialDate.plusDays(3))))
+                .expectError(DatesNotAvailableForReservationException.class)
+                .verify();
+    }
+
+    @Test
+    void createReservationInARoom() {
+        LocalDate initialDate = LocalDate.now().plusDays(1);
+        reservationService.createReservation(new ReservationDTO(null, initialDate, initialDate.plusDays(2))).block();
+
+        ReservationDTO created = reservationService
+                .createReservation(new ReservationDTO(null, initialDate, initialDate.plusDays(2), 7L))
+                .block();
+
+        StepVerifier.create(reservationService.findOneById(created.getId()))
+                .expectNextMatches(found -> Long.valueOf(7L).equals(found.getRoomId()))
+                .verifyComplete();
+        StepVerifier.create(reservationService.createReservation(
+                        new ReservationDTO(null, initialDate.plusDays(2), initialDate.plusDays(3), 7L)))
+                .expectError(DatesNotAvailableForReservationException.class)
+                .verify();
+        StepVerifier.create(reservationService.createReservation(
+                        new ReservationDTO(null, initialDate, initialDate.plusDays(1), 8L)))
+                .expectError(RoomNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void databaseRejectsOverlapsTheIndexDoesNotKnowAbout() {
+        LocalDate initialDate = LocalDate.now().plusDays(40);
+        Reservation stored = new Reservation(reservationRepository.nextId().block(), initialDate, initialDate.plusDays(1));
+        reservationRepository.insert(stored).then(reservationRepository.occupyDates(stored)).block();
+
+        StepVerifier.create(reservationService.createReservation(
+                        new ReservationDTO(null, initialDate.plusDays(1), initialDate.plusDays(2))))
+                .expectError(DatesNotAvailableForReservationException.class)
+                .verify();
+        StepVerifier.create(reservationService.listAllReservations())
+                .expectNext(new ReservationDTO(stored.getId(), stored.getInitialDate(), stored.getFinalDate()))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateReservation() {
+        LocalDate initialDate = LocalDate.now().plusDays(1);
+        ReservationDTO created = reservationService
+                .createReservation(new ReservationDTO(null, initialDate, initialDate.plusDays(2)))
+                .block();
+
+        ReservationDTO updated = reservationService.updateReservation(created.getId(),
+                new ReservationDTO(null, initialDate.plusDays(1), initialDate.plusDays(3))).block();
+
+        assertEquals(new ReservationDTO(created.getId(), initialDate.plusDays(1), initialDate.plusDays(3)), updated);
+        StepVerifier.create(reservationService.checkAvailability(initialDate, initialDate, null))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(reservationService.createReservation(
+                        new ReservationDTO(null, initialDate.plusDays(3), initialDate.plusDays(4))))
+                .expectError(DatesNotAvailableForReservationException.class)
+                .verify();
+    }
+
+    @Test
+    void deleteReservation() {
+        LocalDate initialDate = LocalDate.now().plusDays(1);
+        ReservationDTO created = reservationService
+                .createReservation(new ReservationDTO(null, initialDate, initialDate.plusDays(2)))
+                .block();
+
+        reservationService.deleteReservation(created.getId()).block();
+
+        StepVerifier.create(reservationService.findOneById(created.getId()))
+                .expectError(ReservationNotFoundException.class)
+                .verify();
+        assertNotNull(reservationService
+                .createReservation(new ReservationDTO(null, initialDate, initialDate.plusDays(2)))
+                .block());
+    }
+
+    @Test
+    void updateAndDeleteUnknownReservation() {
+        StepVerifier.create(reservationService.updateReservation(0L,
+                        new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2))))
+                .expectError(ReservationNotFoundException.class)
+                .verify();
+        StepVerifier.create(reservationService.deleteReservation(0L))
+                .expectError(ReservationNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void listReservationsPage() {
+        for (int i = 0; i < 5; i++) {
+            LocalDate initialDate = LocalDate.now().plusDays(1 + i * 3L);
+            reservationService.createReservation(new ReservationDTO(null, initialDate, initialDate.plusDays(1))).block();
+        }
+        List<ReservationDTO> all = reservationService.listAllReservations().collectList().block();
+
+        StepVerifier.create(reservationService.listReservations(all.get(1).getId(), null, null, 2))
+                .expectNext(all.get(2), all.get(3))
+                .verifyComplete();
+        StepVerifier.create(reservationService.streamReservations(all.get(4).getInitialDate(), null))
+                .expectNext(all.get(4))
+                .verifyComplete();
+    }
+
+    @Test
+    void concurrentCreatesNeverDoubleBook() {
+        Long created = Flux.range(0, 1000)
+                .flatMap(attempt -> {
+                    LocalDate initialDate = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 28));
+                    LocalDate finalDate = initialDate.plusDays(ThreadLocalRandom.current().nextInt(1, 4));
+                    return reservationService.createReservation(new ReservationDTO(null, initialDate, finalDate))
+                            .onErrorResume(DatesNotAvailableForReservationException.class, e -> Mono.empty());
+                }, 64)
+                .count()
+                .block();
+
+        List<Reservation> stored = reservationRepository.findAll().collectList().block();
+        stored.sort(Comparator.comparing(Reservation::getInitialDate));
+
+        assertTrue(created > 0);
+        assertEquals(created.intValue(), stored.size());
+        for (int i = 1; i < stored.size(); i++) {
+            assertTrue(stored.get(i - 1).getFinalDate().isBefore(stored.get(i).getInitialDate()),
+                    "Double booking: " + stored.get(i - 1) + " and " + stored.get(i));
+        }
+    }
+}
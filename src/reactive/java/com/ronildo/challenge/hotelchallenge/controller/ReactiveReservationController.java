@@ -0,0 +1,110 @@
+package com.ronildo.challenge.hotelchallenge.controller;
+
+import com.ronildo.challenge.hotelchallenge.controller.validation.ReservationDates;
+import com.ronildo.challenge.hotelchallenge.service.IReactiveReservationService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.ronildo.challenge.hotelchallenge.controller.ReservationController.APPLICATION_NDJSON_VALUE;
+
+@RestController
+@RequestMapping("api/reservations")
+@RequiredArgsConstructor
+@Validated
+@Profile("reactive")
+public class ReactiveReservationController {
+
+    private final IReactiveReservationService reservationService;
+
+    @GetMapping
+    public Flux<ReservationDTO> allReservations() {
+        return reservationService.listAllReservations();
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<ResponseEntity<List<ReservationDTO>>> pageOfReservations(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam @Min(1) @Max(1000) int limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            ServerHttpRequest request) {
+        return reservationService.listReservations(afterId, fromDate, toDate, limit)
+                .collectList()
+                .map(reservations -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (reservations.size() == limit) {
+                        URI next = UriComponentsBuilder.fromHttpRequest(request)
+                                .replaceQueryParam("afterId", reservations.get(reservations.size() - 1).getId())
+                                .build()
+                                .toUri();
+                        response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+                    }
+                    return response.body(reservations);
+                });
+    }
+
+    @GetMapping(value = "/stream", produces = {APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<ReservationDTO> streamReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
+        return reservationService.streamReservations(fromDate, toDate);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ReservationDTO> findOneReservation(@PathVariable Long id) {
+        return reservationService.findOneById(id);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ReservationDTO>> saveReservation(
+            @Valid @ReservationDates @RequestBody ReservationDTO newReservation,
+            ServerHttpRequest request) {
+        return reservationService.createReservation(newReservation)
+                .map(reservation -> {
+                    URI uri = UriComponentsBuilder.fromHttpRequest(request)
+                            .replaceQuery(null)
+                            .path("/{id}")
+                            .buildAndExpand(reservation.getId())
+                            .toUri();
+                    return ResponseEntity.created(uri).body(reservation);
+                });
+    }
+
+    @GetMapping("/check_availability")
+    public Mono<Boolean> checkAvailability(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate initialDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate finalDate) {
+        return reservationService.checkAvailability(initialDate, finalDate, null);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ReservationDTO> updateReservation(
+            @PathVariable Long id,
+            @Valid @ReservationDates @RequestBody ReservationDTO reservation) {
+        return reservationService.updateReservation(id, reservation);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteReservation(@PathVariable Long id) {
+        return reservationService.deleteReservation(id)
+                .then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
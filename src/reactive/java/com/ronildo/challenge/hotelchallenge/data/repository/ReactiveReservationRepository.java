@@ -0,0 +1,146 @@
+package com.ronildo.challenge.hotelchallenge.data.repository;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.OccupiedDate;
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveReservationRepository {
+
+    private static final String DEFAULT_HOTEL = "hotel_id = '" + HotelContext.DEFAULT_HOTEL + "'";
+    private static final String SELECT_RESERVATION =
+            "SELECT id, initial_date, final_date, room_id FROM reservation WHERE " + DEFAULT_HOTEL;
+
+    private final DatabaseClient databaseClient;
+
+    public Flux<Reservation> findAll() {
+        return findAll(null, null);
+    }
+
+    public Flux<Reservation> findAll(LocalDate fromDate, LocalDate toDate) {
+        return select(null, fromDate, toDate, null);
+    }
+
+    public Flux<Reservation> findPage(long afterId, LocalDate fromDate, LocalDate toDate, int limit) {
+        return select(afterId, fromDate, toDate, limit);
+    }
+
+    public Mono<Reservation> findById(Long id) {
+        return databaseClient.sql(SELECT_RESERVATION + " AND id = :id")
+                .bind("id", id)
+                .map(ReactiveReservationRepository::toReservation)
+                .one();
+    }
+
+    public Mono<Boolean> existsRoom(Long roomId) {
+        return databaseClient.sql("SELECT COUNT(*) FROM room WHERE " + DEFAULT_HOTEL + " AND id = :roomId")
+                .bind("roomId", roomId)
+                .map(row -> row.get(0, Long.class) > 0)
+                .one();
+    }
+
+    public Mono<Long> nextId() {
+        return databaseClient.sql("SELECT NEXT VALUE FOR reservation_seq")
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Void> insert(Reservation reservation) {
+        return bindRoom(databaseClient.sql("INSERT INTO reservation (id, initial_date, final_date, room_id) "
+                        + "VALUES (:id, :initialDate, :finalDate, :roomId)")
+                .bind("id", reservation.getId())
+                .bind("initialDate", reservation.getInitialDate())
+                .bind("finalDate", reservation.getFinalDate()), reservation)
+                .then();
+    }
+
+    public Mono<Void> update(Reservation reservation) {
+        return bindRoom(databaseClient.sql("UPDATE reservation SET initial_date = :initialDate, final_date = :finalDate, "
+                        + "room_id = :roomId, version = version + 1 WHERE id = :id")
+                .bind("id", reservation.getId())
+                .bind("initialDate", reservation.getInitialDate())
+                .bind("finalDate", reservation.getFinalDate()), reservation)
+                .then();
+    }
+
+    public Mono<Void> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM reservation WHERE id = :id")
+                .bind("id", id)
+                .then();
+    }
+
+    public Mono<Void> occupyDates(Reservation reservation) {
+        return Flux.fromIterable(OccupiedDate.of(reservation))
+                .concatMap(occupiedDate -> databaseClient.sql("INSERT INTO occupied_date (id, stay_date, reservation_id, room_id) "
+                                + "VALUES (NEXT VALUE FOR occupied_date_seq, :stayDate, :reservationId, :roomId)")
+                        .bind("stayDate", occupiedDate.getStayDate())
+                        .bind("reservationId", occupiedDate.getReservationId())
+                        .bind("roomId", occupiedDate.getRoomId())
+                        .then())
+                .then();
+    }
+
+    public Mono<Void> deleteOccupiedDates(Long reservationId) {
+        return databaseClient.sql("DELETE FROM occupied_date WHERE reservation_id = :reservationId")
+                .bind("reservationId", reservationId)
+                .then();
+    }
+
+    private Flux<Reservation> select(Long afterId, LocalDate fromDate, LocalDate toDate, Integer limit) {
+        StringBuilder sql = new StringBuilder(SELECT_RESERVATION);
+        if (afterId != null) {
+            sql.append(" AND id > :afterId");
+        }
+        if (fromDate != null) {
+            sql.append(" AND final_date >= :fromDate");
+        }
+        if (toDate != null) {
+            sql.append(" AND initial_date <= :toDate");
+        }
+        sql.append(" ORDER BY id");
+        if (limit != null) {
+            sql.append(" LIMIT :limit");
+        }
+
+        GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (afterId != null) {
+            spec = spec.bind("afterId", afterId);
+        }
+        if (fromDate != null) {
+            spec = spec.bind("fromDate", fromDate);
+        }
+        if (toDate != null) {
+            spec = spec.bind("toDate", toDate);
+        }
+        if (limit != null) {
+            spec = spec.bind("limit", limit);
+        }
+        return spec.map(ReactiveReservationRepository::toReservation).all();
+    }
+
+    private static GenericExecuteSpec bindRoom(GenericExecuteSpec spec, Reservation reservation) {
+        return reservation.getRoomId() != null
+                ? spec.bind("roomId", reservation.getRoomId())
+                : spec.bindNull("roomId", Long.class);
+    }
+
+    private static Reservation toReservation(Row row) {
+        return new Reservation(
+                row.get("id", Long.class),
+                row.get("initial_date", LocalDate.class),
+                row.get("final_date", LocalDate.class),
+                row.get("room_id", Long.class));
+    }
+}
@@ -0,0 +1,26 @@
+package com.ronildo.challenge.hotelchallenge.service;
+
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+public interface IReactiveReservationService {
+
+    Mono<ReservationDTO> createReservation(ReservationDTO newReservation);
+
+    Flux<ReservationDTO> listAllReservations();
+
+    Flux<ReservationDTO> listReservations(Long afterId, LocalDate fromDate, LocalDate toDate, int limit);
+
+    Flux<ReservationDTO> streamReservations(LocalDate fromDate, LocalDate toDate);
+
+    Mono<ReservationDTO> findOneById(Long id);
+
+    Mono<Boolean> checkAvailability(LocalDate initialDate, LocalDate finalDate, Long id);
+
+    Mono<ReservationDTO> updateReservation(Long id, ReservationDTO reservationDTO);
+
+    Mono<Void> deleteReservation(Long id);
+}
@@ -0,0 +1,33 @@
+package com.ronildo.challenge.hotelchallenge.service.availability;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReactiveReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveAvailabilityIndexSynchronizer implements SmartInitializingSingleton {
+
+    private final ReactiveReservationRepository reservationRepository;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityCache availabilityCache;
+    private final BookingCalendar bookingCalendar;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+    }
+
+    public void load() {
+        List<Reservation> reservations = reservationRepository.findAll().collectList().block();
+        availabilityIndex.load(reservations);
+        bookingCalendar.load(reservations);
+        availabilityCache.invalidateAll();
+    }
+}
@@ -0,0 +1,187 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReactiveReservationRepository;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReactiveReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityCache;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.availability.BookingCalendar;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.mapper.ReservationMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveReservationServiceImpl implements IReactiveReservationService {
+
+    private final ReactiveReservationRepository reservationRepository;
+    private final ReservationMapper reservationMapper;
+    private final AvailabilityIndex availabilityIndex;
+    private final AvailabilityCache availabilityCache;
+    private final BookingCalendar bookingCalendar;
+    private final TransactionalOperator transactionalOperator;
+
+    @Override
+    public Mono<ReservationDTO> createReservation(ReservationDTO newReservation) {
+        LocalDate initialDate = newReservation.getInitialDate();
+        LocalDate finalDate = newReservation.getFinalDate();
+        Long roomId = newReservation.getRoomId();
+        return checkRoom(roomId, null).then(Mono.defer(() -> {
+            if (!this.claimDates(roomId, initialDate, finalDate)) {
+                return Mono.error(new DatesNotAvailableForReservationException());
+            }
+
+            Reservation reservation = reservationMapper.mapReservationDTOToReservation(newReservation);
+            return reservationRepository.nextId()
+                    .flatMap(id -> {
+                        reservation.setId(id);
+                        return reservationRepository.insert(reservation)
+                                .then(reservationRepository.occupyDates(reservation));
+                    })
+                    .as(transactionalOperator::transactional)
+                    .onErrorMap(DataIntegrityViolationException.class, e -> new DatesNotAvailableForReservationException())
+                    .doOnError(e -> releaseDates(roomId, initialDate, finalDate))
+                    .doOnCancel(() -> releaseDates(roomId, initialDate, finalDate))
+                    .then(Mono.fromCallable(() -> {
+                        availabilityIndex.put(reservation);
+                        availabilityCache.invalidate(initialDate, finalDate);
+                        return reservationMapper.mapReservationToReservationDTO(reservation);
+                    }));
+        }));
+    }
+
+    @Override
+    public Flux<ReservationDTO> listAllReservations() {
+        return reservationRepository.findAll()
+                .map(reservationMapper::mapReservationToReservationDTO);
+    }
+
+    @Override
+    public Flux<ReservationDTO> listReservations(Long afterId, LocalDate fromDate, LocalDate toDate, int limit) {
+        return reservationRepository.findPage(afterId == null ? 0L : afterId, fromDate, toDate, limit)
+                .map(reservationMapper::mapReservationToReservationDTO);
+    }
+
+    @Override
+    public Flux<ReservationDTO> streamReservations(LocalDate fromDate, LocalDate toDate) {
+        return reservationRepository.findAll(fromDate, toDate)
+                .map(reservationMapper::mapReservationToReservationDTO);
+    }
+
+    @Override
+    public Mono<ReservationDTO> findOneById(Long id) {
+        return reservationRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ReservationNotFoundException(id)))
+                .map(reservationMapper::mapReservationToReservationDTO);
+    }
+
+    @Override
+    public Mono<Boolean> checkAvailability(LocalDate initialDate, LocalDate finalDate, Long exceptId) {
+        return Mono.fromSupplier(() -> {
+            if (exceptId != null) {
+                return availabilityIndex.isAvailable(initialDate, finalDate, exceptId);
+            }
+            return availabilityCache.isAvailable(initialDate, finalDate,
+                    () -> availabilityIndex.isAvailable(initialDate, finalDate, null));
+        });
+    }
+
+    @Override
+    public Mono<ReservationDTO> updateReservation(Long id, ReservationDTO reservationDTO) {
+        return reservationRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ReservationNotFoundException(id)))
+                .flatMap(reservation -> checkRoom(reservationDTO.getRoomId(), reservation.getRoomId())
+                        .thenReturn(reservation))
+                .flatMap(reservation -> {
+                    LocalDate previousInitialDate = reservation.getInitialDate();
+                    LocalDate previousFinalDate = reservation.getFinalDate();
+                    Long previousRoomId = reservation.getRoomId();
+                    if (!this.moveDates(id, previousRoomId, previousInitialDate, previousFinalDate,
+                            reservationDTO.getRoomId(), reservationDTO.getInitialDate(), reservationDTO.getFinalDate())) {
+                        return Mono.error(new DatesNotAvailableForReservationException());
+                    }
+
+                    reservationMapper.updateReservationFromDTO(reservationDTO, reservation);
+                    Runnable rollback = () -> this.moveDatesBack(previousRoomId, previousInitialDate, previousFinalDate,
+                            reservation.getRoomId(), reservation.getInitialDate(), reservation.getFinalDate());
+                    return reservationRepository.update(reservation)
+                            .then(reservationRepository.deleteOccupiedDates(id))
+                            .then(reservationRepository.occupyDates(reservation))
+                            .as(transactionalOperator::transactional)
+                            .onErrorMap(DataIntegrityViolationException.class, e -> new DatesNotAvailableForReservationException())
+                            .doOnError(e -> rollback.run())
+                            .doOnCancel(rollback)
+                            .then(Mono.fromCallable(() -> {
+                                availabilityIndex.put(reservation);
+                                availabilityCache.invalidate(reservation.getInitialDate(), reservation.getFinalDate());
+                                availabilityCache.invalidate(previousInitialDate, previousFinalDate);
+                                return reservationMapper.mapReservationToReservationDTO(reservation);
+                            }));
+                });
+    }
+
+    @Override
+    public Mono<Void> deleteReservation(Long id) {
+        return reservationRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ReservationNotFoundException(id)))
+                .flatMap(reservation -> reservationRepository.deleteOccupiedDates(id)
+                        .then(reservationRepository.deleteById(id))
+                        .as(transactionalOperator::transactional)
+                        .then(Mono.fromRunnable(() -> {
+                            availabilityIndex.remove(id);
+                            availabilityCache.invalidate(reservation.getInitialDate(), reservation.getFinalDate());
+                            releaseDates(reservation.getRoomId(), reservation.getInitialDate(), reservation.getFinalDate());
+                        })));
+    }
+
+    private Mono<Void> checkRoom(Long roomId, Long currentRoomId) {
+        if (roomId == null || roomId.equals(currentRoomId)) {
+            return Mono.empty();
+        }
+        return reservationRepository.existsRoom(roomId)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty(Mono.error(() -> new RoomNotFoundException(roomId)))
+                .then();
+    }
+
+    private boolean claimDates(Long roomId, LocalDate initialDate, LocalDate finalDate) {
+        if (bookingCalendar.covers(initialDate, finalDate)) {
+            return bookingCalendar.claim(roomId, initialDate, finalDate);
+        }
+        return availabilityIndex.isAvailable(roomId, initialDate, finalDate, null);
+    }
+
+    private void releaseDates(Long roomId, LocalDate initialDate, LocalDate finalDate) {
+        bookingCalendar.release(roomId, initialDate, finalDate);
+    }
+
+    private boolean moveDates(Long id, Long fromRoomId, LocalDate fromInitialDate, LocalDate fromFinalDate,
+                              Long toRoomId, LocalDate toInitialDate, LocalDate toFinalDate) {
+        if (bookingCalendar.covers(toInitialDate, toFinalDate)) {
+            return bookingCalendar.move(fromRoomId, fromInitialDate, fromFinalDate, toRoomId, toInitialDate, toFinalDate);
+        }
+        if (!availabilityIndex.isAvailable(toRoomId, toInitialDate, toFinalDate, id)) {
+            return false;
+        }
+        releaseDates(fromRoomId, fromInitialDate, fromFinalDate);
+        return true;
+    }
+
+    private void moveDatesBack(Long fromRoomId, LocalDate fromInitialDate, LocalDate fromFinalDate,
+                               Long toRoomId, LocalDate toInitialDate, LocalDate toFinalDate) {
+        releaseDates(toRoomId, toInitialDate, toFinalDate);
+        bookingCalendar.claim(fromRoomId, fromInitialDate, fromFinalDate);
+    }
+}
@@ -0,0 +1,60 @@
+CREATE SEQUENCE IF NOT EXISTS reservation_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS occupied_date_seq START WITH 1 INCREMENT BY 200;
+CREATE SEQUENCE IF NOT EXISTS room_type_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS room_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS room_type (
+    id BIGINT NOT NULL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS room (
+    id BIGINT NOT NULL PRIMARY KEY,
+    number VARCHAR(255) NOT NULL,
+    room_type_id BIGINT NOT NULL,
+    hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_room_type ON room (room_type_id);
+
+CREATE TABLE IF NOT EXISTS reservation (
+    id BIGINT NOT NULL PRIMARY KEY,
+    initial_date DATE,
+    final_date DATE,
+    room_id BIGINT,
+    hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS occupied_date (
+    id BIGINT NOT NULL PRIMARY KEY,
+    stay_date DATE NOT NULL,
+    reservation_id BIGINT NOT NULL,
+    room_id BIGINT DEFAULT 0 NOT NULL,
+    hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL,
+    CONSTRAINT uk_occupied_date UNIQUE (hotel_id, room_id, stay_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_occupied_date_reservation ON occupied_date (reservation_id);
+
+CREATE TABLE IF NOT EXISTS archived_reservation (
+    id BIGINT NOT NULL PRIMARY KEY,
+    initial_date DATE,
+    final_date DATE,
+    room_id BIGINT,
+    hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL,
+    archived_at TIMESTAMP
+);
+
+-- databases created before hotels were modelled hold the default hotel only
+ALTER TABLE room_type ADD COLUMN IF NOT EXISTS hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE room ADD COLUMN IF NOT EXISTS hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE reservation ADD COLUMN IF NOT EXISTS hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE occupied_date ADD COLUMN IF NOT EXISTS hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE archived_reservation ADD COLUMN IF NOT EXISTS hotel_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_room_hotel ON room (hotel_id);
+CREATE INDEX IF NOT EXISTS idx_room_type_hotel ON room_type (hotel_id);
+CREATE INDEX IF NOT EXISTS idx_reservation_hotel_room_period ON reservation (hotel_id, room_id, final_date, initial_date);
+CREATE INDEX IF NOT EXISTS idx_archived_reservation_hotel_period ON archived_reservation (hotel_id, final_date, initial_date);
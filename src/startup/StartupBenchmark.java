@@ -0,0 +1,84 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+public class StartupBenchmark {
+
+    private static final String STARTED = "Started HotelChallengeApplication";
+    private static final List<String> APPLICATION_ARGS = Arrays.asList(
+            "--reservation.startup.exit-on-ready=true",
+            "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+            "--server.port=0");
+
+    public static void main(String[] args) throws Exception {
+        String jar = args[0];
+        String archive = args[1];
+        int runs = Integer.parseInt(args[2]);
+        Path result = Paths.get(args[3]);
+
+        start(jar, null);
+        start(jar, archive);
+
+        List<Long> baseline = new ArrayList<>();
+        List<Long> appCds = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            baseline.add(start(jar, null));
+            appCds.add(start(jar, archive));
+        }
+
+        String report = line("baseline", baseline) + line("appcds", appCds)
+                + String.format(Locale.ROOT, "appcds starts %.0f%% faster (median)%n",
+                100.0 * (median(baseline) - median(appCds)) / median(baseline));
+        System.out.print(report);
+        Files.write(result, report.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long start(String jar, String archive) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (archive != null) {
+            command.add("-XX:SharedArchiveFile=" + archive);
+        }
+        command.add("-jar");
+        command.add(jar);
+        command.addAll(APPLICATION_ARGS);
+
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long started = -1;
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (started < 0 && line.contains(STARTED)) {
+                    started = (System.nanoTime() - launched) / 1_000_000;
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (started < 0 || exitCode != 0) {
+            throw new IllegalStateException("The application did not start: " + command + " exited with " + exitCode);
+        }
+        return started;
+    }
+
+    private static String line(String name, List<Long> millis) {
+        return String.format(Locale.ROOT, "%-8s median %5d ms  min %5d ms  max %5d ms  %s%n",
+                name, median(millis), Collections.min(millis), Collections.max(millis), millis);
+    }
+
+    private static long median(List<Long> millis) {
+        List<Long> sorted = new ArrayList<>(millis);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -1,22 +1,65 @@
 package com.ronildo.challenge.hotelchallenge;
 
 import com.ronildo.challenge.hotelchallenge.controller.ReservationController;
+import com.ronildo.challenge.hotelchallenge.service.impl.ReservationServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
 class HotelChallengeApplicationTests {
 
 	@Autowired
 	private ReservationController reservationController;
 
+	@Autowired
+	private MockMvc mockMvc;
+
 	@Test
 	void contextLoads() {
 		assertThat(reservationController).isNotNull();
 	}
 
+	@Test
+	void listsReservationsWithTheirEncoder() throws Exception {
+		mockMvc.perform(get("/api/reservations"))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
+				.andExpect(jsonPath("$").isArray());
+	}
+
+	@Test
+	void prometheusExposesReservationMetrics() throws Exception {
+		mockMvc.perform(get("/api/reservations/check_availability")
+						.queryParam("initialDate", LocalDate.now().plusDays(1).toString())
+						.queryParam("finalDate", LocalDate.now().plusDays(2).toString()))
+				.andExpect(status().isOk());
+		mockMvc.perform(get("/api/reservations/0"))
+				.andExpect(status().isNotFound());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString(
+						"reservation_service_seconds_bucket{class=\"" + ReservationServiceImpl.class.getName()
+								+ "\",exception=\"none\",method=\"checkAvailability\"")))
+				.andExpect(content().string(containsString("http_server_requests_seconds_bucket")))
+				.andExpect(content().string(containsString("reservation_api_errors_total{outcome=\"not_found\",}")));
+	}
+
 }
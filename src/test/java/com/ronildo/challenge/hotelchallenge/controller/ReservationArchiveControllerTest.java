@@ -0,0 +1,114 @@
+package com.ronildo.challenge.hotelchallenge.controller;
+
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationArchiveService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ArchivedReservationDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.validation.ConstraintViolationException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = ReservationArchiveController.class)
+@Import(SimpleMeterRegistry.class)
+class ReservationArchiveControllerTest {
+
+    private final String apiController = "/api/reservations/archive";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IReservationArchiveService reservationArchiveService;
+
+    private ArchivedReservationDTO archived(long id) {
+        return new ArchivedReservationDTO(id, LocalDate.of(2021, 8, 19), LocalDate.of(2021, 8, 21), null,
+                LocalDateTime.of(2021, 8, 22, 3, 30));
+    }
+
+    @Test
+    void pageOfArchivedReservations() throws Exception {
+        when(reservationArchiveService.listArchivedReservations(1L, LocalDate.of(2021, 8, 1), null, 2))
+                .thenReturn(Arrays.asList(archived(2L), archived(3L)));
+
+        mockMvc
+                .perform(get(apiController)
+                        .queryParam("afterId", "1")
+                        .queryParam("limit", "2")
+                        .queryParam("fromDate", "2021-08-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK,
+                        "<http://localhost/api/reservations/archive?limit=2&fromDate=2021-08-01&afterId=3>; rel=\"next\""))
+                .andExpect(jsonPath("$[1].id").value(3))
+                .andExpect(jsonPath("$[1].archivedAt").value("2021-08-22T03:30:00"));
+    }
+
+    @Test
+    void lastPageOfArchivedReservations() throws Exception {
+        when(reservationArchiveService.listArchivedReservations(null, null, null, 100))
+                .thenReturn(Collections.singletonList(archived(2L)));
+
+        mockMvc
+                .perform(get(apiController))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(jsonPath("$[0].id").value(2));
+    }
+
+    @Test
+    void pageOfArchivedReservationsWithTooLargeLimit() throws Exception {
+        mockMvc
+                .perform(get(apiController).queryParam("limit", "1001"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
+    }
+
+    @Test
+    void retrieveOneArchivedReservation() throws Exception {
+        when(reservationArchiveService.findArchivedById(2L)).thenReturn(archived(2L));
+
+        mockMvc
+                .perform(get(apiController + "/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.finalDate").value("2021-08-21"));
+    }
+
+    @Test
+    void retrieveOneArchivedReservationNotFound() throws Exception {
+        when(reservationArchiveService.findArchivedById(2L)).thenThrow(new ReservationNotFoundException(2L));
+
+        mockMvc
+                .perform(get(apiController + "/2"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void archiveCompletedReservations() throws Exception {
+        when(reservationArchiveService.archiveCompletedReservations()).thenReturn(4);
+
+        mockMvc
+                .perform(post(apiController + "/run"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.archived").value(4));
+    }
+}
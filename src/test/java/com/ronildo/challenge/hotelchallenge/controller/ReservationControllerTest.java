@@ -1,16 +1,32 @@
 package com.ronildo.challenge.hotelchallenge.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ronildo.challenge.hotelchallenge.controller.json.JsonBufferHttpMessageConverter;
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelContext;
+import com.ronildo.challenge.hotelchallenge.exception.ControllerAdvisor;
 import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.InvalidPeriodException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationModifiedException;
 import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
 import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.dto.AvailabilityCalendarDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
 import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.SuggestedStayDTO;
+import com.ronildo.challenge.hotelchallenge.service.idempotency.IdempotentRequests;
+import com.ronildo.challenge.hotelchallenge.service.idempotency.InMemoryIdempotencyStore;
+import com.ronildo.challenge.hotelchallenge.service.json.ReservationJsonCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -21,19 +37,36 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import javax.validation.ConstraintViolationException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
 @WebMvcTest(controllers = ReservationController.class)
+@Import({SimpleMeterRegistry.class, IdempotentRequests.class, InMemoryIdempotencyStore.class,
+        JsonBufferHttpMessageConverter.class})
 class ReservationControllerTest {
 
     private final String apiController = "/api/reservations";
@@ -44,6 +77,9 @@ class ReservationControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private IReservationService reservationService;
 
@@ -51,14 +87,18 @@ class ReservationControllerTest {
     void listAllReservations() throws Exception {
         List<ReservationDTO> listReturn = new ArrayList<>();
         listReturn.add(new ReservationDTO(1L, LocalDate.now(), LocalDate.now()));
+        listReturn.add(new ReservationDTO(2L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), 7L));
 
-        when(reservationService.listAllReservations())
-                .thenReturn(listReturn);
+        when(reservationService.listAllReservationsAsJson())
+                .thenReturn(new ReservationJsonCodec(1, 1024).encode(Arrays.asList(
+                        new Reservation(1L, LocalDate.now(), LocalDate.now()),
+                        new Reservation(2L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), 7L))));
 
         MvcResult mvcResult = mockMvc
                 .perform(get(apiController)
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andReturn();
 
         String expectedResponseBody = objectMapper.writeValueAsString(listReturn);
@@ -68,6 +108,97 @@ class ReservationControllerTest {
                 .isEqualToIgnoringWhitespace(expectedResponseBody);
     }
 
+    @Test
+    void listReservationsPage() throws Exception {
+        List<ReservationDTO> page = Arrays.asList(
+                new ReservationDTO(1L, LocalDate.now(), LocalDate.now().plusDays(1)),
+                new ReservationDTO(2L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(3)));
+
+        when(reservationService.listReservations(null, null, null, 2))
+                .thenReturn(page);
+
+        MvcResult mvcResult = mockMvc
+                .perform(get(apiController)
+                        .queryParam("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.LINK, StringContains.containsString("afterId=2")))
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentAsString())
+                .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(page));
+    }
+
+    @Test
+    void listReservationsLastPage() throws Exception {
+        when(reservationService.listReservations(2L, LocalDate.now(), null, 2))
+                .thenReturn(Collections.singletonList(new ReservationDTO(3L, LocalDate.now(), LocalDate.now().plusDays(1))));
+
+        mockMvc
+                .perform(get(apiController)
+                        .queryParam("limit", "2")
+                        .queryParam("afterId", "2")
+                        .queryParam("fromDate", LocalDate.now().toString())
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LINK))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(3));
+    }
+
+    @Test
+    void listReservationsPageInvalidLimit() throws Exception {
+        mockMvc
+                .perform(get(apiController)
+                        .queryParam("limit", "0")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
+    }
+
+    @Test
+    void streamReservationsAsNdjson() throws Exception {
+        ReservationDTO first = new ReservationDTO(1L, LocalDate.now(), LocalDate.now().plusDays(1));
+        ReservationDTO second = new ReservationDTO(2L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(3));
+        doAnswer(i -> {
+            Consumer<ReservationDTO> consumer = i.getArgument(2);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).when(reservationService).streamReservations(any(), any(), any());
+
+        MvcResult mvcResult = mockMvc
+                .perform(get(apiController + "/stream")
+                        .accept(ReservationController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ReservationController.APPLICATION_NDJSON_VALUE))
+                .andExpect(content().string(objectMapper.writeValueAsString(first) + "\n"
+                        + objectMapper.writeValueAsString(second)));
+    }
+
+    @Test
+    void streamReservationsAsJsonArray() throws Exception {
+        ReservationDTO first = new ReservationDTO(1L, LocalDate.now(), LocalDate.now().plusDays(1));
+        doAnswer(i -> {
+            Consumer<ReservationDTO> consumer = i.getArgument(2);
+            consumer.accept(first);
+            return null;
+        }).when(reservationService).streamReservations(any(), any(), any());
+
+        MvcResult mvcResult = mockMvc
+                .perform(get(apiController + "/stream")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(objectMapper.writeValueAsString(Collections.singletonList(first))));
+    }
+
     @Test
     void retrieveOneReservationFound() throws Exception {
         ReservationDTO reservation  = new ReservationDTO(1L, LocalDate.now(), LocalDate.now());
@@ -100,6 +231,57 @@ class ReservationControllerTest {
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof ReservationNotFoundException));
     }
 
+    @Test
+    void retrieveOneReservationWithETag() throws Exception {
+        when(reservationService.findOneById(1L))
+                .thenReturn(new ReservationDTO(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null, 3L));
+
+        mockMvc
+                .perform(get(apiController + "/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    void retrieveOneReservationNotModified() throws Exception {
+        when(reservationService.findVersionById(1L)).thenReturn(3L);
+
+        mockMvc
+                .perform(get(apiController + "/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\", W/\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(content().string(""));
+
+        verify(reservationService, never()).findOneById(anyLong());
+    }
+
+    @Test
+    void retrieveOneReservationModifiedSinceItsETag() throws Exception {
+        when(reservationService.findVersionById(1L)).thenReturn(4L);
+        when(reservationService.findOneById(1L))
+                .thenReturn(new ReservationDTO(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2), null, 4L));
+
+        mockMvc
+                .perform(get(apiController + "/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void listAllReservationsNotModified() throws Exception {
+        when(reservationService.findAllReservationsVersion()).thenReturn("2-51-3");
+
+        mockMvc
+                .perform(get(apiController).header(HttpHeaders.IF_NONE_MATCH, "W/\"2-51-3\""))
+                .andExpect(status().isNotModified());
+        mockMvc
+                .perform(get(apiController).header(HttpHeaders.IF_NONE_MATCH, "W/\"2-51-2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "W/\"2-51-3\""));
+
+        verify(reservationService, times(1)).listAllReservationsAsJson();
+    }
+
     @Test
     void saveReservationInvalidPeriodLongerThan3Days() throws Exception {
         ReservationDTO reservation = new ReservationDTO();
@@ -195,6 +377,46 @@ class ReservationControllerTest {
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof DatesNotAvailableForReservationException));
     }
 
+    @Test
+    void saveReservationNotAvailableSuggestsStays() throws Exception {
+        ReservationDTO reservation = new ReservationDTO();
+        reservation.setInitialDate(LocalDate.now().plusDays(1));
+        reservation.setFinalDate(reservation.getInitialDate().plusDays(2));
+
+        when(reservationService.createReservation(any()))
+                .thenThrow(new DatesNotAvailableForReservationException(Collections.singletonList(
+                        new SuggestedStayDTO(LocalDate.now().plusDays(4), LocalDate.now().plusDays(6), null))));
+
+        mockMvc
+                .perform(post(apiController)
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Dates are not available for reservation"))
+                .andExpect(jsonPath("$.suggestions[0].initialDate").value(LocalDate.now().plusDays(4).toString()))
+                .andExpect(jsonPath("$.suggestions[0].finalDate").value(LocalDate.now().plusDays(6).toString()));
+    }
+
+    @Test
+    void saveReservationNotAvailableIsCounted() throws Exception {
+        ReservationDTO reservation = new ReservationDTO();
+        reservation.setInitialDate(LocalDate.now().plusDays(1));
+        reservation.setFinalDate(reservation.getInitialDate().plusDays(2));
+        double before = meterRegistry.counter(ControllerAdvisor.ERRORS_COUNTER, "outcome", "dates_not_available").count();
+
+        when(reservationService.createReservation(any()))
+                .thenThrow(DatesNotAvailableForReservationException.class);
+
+        mockMvc
+                .perform(post(apiController)
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        assertThat(meterRegistry.counter(ControllerAdvisor.ERRORS_COUNTER, "outcome", "dates_not_available").count())
+                .isEqualTo(before + 1);
+    }
+
     @Test
     void saveReservationSuccess() throws Exception {
         ReservationDTO reservation = new ReservationDTO();
@@ -218,6 +440,71 @@ class ReservationControllerTest {
                 .isEqualToIgnoringWhitespace(expectedResponseBody);
     }
 
+    @Test
+    void saveReservationReplaysIdempotentRequest() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        when(reservationService.createReservation(any(ReservationDTO.class)))
+                .thenReturn(new ReservationDTO(7L, reservation.getInitialDate(), reservation.getFinalDate()))
+                .thenThrow(DatesNotAvailableForReservationException.class);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc
+                    .perform(post(apiController)
+                            .header(IdempotentRequests.IDEMPOTENCY_KEY, "save-replay")
+                            .content(objectMapper.writeValueAsString(reservation))
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/reservations/7"))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(7));
+        }
+
+        verify(reservationService, times(1)).createReservation(any(ReservationDTO.class));
+    }
+
+    @Test
+    void saveReservationRejectsReusedIdempotencyKey() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        when(reservationService.createReservation(any(ReservationDTO.class)))
+                .thenReturn(new ReservationDTO(7L, reservation.getInitialDate(), reservation.getFinalDate()));
+
+        mockMvc
+                .perform(post(apiController)
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY, "save-reused")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        reservation.setFinalDate(LocalDate.now().plusDays(3));
+        mockMvc
+                .perform(post(apiController)
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY, "save-reused")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void saveReservationRetriesFailedIdempotentRequest() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        when(reservationService.createReservation(any(ReservationDTO.class)))
+                .thenThrow(DatesNotAvailableForReservationException.class)
+                .thenReturn(new ReservationDTO(7L, reservation.getInitialDate(), reservation.getFinalDate()));
+
+        mockMvc
+                .perform(post(apiController)
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY, "save-failed")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        mockMvc
+                .perform(post(apiController)
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY, "save-failed")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotentRequests.IDEMPOTENT_REPLAYED));
+    }
+
     @Test
     void checkAvailabilityAvailable() throws Exception {
         when(reservationService.checkAvailability(any(LocalDate.class), any(LocalDate.class), any()))
@@ -256,6 +543,106 @@ class ReservationControllerTest {
                 .isEqualToIgnoringWhitespace(expectedResponseBody);
     }
 
+    @Test
+    void saveReservationsInBulk() throws Exception {
+        List<ReservationDTO> batch = Arrays.asList(
+                new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)),
+                new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(3)));
+        List<BulkReservationResultDTO> results = Arrays.asList(
+                new BulkReservationResultDTO(0, BulkReservationResultDTO.Status.CREATED,
+                        new ReservationDTO(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)), null),
+                new BulkReservationResultDTO(1, BulkReservationResultDTO.Status.CONFLICT, batch.get(1),
+                        "The dates overlap a previous reservation of the batch"));
+
+        when(reservationService.createReservations(batch)).thenReturn(results);
+
+        MvcResult mvcResult = mockMvc
+                .perform(post(apiController + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentAsString())
+                .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(results));
+    }
+
+    @Test
+    void saveReservationsInBulkRejectsAnEmptyBatch() throws Exception {
+        mockMvc
+                .perform(post(apiController + "/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
+    }
+
+    @Test
+    void availabilityCalendar() throws Exception {
+        AvailabilityCalendarDTO calendar = new AvailabilityCalendarDTO(
+                LocalDate.now().plusDays(1), LocalDate.now().plusDays(4), "0110", "1000");
+
+        when(reservationService.getAvailabilityCalendar(LocalDate.now().plusDays(1), LocalDate.now().plusDays(4)))
+                .thenReturn(calendar);
+
+        MvcResult mvcResult = mockMvc
+                .perform(get(apiController + "/calendar")
+                        .queryParam("fromDate", LocalDate.now().plusDays(1).toString())
+                        .queryParam("toDate", LocalDate.now().plusDays(4).toString()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentAsString())
+                .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(calendar));
+    }
+
+    @Test
+    void availabilityCalendarInvalidPeriod() throws Exception {
+        when(reservationService.getAvailabilityCalendar(any(), any()))
+                .thenThrow(new InvalidPeriodException("The calendar must end after it starts"));
+
+        mockMvc
+                .perform(get(apiController + "/calendar")
+                        .queryParam("fromDate", LocalDate.now().plusDays(4).toString())
+                        .queryParam("toDate", LocalDate.now().plusDays(1).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.details",
+                        StringContains.containsString("The calendar must end after it starts")));
+    }
+
+    @Test
+    void suggestStays() throws Exception {
+        List<SuggestedStayDTO> suggestions = Arrays.asList(
+                new SuggestedStayDTO(LocalDate.now().plusDays(2), LocalDate.now().plusDays(3), 7L),
+                new SuggestedStayDTO(LocalDate.now().plusDays(5), LocalDate.now().plusDays(6), 7L));
+
+        when(reservationService.suggestStays(LocalDate.now().plusDays(3), LocalDate.now().plusDays(4), 7L, 2))
+                .thenReturn(suggestions);
+
+        MvcResult mvcResult = mockMvc
+                .perform(get(apiController + "/suggestions")
+                        .queryParam("initialDate", LocalDate.now().plusDays(3).toString())
+                        .queryParam("finalDate", LocalDate.now().plusDays(4).toString())
+                        .queryParam("roomId", "7")
+                        .queryParam("limit", "2"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(mvcResult.getResponse().getContentAsString())
+                .isEqualToIgnoringWhitespace(objectMapper.writeValueAsString(suggestions));
+    }
+
+    @Test
+    void suggestStaysWithTooLargeLimit() throws Exception {
+        mockMvc
+                .perform(get(apiController + "/suggestions")
+                        .queryParam("initialDate", LocalDate.now().plusDays(3).toString())
+                        .queryParam("finalDate", LocalDate.now().plusDays(4).toString())
+                        .queryParam("limit", "31"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
+    }
+
     @Test
     void updateReservationSuccess() throws Exception {
         ReservationDTO reservationInput = new ReservationDTO();
@@ -284,6 +671,127 @@ class ReservationControllerTest {
                 .isEqualToIgnoringWhitespace(expectedResponseBody);
     }
 
+    @Test
+    void updateReservationReplaysIdempotentRequest() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        when(reservationService.updateReservation(any(Long.class), any(ReservationDTO.class)))
+                .thenReturn(new ReservationDTO(5L, reservation.getInitialDate(), reservation.getFinalDate()));
+
+        mockMvc
+                .perform(put(apiController + "/5")
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY, "update-replay")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        mockMvc
+                .perform(put(apiController + "/5")
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY, "update-replay")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotentRequests.IDEMPOTENT_REPLAYED, "true"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.id").value(5));
+        mockMvc
+                .perform(put(apiController + "/6")
+                        .header(IdempotentRequests.IDEMPOTENCY_KEY, "update-replay")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(reservationService, times(1)).updateReservation(any(Long.class), any(ReservationDTO.class));
+    }
+
+    @Test
+    void updateReservationIfMatch() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        when(reservationService.updateReservation(eq(5L), argThat(input -> Long.valueOf(3L).equals(input.getVersion()))))
+                .thenReturn(new ReservationDTO(5L, reservation.getInitialDate(), reservation.getFinalDate(), null, 4L));
+
+        mockMvc
+                .perform(put(apiController + "/5")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    void updateReservationIfMatchAnotherVersion() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        when(reservationService.updateReservation(eq(5L), any(ReservationDTO.class)))
+                .thenThrow(new ReservationModifiedException(5L));
+
+        mockMvc
+                .perform(put(apiController + "/5")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("Reservation 5 was modified since it was read"));
+    }
+
+    @Test
+    void updateReservationIfMatchList() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        when(reservationService.findOneById(5L))
+                .thenReturn(new ReservationDTO(5L, reservation.getInitialDate(), reservation.getFinalDate(), null, 4L));
+        when(reservationService.updateReservation(eq(5L), argThat(input -> Long.valueOf(4L).equals(input.getVersion()))))
+                .thenReturn(new ReservationDTO(5L, reservation.getInitialDate(), reservation.getFinalDate(), null, 5L));
+
+        mockMvc
+                .perform(put(apiController + "/5")
+                        .header(HttpHeaders.IF_MATCH, "\"3\", W/\"5\", \"4\"")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+    }
+
+    @Test
+    void updateReservationIfMatchListWithoutCurrentVersion() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        when(reservationService.findOneById(5L))
+                .thenReturn(new ReservationDTO(5L, reservation.getInitialDate(), reservation.getFinalDate(), null, 5L));
+
+        mockMvc
+                .perform(put(apiController + "/5")
+                        .header(HttpHeaders.IF_MATCH, "\"3\", \"4\"")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(reservationService, never()).updateReservation(anyLong(), any());
+    }
+
+    @Test
+    void updateReservationIfMatchUnknownTag() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+
+        mockMvc
+                .perform(put(apiController + "/5")
+                        .header(HttpHeaders.IF_MATCH, "\"99999999999999999999\"")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(reservationService, never()).updateReservation(anyLong(), any());
+    }
+
+    @Test
+    void updateReservationIfMatchWeakTag() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+
+        mockMvc
+                .perform(put(apiController + "/5")
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(reservationService, never()).updateReservation(anyLong(), any());
+    }
+
     @Test
     void updateReservationDatesNotAvailable() throws Exception {
         ReservationDTO reservationInput = new ReservationDTO();
@@ -352,4 +860,51 @@ class ReservationControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(result -> assertTrue(result.getResolvedException() instanceof ReservationNotFoundException));
     }
-}
\ No newline at end of file
+
+    @Test
+    void saveReservationOfAHotel() throws Exception {
+        ReservationDTO reservation = new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        AtomicReference<String> hotelId = new AtomicReference<>();
+        when(reservationService.createReservation(any())).thenAnswer(i -> {
+            hotelId.set(HotelContext.hotelId());
+            return new ReservationDTO(1L, reservation.getInitialDate(), reservation.getFinalDate());
+        });
+
+        mockMvc
+                .perform(post("/api/hotels/acme/reservations")
+                        .content(objectMapper.writeValueAsString(reservation))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/hotels/acme/reservations/1"));
+
+        assertEquals("acme", hotelId.get());
+        assertEquals(HotelContext.DEFAULT_HOTEL, HotelContext.hotelId());
+    }
+
+    @Test
+    void streamReservationsOfAHotel() throws Exception {
+        AtomicReference<String> hotelId = new AtomicReference<>();
+        doAnswer(i -> {
+            hotelId.set(HotelContext.hotelId());
+            return null;
+        }).when(reservationService).streamReservations(any(), any(), any());
+
+        MvcResult mvcResult = mockMvc
+                .perform(get("/api/hotels/acme/reservations/stream")
+                        .accept(ReservationController.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+
+        assertEquals("acme", hotelId.get());
+    }
+
+    @Test
+    void invalidHotelIsNotFound() throws Exception {
+        mockMvc
+                .perform(get("/api/hotels/Acme_Hotel/reservations")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,104 @@
+package com.ronildo.challenge.hotelchallenge.controller;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import com.ronildo.challenge.hotelchallenge.exception.ChangeFeedUnavailableException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationEventService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationEventDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.validation.ConstraintViolationException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = ReservationEventController.class)
+@Import(SimpleMeterRegistry.class)
+class ReservationEventControllerTest {
+
+    private final String apiController = "/api/reservations/events";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IReservationEventService reservationEventService;
+
+    @Test
+    void eventsAfterSequence() throws Exception {
+        ReservationEventDTO event = new ReservationEventDTO(8L, ReservationEvent.Type.CREATED, 3L,
+                LocalDate.of(2021, 8, 19), LocalDate.of(2021, 8, 21), null, 0L,
+                LocalDateTime.of(2021, 8, 15, 10, 0));
+        when(reservationEventService.awaitEvents(7L, 50, Duration.ofSeconds(20)))
+                .thenReturn(CompletableFuture.completedFuture(Collections.singletonList(event)));
+
+        MvcResult result = mockMvc
+                .perform(get(apiController)
+                        .queryParam("after", "7")
+                        .queryParam("limit", "50")
+                        .queryParam("wait", "20"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sequence").value(8))
+                .andExpect(jsonPath("$[0].type").value("CREATED"))
+                .andExpect(jsonPath("$[0].reservationId").value(3))
+                .andExpect(jsonPath("$[0].occurredAt").value("2021-08-15T10:00:00"));
+    }
+
+    @Test
+    void eventsWithDefaults() throws Exception {
+        when(reservationEventService.awaitEvents(0L, 100, Duration.ZERO))
+                .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+        MvcResult result = mockMvc
+                .perform(get(apiController))
+                .andReturn();
+
+        mockMvc
+                .perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    void eventsWithTooLongWait() throws Exception {
+        mockMvc
+                .perform(get(apiController)
+                        .queryParam("wait", "30"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ConstraintViolationException));
+    }
+
+    @Test
+    void feedIsUnavailableWithoutEventService() {
+        ReservationEventController controller = new ReservationEventController(
+                new StaticListableBeanFactory().getBeanProvider(IReservationEventService.class));
+
+        assertThrows(ChangeFeedUnavailableException.class, () -> controller.eventsAfter(0, 100, 0));
+    }
+}
@@ -0,0 +1,157 @@
+package com.ronildo.challenge.hotelchallenge.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomNotFoundException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomTypeNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IRoomService;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomTypeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = RoomController.class)
+@Import(SimpleMeterRegistry.class)
+class RoomControllerTest {
+
+    private final String apiController = "/api/rooms";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private IRoomService roomService;
+
+    @Test
+    void saveRoomType() throws Exception {
+        when(roomService.createRoomType(any())).thenReturn(new RoomTypeDTO(1L, "Double"));
+
+        mockMvc
+                .perform(post(apiController + "/types")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RoomTypeDTO(null, "Double"))))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/rooms/types/1"))
+                .andExpect(jsonPath("$.name").value("Double"));
+    }
+
+    @Test
+    void saveRoomTypeWithoutName() throws Exception {
+        mockMvc
+                .perform(post(apiController + "/types")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RoomTypeDTO(null, " "))))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof MethodArgumentNotValidException));
+    }
+
+    @Test
+    void saveRoom() throws Exception {
+        when(roomService.createRoom(any())).thenReturn(new RoomDTO(3L, "101", 1L));
+
+        mockMvc
+                .perform(post(apiController)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RoomDTO(null, "101", 1L))))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/rooms/3"))
+                .andExpect(jsonPath("$.roomTypeId").value(1));
+    }
+
+    @Test
+    void saveRoomOfAnUnknownType() throws Exception {
+        when(roomService.createRoom(any())).thenThrow(new RoomTypeNotFoundException(1L));
+
+        mockMvc
+                .perform(post(apiController)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RoomDTO(null, "101", 1L))))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Could not find room type 1"));
+    }
+
+    @Test
+    void listRoomsOfAType() throws Exception {
+        when(roomService.listRooms(1L))
+                .thenReturn(Arrays.asList(new RoomDTO(3L, "101", 1L), new RoomDTO(4L, "102", 1L)));
+
+        mockMvc
+                .perform(get(apiController).queryParam("roomTypeId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].number").value("102"));
+    }
+
+    @Test
+    void retrieveOneRoomNotFound() throws Exception {
+        when(roomService.findRoomById(3L)).thenThrow(new RoomNotFoundException(3L));
+
+        mockMvc
+                .perform(get(apiController + "/3"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void findFreeRoom() throws Exception {
+        LocalDate initialDate = LocalDate.now().plusDays(1);
+        when(roomService.findFreeRoom(1L, initialDate, initialDate.plusDays(2)))
+                .thenReturn(new RoomDTO(4L, "102", 1L));
+
+        mockMvc
+                .perform(get(apiController + "/free_room")
+                        .queryParam("roomTypeId", "1")
+                        .queryParam("initialDate", initialDate.toString())
+                        .queryParam("finalDate", initialDate.plusDays(2).toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"id\":4,\"number\":\"102\",\"roomTypeId\":1}"));
+    }
+
+    @Test
+    void findFreeRoomWhenAllAreTaken() throws Exception {
+        when(roomService.findFreeRoom(any(), any(), any())).thenThrow(new DatesNotAvailableForReservationException());
+
+        mockMvc
+                .perform(get(apiController + "/free_room")
+                        .queryParam("roomTypeId", "1")
+                        .queryParam("initialDate", LocalDate.now().plusDays(1).toString())
+                        .queryParam("finalDate", LocalDate.now().plusDays(2).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Dates are not available for reservation"));
+    }
+
+    @Test
+    void findFreeRoomWithoutRoomType() throws Exception {
+        mockMvc
+                .perform(get(apiController + "/free_room")
+                        .queryParam("initialDate", LocalDate.now().plusDays(1).toString())
+                        .queryParam("finalDate", LocalDate.now().plusDays(2).toString()))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.argument").value("roomTypeId"));
+    }
+}
@@ -0,0 +1,197 @@
+package com.ronildo.challenge.hotelchallenge.controller.admission;
+
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "reservation.admission.enabled=true",
+        "reservation.admission.read.capacity=3",
+        "reservation.admission.read.per-second=0.5",
+        "reservation.admission.write.capacity=100",
+        "reservation.admission.write.per-second=100",
+        "reservation.admission.max-in-flight-writes=2",
+        "reservation.admission.queue-timeout=PT0.05S",
+        "reservation.admission.retry-after=PT2S"})
+@AutoConfigureMockMvc
+class AdmissionControlInterceptorTest {
+
+    private final String apiController = "/api/reservations";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @MockBean
+    IReservationService reservationService;
+
+    private double rejected(String reason, String budget) {
+        return meterRegistry.counter(AdmissionControlInterceptor.REJECTED_COUNTER, "reason", reason, "budget", budget)
+                .count();
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    @Test
+    void clientHeadersDoNotGetAFreshBudget() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc
+                    .perform(get(apiController + "/check_availability")
+                            .with(from("10.0.0.4"))
+                            .header("X-Api-Key", "key-" + i)
+                            .queryParam("initialDate", "2021-08-19")
+                            .queryParam("finalDate", "2021-08-21"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc
+                .perform(get(apiController + "/check_availability")
+                        .with(from("10.0.0.4"))
+                        .header("X-Api-Key", "key-3")
+                        .queryParam("initialDate", "2021-08-19")
+                        .queryParam("finalDate", "2021-08-21"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void readsBeyondTheBudgetOfAClientAreRateLimited() throws Exception {
+        double before = rejected("rate_limited", "read");
+        for (int i = 0; i < 3; i++) {
+            mockMvc
+                    .perform(get(apiController + "/check_availability")
+                            .with(from("10.0.0.1"))
+                            .queryParam("initialDate", "2021-08-19")
+                            .queryParam("finalDate", "2021-08-21"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc
+                .perform(get(apiController + "/check_availability")
+                        .with(from("10.0.0.1"))
+                        .queryParam("initialDate", "2021-08-19")
+                        .queryParam("finalDate", "2021-08-21"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.message").value("Too many requests, retry after 2 seconds"));
+        assertEquals(before + 1, rejected("rate_limited", "read"));
+
+        mockMvc
+                .perform(get(apiController + "/check_availability")
+                        .with(from("10.0.0.2"))
+                        .queryParam("initialDate", "2021-08-19")
+                        .queryParam("finalDate", "2021-08-21"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void writesHaveTheirOwnBudget() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get(apiController + "/calendar").with(from("10.0.0.3")));
+        }
+        when(reservationService.createReservation(any()))
+                .thenReturn(new ReservationDTO(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)));
+
+        mockMvc
+                .perform(post(apiController)
+                        .with(from("10.0.0.3"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body()))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void writesBeyondTheInFlightLimitAreShedWithBoundedLatency() throws Exception {
+        CountDownLatch admitted = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(reservationService.createReservation(any())).thenAnswer(i -> {
+            admitted.countDown();
+            assertTrue(release.await(10, TimeUnit.SECONDS));
+            return new ReservationDTO(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        });
+        double before = rejected("overloaded", "write");
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            List<Future<MvcResult>> writes = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                String client = "10.0.1." + i;
+                writes.add(executor.submit(() -> mockMvc
+                        .perform(post(apiController)
+                                .with(from(client))
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body()))
+                        .andReturn()));
+            }
+            assertTrue(admitted.await(10, TimeUnit.SECONDS));
+
+            // the shed writes are answered while the admitted ones are still stuck
+            List<Future<MvcResult>> pending = new ArrayList<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+            for (Future<MvcResult> write : writes) {
+                try {
+                    MvcResult result = write.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    assertEquals(503, result.getResponse().getStatus());
+                    assertEquals("2", result.getResponse().getHeader(HttpHeaders.RETRY_AFTER));
+                } catch (TimeoutException e) {
+                    pending.add(write);
+                }
+            }
+            assertEquals(2, pending.size());
+            assertEquals(before + 8, rejected("overloaded", "write"));
+
+            release.countDown();
+            for (Future<MvcResult> write : pending) {
+                assertEquals(201, write.get(10, TimeUnit.SECONDS).getResponse().getStatus());
+            }
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+
+        mockMvc
+                .perform(post(apiController)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body()))
+                .andExpect(status().isCreated());
+    }
+
+    private static String body() {
+        return "{\"initialDate\":\"" + LocalDate.now().plusDays(1) + "\",\"finalDate\":\"" + LocalDate.now().plusDays(2) + "\"}";
+    }
+}
@@ -0,0 +1,42 @@
+package com.ronildo.challenge.hotelchallenge.controller.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(SECOND / 2, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void refillsAtTheRate() {
+        TokenBucket bucket = new TokenBucket(2, 2, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertEquals(SECOND / 4, bucket.tryAcquire(SECOND / 4));
+        assertEquals(0, bucket.tryAcquire(SECOND / 2));
+        assertEquals(SECOND / 2, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void idleTimeDoesNotExceedCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+
+        assertEquals(0, bucket.tryAcquire(100 * SECOND));
+        assertEquals(0, bucket.tryAcquire(100 * SECOND));
+        assertEquals(SECOND, bucket.tryAcquire(100 * SECOND));
+    }
+}
@@ -0,0 +1,133 @@
+package com.ronildo.challenge.hotelchallenge.data.datasource;
+
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndexSynchronizer;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+        "reservation.datasource.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+        "reservation.datasource.replica.max-lag=PT5S",
+        "reservation.datasource.replica.heartbeat-interval=PT1H"})
+class ReplicaRoutingDataSourceTest {
+
+    private final JdbcTemplate replica = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    private JdbcTemplate primary;
+
+    @Autowired
+    IReservationService reservationService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    OccupiedDateRepository occupiedDateRepository;
+
+    @Autowired
+    AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    AvailabilityIndexSynchronizer availabilityIndexSynchronizer;
+
+    @Autowired
+    ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    void setPrimary(@Qualifier("primaryDataSource") DataSource primaryDataSource) {
+        primary = new JdbcTemplate(primaryDataSource);
+    }
+
+    @BeforeEach
+    void clearReservations() {
+        occupiedDateRepository.deleteAll();
+        reservationRepository.deleteAll();
+        availabilityIndexSynchronizer.load();
+        replica.execute("DROP ALL OBJECTS");
+        replicaLagMonitor.check();
+    }
+
+    private void replicate() {
+        List<String> script = primary.queryForList("SCRIPT", String.class);
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+        replicaLagMonitor.check();
+    }
+
+    private ReservationDTO create(int fromDay, int toDay) {
+        return reservationService.createReservation(
+                new ReservationDTO(null, LocalDate.now().plusDays(fromDay), LocalDate.now().plusDays(toDay)));
+    }
+
+    @Test
+    void readOnlyTransactionsGoToAnUpToDateReplica() {
+        ReservationDTO replicated = create(1, 2);
+        replicate();
+        ReservationDTO notReplicated = create(4, 5);
+
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+        assertEquals(1, reservationService.listAllReservations().size());
+        assertEquals(replicated, reservationService.findOneById(replicated.getId()));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.findOneById(notReplicated.getId()));
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        replicate();
+
+        ReservationDTO created = create(1, 2);
+        reservationService.updateReservation(created.getId(),
+                new ReservationDTO(null, LocalDate.now().plusDays(3), LocalDate.now().plusDays(4)));
+
+        assertEquals(1, primary.queryForObject("SELECT count(*) FROM reservation", Integer.class));
+        assertEquals(0, replica.queryForObject("SELECT count(*) FROM reservation", Integer.class));
+    }
+
+    @Test
+    void laggingReplicaIsBypassed() {
+        create(1, 2);
+        replicate();
+        create(4, 5);
+
+        replica.update("UPDATE replication_heartbeat SET sent_at = ?", System.currentTimeMillis() - 60_000);
+        replicaLagMonitor.check();
+
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals(2, reservationService.listAllReservations().size());
+    }
+
+    @Test
+    void missingReplicaIsBypassed() {
+        create(1, 2);
+
+        assertFalse(replicaLagMonitor.isReplicaUsable());
+        assertEquals(1, reservationService.listAllReservations().size());
+    }
+
+    @Test
+    void availabilityIndexIsCheckedAgainstThePrimary() {
+        replicate();
+        ReservationDTO created = create(1, 2);
+
+        assertTrue(availabilityIndexSynchronizer.verifyConsistency());
+        assertFalse(availabilityIndex.isAvailable(created.getInitialDate(), created.getFinalDate(), null));
+    }
+}
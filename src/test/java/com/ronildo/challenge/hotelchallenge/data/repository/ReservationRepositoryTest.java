@@ -0,0 +1,129 @@
+package com.ronildo.challenge.hotelchallenge.data.repository;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static com.ronildo.challenge.hotelchallenge.data.shard.HotelContext.DEFAULT_HOTEL;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ReservationRepositoryTest {
+
+    private final LocalDate today = LocalDate.of(2021, 8, 15);
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    private Reservation unassigned;
+
+    @BeforeEach
+    void setUp() {
+        unassigned = reservationRepository.save(new Reservation(null, today.plusDays(2), today.plusDays(4)));
+        reservationRepository.saveAll(Arrays.asList(
+                new Reservation(null, today.plusDays(10), today.plusDays(12)),
+                new Reservation(null, today.plusDays(6), today.plusDays(7), 7L)));
+    }
+
+    @Test
+    void versionIsBumpedByEveryUpdate() {
+        entityManager.flush();
+        assertEquals(0L, reservationRepository.findVersionById(DEFAULT_HOTEL, unassigned.getId()).get());
+
+        unassigned.setFinalDate(today.plusDays(5));
+        entityManager.flush();
+
+        assertEquals(1L, unassigned.getVersion());
+        assertEquals(1L, reservationRepository.findVersionById(DEFAULT_HOTEL, unassigned.getId()).get());
+        assertFalse(reservationRepository.findVersionById(DEFAULT_HOTEL, -1L).isPresent());
+    }
+
+    @Test
+    void collectionVersionChangesWithEveryWrite() {
+        entityManager.flush();
+        String created = reservationRepository.findCollectionVersion(DEFAULT_HOTEL);
+
+        unassigned.setFinalDate(today.plusDays(5));
+        entityManager.flush();
+        String updated = reservationRepository.findCollectionVersion(DEFAULT_HOTEL);
+
+        reservationRepository.save(new Reservation(null, today.plusDays(20), today.plusDays(21)));
+        reservationRepository.delete(unassigned);
+        entityManager.flush();
+        String replaced = reservationRepository.findCollectionVersion(DEFAULT_HOTEL);
+
+        assertNotEquals(created, updated);
+        assertNotEquals(updated, replaced);
+        assertEquals(replaced, reservationRepository.findCollectionVersion(DEFAULT_HOTEL));
+    }
+
+    @Test
+    void existsOverlappingIsInclusiveOnBothEnds() {
+        assertTrue(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, today, today.plusDays(2), null));
+        assertTrue(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, today.plusDays(4), today.plusDays(5), null));
+        assertTrue(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, today, today.plusDays(30), null));
+        assertFalse(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, today.plusDays(5), today.plusDays(9), null));
+    }
+
+    @Test
+    void existsOverlappingIgnoresTheGivenReservation() {
+        assertFalse(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, today.plusDays(3), today.plusDays(5), unassigned.getId()));
+        assertTrue(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, today.plusDays(3), today.plusDays(10), unassigned.getId()));
+    }
+
+    @Test
+    void existsOverlappingIsScopedToTheRoom() {
+        assertTrue(reservationRepository.existsOverlapping(DEFAULT_HOTEL, 7L, today.plusDays(7), today.plusDays(8), null));
+        assertFalse(reservationRepository.existsOverlapping(DEFAULT_HOTEL, 7L, today.plusDays(2), today.plusDays(4), null));
+        assertFalse(reservationRepository.existsOverlapping(DEFAULT_HOTEL, 8L, today.plusDays(6), today.plusDays(7), null));
+        assertFalse(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, today.plusDays(6), today.plusDays(7), null));
+    }
+
+    @Test
+    void queriesAreScopedToTheHotel() {
+        reservationRepository.save(new Reservation(null, today.plusDays(20), today.plusDays(22), null, "other", null));
+        entityManager.flush();
+
+        assertTrue(reservationRepository.existsOverlapping("other", null, today.plusDays(21), today.plusDays(21), null));
+        assertFalse(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null, today.plusDays(21), today.plusDays(21), null));
+        assertFalse(reservationRepository.existsOverlapping("other", null, today.plusDays(2), today.plusDays(4), null));
+        assertEquals(3, reservationRepository.findByHotelId(DEFAULT_HOTEL).size());
+        assertFalse(reservationRepository.findByIdAndHotelId(unassigned.getId(), "other").isPresent());
+        assertNotEquals(reservationRepository.findCollectionVersion(DEFAULT_HOTEL),
+                reservationRepository.findCollectionVersion("other"));
+    }
+
+    @Test
+    void overlapQueriesUseThePeriodIndexes() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM reservation "
+                + "WHERE hotel_id = 'default' AND room_id IS NULL AND final_date >= DATE '2021-08-17' AND initial_date <= DATE '2021-08-19' "
+                + "LIMIT 1", String.class);
+        String roomPlan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM reservation "
+                + "WHERE hotel_id = 'default' AND room_id = 7 AND final_date >= DATE '2021-08-17' AND initial_date <= DATE '2021-08-19' "
+                + "LIMIT 1", String.class);
+
+        assertTrue(plan.toUpperCase().contains("IDX_RESERVATION_HOTEL_ROOM_PERIOD"), plan);
+        assertTrue(roomPlan.toUpperCase().contains("IDX_RESERVATION_HOTEL_ROOM_PERIOD"), roomPlan);
+    }
+
+    @Test
+    void completedQueryUsesTheFinalDateIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM reservation "
+                + "WHERE final_date < DATE '2021-08-17' ORDER BY final_date LIMIT 100", String.class);
+
+        assertTrue(plan.toUpperCase().contains("IDX_RESERVATION_FINAL_DATE"), plan);
+    }
+}
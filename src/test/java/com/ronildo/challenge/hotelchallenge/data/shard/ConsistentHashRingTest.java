@@ -0,0 +1,62 @@
+package com.ronildo.challenge.hotelchallenge.data.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int HOTELS = 10_000;
+
+    @Test
+    void spreadsKeysEvenly() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d"), 160);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < HOTELS; i++) {
+            counts.merge(ring.nodeFor("hotel-" + i), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > HOTELS / 4 * 0.8 && count < HOTELS / 4 * 1.2,
+                counts::toString));
+    }
+
+    @Test
+    void addingANodeOnlyMovesKeysToIt() {
+        ConsistentHashRing before = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d"), 160);
+        ConsistentHashRing after = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d", "e"), 160);
+
+        int moved = 0;
+        for (int i = 0; i < HOTELS; i++) {
+            String hotelId = "hotel-" + i;
+            if (!before.nodeFor(hotelId).equals(after.nodeFor(hotelId))) {
+                assertEquals("e", after.nodeFor(hotelId));
+                moved++;
+            }
+        }
+
+        assertTrue(moved > HOTELS / 5 * 0.8 && moved < HOTELS / 5 * 1.2, String.valueOf(moved));
+    }
+
+    @Test
+    void sameKeyAlwaysGoesToTheSameNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b"), 160);
+        ConsistentHashRing reordered = new ConsistentHashRing(Arrays.asList("b", "a"), 160);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(ring.nodeFor("hotel-" + i), reordered.nodeFor("hotel-" + i));
+        }
+    }
+
+    @Test
+    void needsANode() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(Collections.emptyList(), 160));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(Collections.singletonList("a"), 0));
+    }
+}
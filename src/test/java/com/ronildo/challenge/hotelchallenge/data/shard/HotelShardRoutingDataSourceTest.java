@@ -0,0 +1,149 @@
+package com.ronildo.challenge.hotelchallenge.data.shard;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationEventRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndexSynchronizer;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "reservation.datasource.shards.names=east,west",
+        "reservation.datasource.shards.east.url=jdbc:h2:mem:east;DB_CLOSE_DELAY=-1",
+        "reservation.datasource.shards.west.url=jdbc:h2:mem:west;DB_CLOSE_DELAY=-1",
+        "reservation.datasource.shards.hikari.maximum-pool-size=4"})
+class HotelShardRoutingDataSourceTest {
+
+    private final JdbcTemplate east = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:east;DB_CLOSE_DELAY=-1", "sa", ""));
+    private final JdbcTemplate west = new JdbcTemplate(
+            new DriverManagerDataSource("jdbc:h2:mem:west;DB_CLOSE_DELAY=-1", "sa", ""));
+
+    @Autowired
+    HotelShards hotelShards;
+
+    @Autowired
+    IReservationService reservationService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    OccupiedDateRepository occupiedDateRepository;
+
+    @Autowired
+    ReservationEventRepository reservationEventRepository;
+
+    @Autowired
+    AvailabilityIndexSynchronizer availabilityIndexSynchronizer;
+
+    private String eastHotel;
+    private String otherEastHotel;
+    private String westHotel;
+
+    @BeforeEach
+    void setUp() {
+        for (String shard : hotelShards.names()) {
+            hotelShards.callOnShard(shard, () -> {
+                reservationEventRepository.deleteAll();
+                occupiedDateRepository.deleteAll();
+                reservationRepository.deleteAll();
+                return null;
+            });
+        }
+        availabilityIndexSynchronizer.load();
+
+        List<String> eastHotels = hotelsOn("east");
+        eastHotel = eastHotels.get(0);
+        otherEastHotel = eastHotels.get(1);
+        westHotel = hotelsOn("west").get(0);
+    }
+
+    private List<String> hotelsOn(String shard) {
+        return IntStream.range(0, 100)
+                .mapToObj(i -> "hotel-" + i)
+                .filter(hotelId -> hotelShards.shardOf(hotelId).equals(shard))
+                .collect(Collectors.toList());
+    }
+
+    private ReservationDTO create(String hotelId, int fromDay, int toDay) {
+        return hotelShards.callAs(hotelId, () -> reservationService.createReservation(
+                new ReservationDTO(null, LocalDate.now().plusDays(fromDay), LocalDate.now().plusDays(toDay))));
+    }
+
+    @Test
+    void hotelsOnlyReachTheirShard() {
+        create(eastHotel, 1, 2);
+        create(westHotel, 1, 2);
+
+        assertEquals(Collections.singletonList(eastHotel),
+                east.queryForList("SELECT DISTINCT hotel_id FROM reservation", String.class));
+        assertEquals(Collections.singletonList(westHotel),
+                west.queryForList("SELECT DISTINCT hotel_id FROM reservation", String.class));
+        assertEquals(1, east.queryForObject("SELECT count(*) FROM reservation_event", Integer.class));
+        assertEquals(1, west.queryForObject("SELECT count(*) FROM reservation_event", Integer.class));
+    }
+
+    @Test
+    void listingAndAvailabilityAreScopedToTheHotel() {
+        ReservationDTO eastReservation = create(eastHotel, 1, 2);
+        create(westHotel, 1, 2);
+        create(otherEastHotel, 1, 2);
+
+        List<ReservationDTO> listed = hotelShards.callAs(eastHotel, reservationService::listAllReservations);
+        assertEquals(Collections.singletonList(eastReservation), listed);
+
+        LocalDate day = eastReservation.getInitialDate();
+        assertFalse(hotelShards.callAs(eastHotel, () -> reservationService.checkAvailability(day, day, null)));
+        assertTrue(hotelShards.callAs("hotel-without-reservations",
+                () -> reservationService.checkAvailability(day, day, null)));
+        assertThrows(ReservationNotFoundException.class, () -> hotelShards.callAs(otherEastHotel,
+                () -> reservationService.findOneById(eastReservation.getId())));
+    }
+
+    @Test
+    void idsAreTakenFromTheSequenceOfEachShard() {
+        LocalDate day = LocalDate.now().plusDays(1);
+        for (int i = 0; i < 120; i++) {
+            String hotelId = i % 2 == 0 ? eastHotel : westHotel;
+            hotelShards.callAs(hotelId, () -> reservationRepository.save(new Reservation(null, day, day, null, hotelId, null)));
+        }
+
+        Set<Long> eastIds = new HashSet<>(east.queryForList("SELECT id FROM reservation", Long.class));
+        Set<Long> westIds = new HashSet<>(west.queryForList("SELECT id FROM reservation", Long.class));
+        assertEquals(60, eastIds.size());
+        assertEquals(60, westIds.size());
+    }
+
+    @Test
+    void indexIsLoadedFromEveryShard() {
+        ReservationDTO eastReservation = create(eastHotel, 3, 4);
+        ReservationDTO westReservation = create(westHotel, 5, 6);
+
+        availabilityIndexSynchronizer.load();
+
+        assertTrue(availabilityIndexSynchronizer.verifyConsistency());
+        assertFalse(hotelShards.callAs(eastHotel, () -> reservationService.checkAvailability(
+                eastReservation.getInitialDate(), eastReservation.getFinalDate(), null)));
+        assertFalse(hotelShards.callAs(westHotel, () -> reservationService.checkAvailability(
+                westReservation.getInitialDate(), westReservation.getFinalDate(), null)));
+    }
+}
@@ -0,0 +1,113 @@
+package com.ronildo.challenge.hotelchallenge.service.availability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityCacheTest {
+
+    private final LocalDate today = LocalDate.of(2021, 8, 15);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AvailabilityCache availabilityCache =
+            new AvailabilityCache(100, Duration.ofMinutes(1), meterRegistry);
+
+    @Test
+    void repeatedChecksAreServedFromTheCache() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertTrue(availabilityCache.isAvailable(today, today.plusDays(2), () -> loads.incrementAndGet() > 0));
+        assertTrue(availabilityCache.isAvailable(today, today.plusDays(2), () -> loads.incrementAndGet() > 0));
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "availability").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(0.5, meterRegistry.get("reservation.availability.cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void invalidateOnlyDropsOverlappingPeriods() {
+        AtomicInteger loads = new AtomicInteger();
+        availabilityCache.isAvailable(today, today.plusDays(2), () -> loads.incrementAndGet() > 0);
+        availabilityCache.isAvailable(today.plusDays(5), today.plusDays(7), () -> loads.incrementAndGet() > 0);
+
+        availabilityCache.invalidate(today.plusDays(2), today.plusDays(3));
+        availabilityCache.isAvailable(today, today.plusDays(2), () -> loads.incrementAndGet() > 0);
+        availabilityCache.isAvailable(today.plusDays(5), today.plusDays(7), () -> loads.incrementAndGet() > 0);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void invalidateKeepsOtherHotels() {
+        AtomicInteger loads = new AtomicInteger();
+        availabilityCache.isAvailable(today, today.plusDays(2), () -> loads.incrementAndGet() > 0);
+
+        availabilityCache.invalidate("other", today, today.plusDays(2));
+        availabilityCache.isAvailable(today, today.plusDays(2), () -> loads.incrementAndGet() > 0);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void answerLoadedDuringAWriteIsNotKept() {
+        AtomicInteger loads = new AtomicInteger();
+
+        availabilityCache.isAvailable(today, today.plusDays(2), () -> {
+            loads.incrementAndGet();
+            availabilityCache.invalidate(today.plusDays(1), today.plusDays(1));
+            return true;
+        });
+        availabilityCache.isAvailable(today, today.plusDays(2), () -> loads.incrementAndGet() > 0);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void answerLoadedDuringAWriteOfOtherWeeksIsKept() {
+        AtomicInteger loads = new AtomicInteger();
+
+        availabilityCache.isAvailable(today, today.plusDays(2), () -> {
+            loads.incrementAndGet();
+            availabilityCache.invalidate(today.plusDays(20), today.plusDays(21));
+            return true;
+        });
+        availabilityCache.isAvailable(today, today.plusDays(2), () -> loads.incrementAndGet() > 0);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void longPeriodsAreInvalidatedByWritesAnywhereInThem() {
+        AtomicInteger loads = new AtomicInteger();
+        availabilityCache.isAvailable(today, today.plusDays(300), () -> loads.incrementAndGet() > 0);
+
+        availabilityCache.invalidate(today.plusDays(290), today.plusDays(291));
+        availabilityCache.isAvailable(today, today.plusDays(300), () -> loads.incrementAndGet() > 0);
+        availabilityCache.invalidate(today.minusYears(5), today.plusYears(5));
+        availabilityCache.isAvailable(today, today.plusDays(300), () -> loads.incrementAndGet() > 0);
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void pruningDropsPastWeeksAndKeepsTheirAnswersStamped() {
+        AtomicInteger loads = new AtomicInteger();
+        availabilityCache.invalidate(today.minusDays(30), today.minusDays(28));
+        availabilityCache.invalidate(today.plusDays(1), today.plusDays(2));
+        availabilityCache.isAvailable(today.minusDays(30), today.plusDays(2), () -> loads.incrementAndGet() > 0);
+
+        availabilityCache.pruneBefore(today);
+        assertEquals(1, availabilityCache.buckets());
+        availabilityCache.isAvailable(today.minusDays(30), today.plusDays(2), () -> loads.incrementAndGet() > 0);
+        availabilityCache.invalidate(today.minusDays(30), today.minusDays(28));
+        availabilityCache.isAvailable(today.minusDays(30), today.plusDays(2), () -> loads.incrementAndGet() > 0);
+
+        assertEquals(2, loads.get());
+    }
+}
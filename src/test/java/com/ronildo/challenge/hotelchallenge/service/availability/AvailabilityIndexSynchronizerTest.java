@@ -0,0 +1,75 @@
+package com.ronildo.challenge.hotelchallenge.service.availability;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.OccupiedDate;
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelShards;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityIndexSynchronizerTest {
+
+    private final ReservationRepository reservationRepository = mock(ReservationRepository.class);
+    private final OccupiedDateRepository occupiedDateRepository = mock(OccupiedDateRepository.class);
+    private final AvailabilityIndex availabilityIndex = new AvailabilityIndex();
+    private final AvailabilityCache availabilityCache =
+            new AvailabilityCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    private final BookingCalendar bookingCalendar = new BookingCalendar();
+    private final AvailabilityIndexSynchronizer synchronizer =
+            new AvailabilityIndexSynchronizer(reservationRepository, occupiedDateRepository,
+                    availabilityIndex, availabilityCache, bookingCalendar,
+                    new TransactionTemplate(mock(PlatformTransactionManager.class)), HotelShards.single());
+
+    private final Reservation stored = new Reservation(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+
+    @Test
+    void loadReadsAllReservations() {
+        when(reservationRepository.findAll()).thenReturn(Collections.singletonList(stored));
+
+        synchronizer.load();
+
+        assertFalse(availabilityIndex.isAvailable(stored.getInitialDate(), stored.getFinalDate(), null));
+        assertFalse(bookingCalendar.isFree(stored.getInitialDate(), stored.getFinalDate()));
+        assertTrue(synchronizer.verifyConsistency());
+        verify(occupiedDateRepository).saveAllAndFlush(OccupiedDate.of(stored));
+    }
+
+    @Test
+    void verifyConsistencyRepairsMissingAndStaleEntries() {
+        Reservation stale = new Reservation(2L, LocalDate.now().plusDays(10), LocalDate.now().plusDays(12));
+        availabilityIndex.load(Collections.singletonList(stale));
+        when(reservationRepository.findAll()).thenReturn(Collections.singletonList(stored));
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(reservationRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertFalse(synchronizer.verifyConsistency());
+
+        assertEquals(Collections.singletonMap(1L, stored), availabilityIndex.snapshot());
+        assertTrue(synchronizer.verifyConsistency());
+    }
+
+    @Test
+    void verifyConsistencyDetectsChangedDates() {
+        Reservation moved = new Reservation(1L, LocalDate.now().plusDays(5), LocalDate.now().plusDays(7));
+        availabilityIndex.load(Collections.singletonList(stored));
+        when(reservationRepository.findAll()).thenReturn(Collections.singletonList(moved));
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(moved));
+
+        assertFalse(synchronizer.verifyConsistency());
+
+        assertTrue(availabilityIndex.isAvailable(stored.getInitialDate(), stored.getFinalDate(), null));
+    }
+}
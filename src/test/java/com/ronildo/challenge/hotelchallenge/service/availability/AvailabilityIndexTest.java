@@ -0,0 +1,112 @@
+package com.ronildo.challenge.hotelchallenge.service.availability;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvailabilityIndexTest {
+
+    private final LocalDate today = LocalDate.of(2021, 8, 15);
+
+    private AvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void setUp() {
+        availabilityIndex = new AvailabilityIndex();
+        availabilityIndex.load(Arrays.asList(
+                new Reservation(1L, today.plusDays(2), today.plusDays(4)),
+                new Reservation(2L, today.plusDays(10), today.plusDays(13))));
+    }
+
+    @Test
+    void overlappingPeriodsAreNotAvailable() {
+        assertFalse(availabilityIndex.isAvailable(today, today.plusDays(2), null));
+        assertFalse(availabilityIndex.isAvailable(today.plusDays(3), today.plusDays(3), null));
+        assertFalse(availabilityIndex.isAvailable(today.plusDays(4), today.plusDays(6), null));
+        assertFalse(availabilityIndex.isAvailable(today.plusDays(12), today.plusDays(20), null));
+        assertFalse(availabilityIndex.isAvailable(today, today.plusDays(30), null));
+    }
+
+    @Test
+    void freePeriodsAreAvailable() {
+        assertTrue(availabilityIndex.isAvailable(today, today.plusDays(1), null));
+        assertTrue(availabilityIndex.isAvailable(today.plusDays(5), today.plusDays(9), null));
+        assertTrue(availabilityIndex.isAvailable(today.plusDays(14), today.plusDays(17), null));
+    }
+
+    @Test
+    void ownReservationIsIgnored() {
+        assertTrue(availabilityIndex.isAvailable(today.plusDays(3), today.plusDays(5), 1L));
+        assertFalse(availabilityIndex.isAvailable(today.plusDays(3), today.plusDays(10), 1L));
+    }
+
+    @Test
+    void removeAllFreesTheirPeriods() {
+        availabilityIndex.removeAll(Arrays.asList(1L, 2L, 3L));
+
+        assertTrue(availabilityIndex.isAvailable(today, today.plusDays(30), null));
+        assertTrue(availabilityIndex.snapshot().isEmpty());
+    }
+
+    @Test
+    void putReplacesPreviousDates() {
+        availabilityIndex.put(new Reservation(1L, today.plusDays(6), today.plusDays(8)));
+
+        assertTrue(availabilityIndex.isAvailable(today.plusDays(2), today.plusDays(4), null));
+        assertFalse(availabilityIndex.isAvailable(today.plusDays(8), today.plusDays(9), null));
+    }
+
+    @Test
+    void removeFreesDates() {
+        availabilityIndex.remove(2L);
+
+        assertTrue(availabilityIndex.isAvailable(today.plusDays(10), today.plusDays(13), null));
+        assertEquals(1, availabilityIndex.snapshot().size());
+    }
+
+    @Test
+    void occupiedDaysAreClippedToThePeriod() {
+        BitSet occupied = availabilityIndex.occupiedDays(today.plusDays(3), today.plusDays(11));
+
+        assertEquals("{0, 1, 7, 8}", occupied.toString());
+    }
+
+    @Test
+    void roomsArePartitioned() {
+        availabilityIndex.put(new Reservation(3L, today.plusDays(2), today.plusDays(4), 10L));
+
+        assertTrue(availabilityIndex.isAvailable(11L, today.plusDays(2), today.plusDays(4), null));
+        assertFalse(availabilityIndex.isAvailable(10L, today.plusDays(4), today.plusDays(6), null));
+        assertTrue(availabilityIndex.isAvailable(10L, today.plusDays(10), today.plusDays(13), null));
+        assertTrue(availabilityIndex.isAvailable(today.plusDays(5), today.plusDays(9), null));
+        assertEquals("{0, 1}", availabilityIndex.occupiedDays(10L, today.plusDays(3), today.plusDays(11)).toString());
+    }
+
+    @Test
+    void movingAReservationToAnotherRoomFreesThePreviousOne() {
+        availabilityIndex.put(new Reservation(1L, today.plusDays(2), today.plusDays(4), 10L));
+
+        assertTrue(availabilityIndex.isAvailable(today.plusDays(2), today.plusDays(4), null));
+        assertFalse(availabilityIndex.isAvailable(10L, today.plusDays(2), today.plusDays(4), null));
+    }
+
+    @Test
+    void findFreeRoomReturnsTheFirstRoomFreeForTheWholePeriod() {
+        availabilityIndex.put(new Reservation(3L, today.plusDays(2), today.plusDays(4), 10L));
+        availabilityIndex.put(new Reservation(4L, today.plusDays(5), today.plusDays(6), 11L));
+
+        assertEquals(Optional.of(12L),
+                availabilityIndex.findFreeRoom(Arrays.asList(10L, 11L, 12L), today.plusDays(4), today.plusDays(5)));
+        assertEquals(Optional.of(11L),
+                availabilityIndex.findFreeRoom(Arrays.asList(10L, 11L, 12L), today.plusDays(3), today.plusDays(4)));
+        assertEquals(Optional.empty(),
+                availabilityIndex.findFreeRoom(Arrays.asList(10L, 11L), today.plusDays(4), today.plusDays(5)));
+    }
+}
@@ -0,0 +1,162 @@
+package com.ronildo.challenge.hotelchallenge.service.availability;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingCalendarTest {
+
+    private final LocalDate today = LocalDate.of(2021, 8, 15);
+
+    private BookingCalendar calendarAt(LocalDate date) {
+        Instant instant = date.atStartOfDay().toInstant(ZoneOffset.UTC);
+        return new BookingCalendar(Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    @Test
+    void coversOnlyTheBookableHorizon() {
+        BookingCalendar calendar = calendarAt(today);
+        calendar.load(Collections.emptyList());
+
+        assertTrue(calendar.covers(today.plusDays(1), today.plusDays(3)));
+        assertTrue(calendar.covers(today.plusDays(28), today.plusDays(31)));
+        assertFalse(calendar.covers(today.minusDays(1), today.plusDays(1)));
+        assertFalse(calendar.covers(today.plusDays(30), today.plusDays(32)));
+    }
+
+    @Test
+    void claimRejectsOverlappingStays() {
+        BookingCalendar calendar = calendarAt(today);
+        calendar.load(Collections.singletonList(new Reservation(1L, today.plusDays(2), today.plusDays(4))));
+
+        assertFalse(calendar.claim(today.plusDays(4), today.plusDays(6)));
+        assertFalse(calendar.claim(today, today.plusDays(2)));
+        assertTrue(calendar.claim(today.plusDays(5), today.plusDays(7)));
+        assertFalse(calendar.isFree(today.plusDays(7), today.plusDays(8)));
+    }
+
+    @Test
+    void moveReleasesThePreviousStay() {
+        BookingCalendar calendar = calendarAt(today);
+        calendar.load(Collections.emptyList());
+        calendar.claim(today.plusDays(2), today.plusDays(4));
+        calendar.claim(today.plusDays(8), today.plusDays(9));
+
+        assertTrue(calendar.move(today.plusDays(2), today.plusDays(4), today.plusDays(3), today.plusDays(5)));
+        assertTrue(calendar.isFree(today.plusDays(2), today.plusDays(2)));
+        assertFalse(calendar.move(today.plusDays(3), today.plusDays(5), today.plusDays(6), today.plusDays(8)));
+        assertFalse(calendar.isFree(today.plusDays(3), today.plusDays(3)));
+
+        calendar.release(today.plusDays(3), today.plusDays(5));
+        assertTrue(calendar.isFree(today, today.plusDays(7)));
+    }
+
+    @Test
+    void everyRoomHasItsOwnDays() {
+        BookingCalendar calendar = calendarAt(today);
+        calendar.load(Collections.singletonList(new Reservation(1L, today.plusDays(2), today.plusDays(4), 7L)));
+
+        assertFalse(calendar.claim(7L, today.plusDays(4), today.plusDays(5)));
+        assertTrue(calendar.claim(8L, today.plusDays(4), today.plusDays(5)));
+        assertTrue(calendar.claim(today.plusDays(2), today.plusDays(4)));
+        assertFalse(calendar.isFree(8L, today.plusDays(5), today.plusDays(6)));
+        assertTrue(calendar.isFree(9L, today, today.plusDays(31)));
+    }
+
+    @Test
+    void moveBetweenRoomsClaimsTheNewRoomFirst() {
+        BookingCalendar calendar = calendarAt(today);
+        calendar.load(Collections.emptyList());
+        calendar.claim(7L, today.plusDays(2), today.plusDays(4));
+        calendar.claim(8L, today.plusDays(6), today.plusDays(6));
+
+        assertFalse(calendar.move(7L, today.plusDays(2), today.plusDays(4), 8L, today.plusDays(5), today.plusDays(6)));
+        assertFalse(calendar.isFree(7L, today.plusDays(2), today.plusDays(2)));
+
+        assertTrue(calendar.move(7L, today.plusDays(2), today.plusDays(4), null, today.plusDays(2), today.plusDays(4)));
+        assertTrue(calendar.isFree(7L, today, today.plusDays(31)));
+        assertFalse(calendar.isFree(today.plusDays(3), today.plusDays(3)));
+    }
+
+    @Test
+    void pastDaysDropOutOfTheWindow() {
+        MutableClock clock = new MutableClock(today);
+        BookingCalendar calendar = new BookingCalendar(clock);
+        calendar.load(Collections.singletonList(new Reservation(1L, today.plusDays(1), today.plusDays(3))));
+
+        clock.date = today.plusDays(2);
+        assertFalse(calendar.isFree(today.plusDays(3), today.plusDays(3)));
+        assertTrue(calendar.claim(today.plusDays(4), today.plusDays(5)));
+
+        clock.date = today.plusDays(40);
+        assertTrue(calendar.isFree(today.plusDays(40), today.plusDays(71)));
+        assertTrue(calendar.claim(today.plusDays(68), today.plusDays(69)));
+    }
+
+    @Test
+    void concurrentClaimsForTheSameDatesSucceedOnce() throws Exception {
+        BookingCalendar calendar = calendarAt(today);
+        calendar.load(Collections.emptyList());
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            LocalDate initialDate = today.plusDays(1 + i % 3);
+            results.add(executor.submit(() -> {
+                start.await();
+                return calendar.claim(initialDate, initialDate.plusDays(2));
+            }));
+        }
+        start.countDown();
+
+        int claimed = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                claimed++;
+            }
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, claimed);
+    }
+
+    private static class MutableClock extends Clock {
+
+        LocalDate date;
+
+        MutableClock(LocalDate date) {
+            this.date = date;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return date.atStartOfDay().toInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ronildo.challenge.hotelchallenge.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ronildo.challenge.hotelchallenge.exception.IdempotencyKeyInUseException;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotentRequestsTest {
+
+    private final IdempotentRequests idempotentRequests = new IdempotentRequests(
+            new InMemoryIdempotencyStore(10, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+            new ObjectMapper().registerModule(new JavaTimeModule()));
+
+    private final ReservationDTO reservation =
+            new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private ResponseEntity<ReservationDTO> create() {
+        executions.incrementAndGet();
+        return ResponseEntity.ok(new ReservationDTO(1L, reservation.getInitialDate(), reservation.getFinalDate()));
+    }
+
+    @Test
+    void requestsWithoutKeyAlwaysRun() {
+        idempotentRequests.execute(null, "POST", reservation, ReservationDTO.class, this::create);
+        idempotentRequests.execute(null, "POST", reservation, ReservationDTO.class, this::create);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void retryWhileRunningIsRejected() {
+        assertThrows(IdempotencyKeyInUseException.class, () ->
+                idempotentRequests.execute("key", "POST", reservation, ReservationDTO.class, () ->
+                        idempotentRequests.execute("key", "POST", reservation, ReservationDTO.class, this::create)));
+
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void errorsReleaseTheKey() {
+        assertThrows(StackOverflowError.class, () ->
+                idempotentRequests.execute("key", "POST", reservation, ReservationDTO.class, () -> {
+                    throw new StackOverflowError();
+                }));
+        idempotentRequests.execute("key", "POST", reservation, ReservationDTO.class, this::create);
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void requestsWhoseResponseIsNotStoredKeepTheKey() {
+        AtomicInteger failures = new AtomicInteger(1);
+        IdempotentRequests failingStore = new IdempotentRequests(
+                new InMemoryIdempotencyStore(10, Duration.ofMinutes(1), new SimpleMeterRegistry()) {
+                    @Override
+                    public void complete(String key, int status, String location, String body) {
+                        if (failures.getAndDecrement() > 0) {
+                            throw new IllegalStateException("store unavailable");
+                        }
+                        super.complete(key, status, location, body);
+                    }
+                },
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        assertThrows(IllegalStateException.class, () ->
+                failingStore.execute("key", "POST", reservation, ReservationDTO.class, this::create));
+        assertThrows(IdempotencyKeyInUseException.class, () ->
+                failingStore.execute("key", "POST", reservation, ReservationDTO.class, this::create));
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void evictedRequestsRunAgain() {
+        IdempotentRequests shortLived = new IdempotentRequests(
+                new InMemoryIdempotencyStore(10, Duration.ZERO, new SimpleMeterRegistry()),
+                new ObjectMapper().registerModule(new JavaTimeModule()));
+
+        shortLived.execute("key", "POST", reservation, ReservationDTO.class, this::create);
+        shortLived.execute("key", "POST", reservation, ReservationDTO.class, this::create);
+
+        assertEquals(2, executions.get());
+    }
+}
@@ -0,0 +1,113 @@
+package com.ronildo.challenge.hotelchallenge.service.idempotency;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.IdempotentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ronildo.challenge.hotelchallenge.data.repository.IdempotentRequestRepository;
+import com.ronildo.challenge.hotelchallenge.data.shard.HotelShards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.Duration;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "reservation.idempotency.store=jpa")
+class JpaIdempotencyStoreTest {
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
+    @Autowired
+    IdempotentRequestRepository idempotentRequestRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    HotelShards hotelShards;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clearRequests() {
+        idempotentRequestRepository.deleteAll();
+    }
+
+    @Test
+    void storeIsSelectedByProperty() {
+        assertTrue(idempotencyStore instanceof JpaIdempotencyStore);
+    }
+
+    @Test
+    void startedRequestIsCompletedAndFound() {
+        assertEquals(Optional.empty(), idempotencyStore.start("key", "POST abc"));
+
+        IdempotentRequest running = idempotencyStore.start("key", "POST abc").get();
+        assertFalse(running.isCompleted());
+
+        idempotencyStore.complete("key", 201, "http://localhost/api/reservations/1", "{\"id\":1}");
+        IdempotentRequest completed = idempotencyStore.start("key", "POST abc").get();
+        assertEquals(201, completed.getStatus());
+        assertEquals("{\"id\":1}", completed.getBody());
+    }
+
+    @Test
+    void releasedRequestCanStartAgain() {
+        idempotencyStore.start("key", "POST abc");
+        idempotencyStore.release("key");
+
+        assertEquals(Optional.empty(), idempotencyStore.start("key", "POST abc"));
+    }
+
+    @Test
+    void releasingAnUnknownRequestIsIgnored() {
+        idempotencyStore.release("unknown");
+
+        assertEquals(0, idempotentRequestRepository.count());
+    }
+
+    @Test
+    void responseIsStoredInTheTransactionOfTheWrite() {
+        JpaIdempotencyStore failingStore = new JpaIdempotencyStore(idempotentRequestRepository, entityManager,
+                transactionTemplate, hotelShards, Duration.ofHours(1)) {
+            @Override
+            public void complete(String key, int status, String location, String body) {
+                throw new IllegalStateException("store unavailable");
+            }
+        };
+        IdempotentRequests requests = new IdempotentRequests(failingStore, objectMapper, transactionTemplate);
+
+        assertThrows(IllegalStateException.class, () ->
+                requests.execute("key", "POST", "abc", String.class, () -> {
+                    idempotentRequestRepository.save(IdempotentRequest.started("write", "POST def"));
+                    return ResponseEntity.ok("done");
+                }));
+
+        assertFalse(idempotentRequestRepository.existsById("write"));
+        assertFalse(idempotentRequestRepository.existsById("key"));
+    }
+
+    @Test
+    void expiredRequestsAreIgnoredAndPurged() {
+        idempotentRequestRepository.save(new IdempotentRequest("old", "POST abc", 201, null, "{}",
+                LocalDateTime.now().minusDays(2)));
+        idempotentRequestRepository.save(new IdempotentRequest("older", "POST abc", 201, null, "{}",
+                LocalDateTime.now().minusDays(3)));
+
+        assertEquals(Optional.empty(), idempotencyStore.start("old", "POST def"));
+        assertEquals(1, ((JpaIdempotencyStore) idempotencyStore).purgeExpired());
+        assertEquals(1, idempotentRequestRepository.count());
+    }
+}
@@ -0,0 +1,466 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ronildo.challenge.hotelchallenge.HotelChallengeApplication;
+import com.ronildo.challenge.hotelchallenge.data.entity.Room;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomRepository;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationModifiedException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationEventService;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityCache;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.availability.BookingCalendar;
+import com.ronildo.challenge.hotelchallenge.service.dto.AvailabilityCalendarDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO.Status;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.SuggestedStayDTO;
+import com.ronildo.challenge.hotelchallenge.service.json.JsonBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.ronildo.challenge.hotelchallenge.data.shard.HotelContext.DEFAULT_HOTEL;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = {
+        "reservation.persistence=journal",
+        "reservation.journal.directory=target/journal-${random.uuid}",
+        "reservation.journal.segment-size=65536"})
+class JournalReservationServiceTest {
+
+    @MockBean
+    RoomRepository roomRepository;
+
+    @Autowired
+    IReservationService reservationService;
+
+    @Autowired
+    JournalReservationService journalReservationService;
+
+    @Autowired
+    AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    AvailabilityCache availabilityCache;
+
+    @Autowired
+    BookingCalendar bookingCalendar;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    ObjectProvider<IReservationEventService> reservationEventService;
+
+    @BeforeEach
+    void clearReservations() {
+        reservationService.listAllReservations().forEach(reservation -> reservationService.deleteReservation(reservation.getId()));
+        availabilityIndex.load(Collections.emptyList());
+        bookingCalendar.load(Collections.emptyList());
+        availabilityCache.invalidateAll();
+    }
+
+    private ReservationDTO store(int fromDay, int toDay) {
+        return store(fromDay, toDay, null);
+    }
+
+    private ReservationDTO store(int fromDay, int toDay, Long roomId) {
+        if (roomId != null) {
+            when(roomRepository.existsByIdAndHotelId(roomId, DEFAULT_HOTEL)).thenReturn(true);
+        }
+        return reservationService.createReservation(
+                new ReservationDTO(null, LocalDate.now().plusDays(fromDay), LocalDate.now().plusDays(toDay), roomId));
+    }
+
+    private static SuggestedStayDTO stay(int fromDay, int toDay) {
+        return new SuggestedStayDTO(LocalDate.now().plusDays(fromDay), LocalDate.now().plusDays(toDay), null);
+    }
+
+    @Test
+    void isTheReservationService() {
+        assertSame(journalReservationService, reservationService);
+    }
+
+    @Test
+    void changeFeedIsNotAvailable() {
+        assertNull(reservationEventService.getIfAvailable());
+    }
+
+    @Test
+    void sequencedWritesFailTheStartup() {
+        SpringApplicationBuilder application = new SpringApplicationBuilder(HotelChallengeApplication.class).properties(
+                "reservation.persistence=journal",
+                "reservation.writes.mode=sequenced",
+                "reservation.journal.directory=target/journal-" + UUID.randomUUID(),
+                "server.port=0");
+
+        Exception failure = assertThrows(Exception.class, application::run);
+        assertTrue(NestedExceptionUtils.getMostSpecificCause(failure).getMessage()
+                .contains("requires reservation.writes.mode=direct"));
+    }
+
+    @Test
+    void listAllReservations() {
+        List<ReservationDTO> expected = Arrays.asList(store(0, 0), store(3, 7, 4L), store(9, 10));
+
+        assertEquals(expected, reservationService.listAllReservations());
+    }
+
+    @Test
+    void listAllReservationsAsJson() throws Exception {
+        List<ReservationDTO> expected = Arrays.asList(store(0, 0), store(3, 5, 4L));
+
+        try (JsonBuffer json = reservationService.listAllReservationsAsJson()) {
+            assertEquals(objectMapper.writeValueAsString(expected), json.toString());
+        }
+    }
+
+    @Test
+    void listReservationsPage() {
+        ReservationDTO first = store(1, 1);
+        ReservationDTO second = store(3, 5);
+        ReservationDTO third = store(7, 8);
+        store(10, 11);
+
+        assertEquals(Arrays.asList(second, third), reservationService.listReservations(
+                first.getId(), LocalDate.now().plusDays(2), null, 2));
+        assertEquals(Collections.singletonList(second), reservationService.listReservations(
+                null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(6), 2));
+    }
+
+    @Test
+    void streamReservations() {
+        List<ReservationDTO> expected = Arrays.asList(store(1, 2), store(3, 5));
+
+        List<ReservationDTO> found = new ArrayList<>();
+        reservationService.streamReservations(null, null, found::add);
+
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void findOneById() {
+        ReservationDTO expected = store(1, 2);
+
+        assertEquals(expected, reservationService.findOneById(expected.getId()));
+        Throwable exception = assertThrows(ReservationNotFoundException.class,
+                () -> reservationService.findOneById(expected.getId() + 1));
+        assertEquals("Could not find reservation " + (expected.getId() + 1), exception.getMessage());
+    }
+
+    @Test
+    void findVersionById() {
+        ReservationDTO created = store(1, 2);
+        assertEquals(0L, reservationService.findVersionById(created.getId()));
+
+        reservationService.updateReservation(created.getId(),
+                new ReservationDTO(null, LocalDate.now().plusDays(3), LocalDate.now().plusDays(4)));
+
+        assertEquals(1L, reservationService.findVersionById(created.getId()));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.findVersionById(created.getId() + 1));
+    }
+
+    @Test
+    void findAllReservationsVersion() {
+        assertEquals("0-0-0", reservationService.findAllReservationsVersion());
+
+        store(1, 2);
+        ReservationDTO last = store(3, 4);
+        reservationService.updateReservation(last.getId(),
+                new ReservationDTO(null, LocalDate.now().plusDays(5), LocalDate.now().plusDays(6)));
+
+        assertEquals("2-" + last.getId() + "-1", reservationService.findAllReservationsVersion());
+    }
+
+    @Test
+    void checkAvailabilityInvalidatedByCreate() {
+        LocalDate initialDate = LocalDate.now().plusDays(2);
+
+        assertEquals(Boolean.TRUE, reservationService.checkAvailability(initialDate, initialDate.plusDays(1), null));
+
+        reservationService.createReservation(new ReservationDTO(null, initialDate.plusDays(1), initialDate.plusDays(3)));
+
+        assertEquals(Boolean.FALSE, reservationService.checkAvailability(initialDate, initialDate.plusDays(1), null));
+    }
+
+    @Test
+    void createReservationsReportsEachItem() {
+        LocalDate today = LocalDate.now();
+        store(10, 11);
+        List<ReservationDTO> batch = Arrays.asList(
+                new ReservationDTO(null, today.plusDays(1), today.plusDays(2)),
+                new ReservationDTO(null, today.plusDays(2), today.plusDays(3)),
+                new ReservationDTO(null, today.plusDays(11), today.plusDays(12)),
+                new ReservationDTO(null, today.plusDays(5), today.plusDays(9)),
+                new ReservationDTO(null, null, today.plusDays(6)),
+                new ReservationDTO(null, today.plusDays(5), today.plusDays(6)));
+
+        List<BulkReservationResultDTO> results = reservationService.createReservations(batch);
+
+        Long firstId = results.get(0).getReservation().getId();
+        assertEquals(new BulkReservationResultDTO(0, Status.CREATED,
+                new ReservationDTO(firstId, today.plusDays(1), today.plusDays(2), null, 0L), null), results.get(0));
+        assertEquals(new BulkReservationResultDTO(1, Status.CONFLICT, batch.get(1),
+                "The dates overlap a previous reservation of the batch"), results.get(1));
+        assertEquals(new BulkReservationResultDTO(2, Status.CONFLICT, batch.get(2),
+                "Dates are not available for reservation"), results.get(2));
+        assertEquals(new BulkReservationResultDTO(3, Status.INVALID, batch.get(3),
+                "The stay can’t be longer than 3 days"), results.get(3));
+        assertEquals(new BulkReservationResultDTO(4, Status.INVALID, batch.get(4),
+                "initialDate is mandatory"), results.get(4));
+        assertEquals(new BulkReservationResultDTO(5, Status.CREATED,
+                new ReservationDTO(firstId + 1, today.plusDays(5), today.plusDays(6), null, 0L), null), results.get(5));
+        assertFalse(reservationService.checkAvailability(today.plusDays(5), today.plusDays(6), null));
+        assertEquals(3, reservationService.listAllReservations().size());
+    }
+
+    @Test
+    void createReservationsChecksConflictsPerRoom() {
+        LocalDate today = LocalDate.now();
+        List<ReservationDTO> batch = Arrays.asList(
+                new ReservationDTO(null, today.plusDays(1), today.plusDays(2)),
+                new ReservationDTO(null, today.plusDays(1), today.plusDays(2), 7L),
+                new ReservationDTO(null, today.plusDays(2), today.plusDays(3), 7L),
+                new ReservationDTO(null, today.plusDays(1), today.plusDays(2), 8L));
+
+        when(roomRepository.findByHotelIdAndIdIn(eq(DEFAULT_HOTEL), any()))
+                .thenReturn(Collections.singletonList(new Room(7L, "101", 1L)));
+
+        List<Status> statuses = new ArrayList<>();
+        reservationService.createReservations(batch).forEach(result -> statuses.add(result.getStatus()));
+
+        assertEquals(Arrays.asList(Status.CREATED, Status.CREATED, Status.CONFLICT, Status.INVALID), statuses);
+        assertFalse(bookingCalendar.isFree(today.plusDays(1), today.plusDays(2)));
+        assertFalse(availabilityIndex.isAvailable(7L, today.plusDays(1), today.plusDays(2), null));
+    }
+
+    @Test
+    void availabilityCalendar() {
+        LocalDate today = LocalDate.now();
+        store(3, 5);
+        store(8, 9);
+
+        AvailabilityCalendarDTO calendar = reservationService.getAvailabilityCalendar(today, today.plusDays(10));
+
+        assertEquals("00011100110", calendar.getOccupancy());
+        assertEquals("01000010001", calendar.getBookableStarts());
+    }
+
+    @Test
+    void createReservationSuccess() {
+        ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
+
+        ReservationDTO found = reservationService.createReservation(input);
+
+        assertNotNull(found.getId());
+        assertEquals(input.getInitialDate(), found.getInitialDate());
+        assertEquals(input.getFinalDate(), found.getFinalDate());
+        assertFalse(availabilityIndex.isAvailable(input.getInitialDate(), input.getFinalDate(), null));
+        assertFalse(bookingCalendar.isFree(input.getInitialDate(), input.getFinalDate()));
+    }
+
+    @Test
+    void createReservationNotAvailableDatesSuggestsNearestStays() {
+        store(2, 4);
+
+        DatesNotAvailableForReservationException exception = assertThrows(DatesNotAvailableForReservationException.class,
+                () -> reservationService.createReservation(
+                        new ReservationDTO(null, LocalDate.now().plusDays(3), LocalDate.now().plusDays(4))));
+
+        assertEquals("Dates are not available for reservation", exception.getMessage());
+        assertEquals(Arrays.asList(stay(5, 6), stay(6, 7), stay(7, 8)), exception.getSuggestions());
+        assertEquals(1, reservationService.listAllReservations().size());
+    }
+
+    @Test
+    void createReservationInARoom() {
+        store(2, 4);
+        store(2, 4, 8L);
+        when(roomRepository.existsByIdAndHotelId(7L, DEFAULT_HOTEL)).thenReturn(true);
+        ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4), 7L);
+
+        ReservationDTO found = reservationService.createReservation(input);
+
+        assertEquals(7L, found.getRoomId());
+        assertFalse(availabilityIndex.isAvailable(7L, input.getInitialDate(), input.getFinalDate(), null));
+    }
+
+    @Test
+    void createReservationInARoomNotAvailableDates() {
+        store(4, 6, 7L);
+        ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4), 7L);
+
+        assertThrows(DatesNotAvailableForReservationException.class,
+                () -> reservationService.createReservation(input));
+        assertTrue(bookingCalendar.isFree(input.getInitialDate(), input.getFinalDate()));
+    }
+
+    @Test
+    void createReservationInAnUnknownRoom() {
+        ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4), 7L);
+
+        Throwable exception = assertThrows(RoomNotFoundException.class,
+                () -> reservationService.createReservation(input));
+
+        assertEquals("Could not find room 7", exception.getMessage());
+    }
+
+    @Test
+    void updateReservationSuccess() {
+        ReservationDTO stored = store(3, 5);
+        ReservationDTO input = new ReservationDTO(stored.getId(), LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
+
+        ReservationDTO found = reservationService.updateReservation(input.getId(), input);
+
+        assertEquals(input.getId(), found.getId());
+        assertEquals(input.getInitialDate(), found.getInitialDate());
+        assertEquals(input.getFinalDate(), found.getFinalDate());
+        assertEquals(1L, found.getVersion());
+        assertTrue(bookingCalendar.isFree(LocalDate.now().plusDays(5), LocalDate.now().plusDays(5)));
+        assertEquals(found, reservationService.findOneById(stored.getId()));
+    }
+
+    @Test
+    void updateReservationOfAnotherVersion() {
+        ReservationDTO stored = store(3, 5);
+        reservationService.updateReservation(stored.getId(), stored);
+        ReservationDTO input = new ReservationDTO(stored.getId(), LocalDate.now().plusDays(2),
+                LocalDate.now().plusDays(4), null, 0L);
+
+        assertThrows(ReservationModifiedException.class, () -> reservationService.updateReservation(stored.getId(), input));
+        assertFalse(bookingCalendar.isFree(stored.getInitialDate(), stored.getFinalDate()));
+    }
+
+    @Test
+    void updateReservationMovesItToARoom() {
+        ReservationDTO stored = store(3, 5);
+        when(roomRepository.existsByIdAndHotelId(7L, DEFAULT_HOTEL)).thenReturn(true);
+        ReservationDTO input = new ReservationDTO(stored.getId(), stored.getInitialDate(), stored.getFinalDate(), 7L);
+
+        ReservationDTO found = reservationService.updateReservation(input.getId(), input);
+
+        assertEquals(7L, found.getRoomId());
+        assertTrue(bookingCalendar.isFree(input.getInitialDate(), input.getFinalDate()));
+        assertTrue(availabilityIndex.isAvailable(input.getInitialDate(), input.getFinalDate(), null));
+        assertFalse(availabilityIndex.isAvailable(7L, input.getInitialDate(), input.getFinalDate(), null));
+    }
+
+    @Test
+    void updateReservationDatesNotAvailable() {
+        ReservationDTO stored = store(5, 6);
+        store(1, 2);
+        ReservationDTO input = new ReservationDTO(stored.getId(), LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
+
+        Throwable exception = assertThrows(DatesNotAvailableForReservationException.class,
+                () -> reservationService.updateReservation(input.getId(), input));
+
+        assertEquals("Dates are not available for reservation", exception.getMessage());
+        assertEquals(stored, reservationService.findOneById(stored.getId()));
+    }
+
+    @Test
+    void updateReservationNotFound() {
+        ReservationDTO input = new ReservationDTO(4L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
+
+        Throwable exception = assertThrows(ReservationNotFoundException.class,
+                () -> reservationService.updateReservation(input.getId(), input));
+
+        assertEquals("Could not find reservation " + input.getId(), exception.getMessage());
+    }
+
+    @Test
+    void deleteReservationSuccess() {
+        ReservationDTO stored = store(2, 4);
+
+        reservationService.deleteReservation(stored.getId());
+
+        assertTrue(availabilityIndex.isAvailable(stored.getInitialDate(), stored.getFinalDate(), null));
+        assertTrue(bookingCalendar.isFree(stored.getInitialDate(), stored.getFinalDate()));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.findOneById(stored.getId()));
+    }
+
+    @Test
+    void deleteReservationNotFound() {
+        Throwable exception = assertThrows(ReservationNotFoundException.class,
+                () -> reservationService.deleteReservation(4L));
+
+        assertEquals("Could not find reservation 4", exception.getMessage());
+    }
+
+    @Test
+    void recoversFromTheLatestSnapshotAndTheJournalAfterIt() throws Exception {
+        ReservationDTO updated = store(1, 2);
+        ReservationDTO deleted = store(3, 4);
+        ReservationDTO kept = store(5, 6, 7L);
+        journalReservationService.snapshot();
+        updated = reservationService.updateReservation(updated.getId(),
+                new ReservationDTO(null, LocalDate.now().plusDays(8), LocalDate.now().plusDays(9)));
+        reservationService.deleteReservation(deleted.getId());
+        ReservationDTO created = store(11, 12);
+        List<ReservationDTO> before = reservationService.listAllReservations();
+
+        journalReservationService.close();
+        availabilityIndex.load(Collections.emptyList());
+        bookingCalendar.load(Collections.emptyList());
+        journalReservationService.open();
+
+        assertEquals(Arrays.asList(updated, kept, created), before);
+        assertEquals(before, reservationService.listAllReservations());
+        assertFalse(bookingCalendar.isFree(updated.getInitialDate(), updated.getFinalDate()));
+        assertFalse(availabilityIndex.isAvailable(7L, kept.getInitialDate(), kept.getFinalDate(), null));
+        assertTrue(reservationService.checkAvailability(deleted.getInitialDate(), deleted.getFinalDate(), null));
+        assertTrue(store(1, 2).getId() > created.getId());
+    }
+
+    @Test
+    void concurrentCreatesNeverDoubleBook() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int day = 1 + i % 20;
+            attempts.add(executor.submit(() -> {
+                try {
+                    reservationService.createReservation(new ReservationDTO(null,
+                            LocalDate.now().plusDays(day), LocalDate.now().plusDays(day + 1)));
+                    return true;
+                } catch (DatesNotAvailableForReservationException e) {
+                    return false;
+                }
+            }));
+        }
+        int created = 0;
+        for (Future<Boolean> attempt : attempts) {
+            created += attempt.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        executor.shutdown();
+
+        List<ReservationDTO> reservations = reservationService.listAllReservations();
+        assertEquals(created, reservations.size());
+        BitSet days = new BitSet();
+        for (ReservationDTO reservation : reservations) {
+            int first = (int) (reservation.getInitialDate().toEpochDay() - LocalDate.now().toEpochDay());
+            int last = first + 1;
+            assertFalse(days.get(first) || days.get(last), "Double booked " + reservation);
+            days.set(first, last + 1);
+        }
+    }
+}
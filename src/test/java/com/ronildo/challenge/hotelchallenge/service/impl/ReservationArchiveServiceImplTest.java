@@ -0,0 +1,166 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.OccupiedDate;
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import com.ronildo.challenge.hotelchallenge.data.repository.ArchivedReservationRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationEventRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationArchiveService;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndexSynchronizer;
+import com.ronildo.challenge.hotelchallenge.service.dto.ArchivedReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "reservation.archive.batch-size=2")
+class ReservationArchiveServiceImplTest {
+
+    @Autowired
+    IReservationArchiveService reservationArchiveService;
+
+    @Autowired
+    IReservationService reservationService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    OccupiedDateRepository occupiedDateRepository;
+
+    @Autowired
+    ArchivedReservationRepository archivedReservationRepository;
+
+    @Autowired
+    ReservationEventRepository reservationEventRepository;
+
+    @Autowired
+    AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    AvailabilityIndexSynchronizer availabilityIndexSynchronizer;
+
+    @BeforeEach
+    void clearReservations() {
+        occupiedDateRepository.deleteAll();
+        reservationRepository.deleteAll();
+        archivedReservationRepository.deleteAll();
+        availabilityIndexSynchronizer.load();
+    }
+
+    private List<Long> storeCompletedStays(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate initialDate = LocalDate.now().minusDays(4L * (i + 1));
+            Reservation reservation = reservationRepository.save(
+                    new Reservation(null, initialDate, initialDate.plusDays(2)));
+            occupiedDateRepository.saveAll(OccupiedDate.of(reservation));
+            ids.add(reservation.getId());
+        }
+        availabilityIndexSynchronizer.load();
+        return ids;
+    }
+
+    @Test
+    void archiveMovesCompletedStaysInBatches() {
+        List<Long> completed = storeCompletedStays(5);
+        ReservationDTO upcoming = reservationService.createReservation(
+                new ReservationDTO(null, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)));
+        Reservation endingToday = reservationRepository.save(
+                new Reservation(null, LocalDate.now().minusDays(1), LocalDate.now()));
+
+        assertEquals(5, reservationArchiveService.archiveCompletedReservations());
+
+        assertEquals(completed, reservationArchiveService.listArchivedReservations(null, null, null, 10).stream()
+                .map(ArchivedReservationDTO::getId)
+                .collect(Collectors.toList()));
+        assertEquals(2, reservationRepository.count());
+        assertTrue(reservationRepository.existsById(upcoming.getId()));
+        assertTrue(reservationRepository.existsById(endingToday.getId()));
+        assertEquals(2, occupiedDateRepository.count());
+        assertTrue(availabilityIndex.snapshot().keySet().stream().noneMatch(completed::contains));
+        assertEquals(0, reservationArchiveService.archiveCompletedReservations());
+    }
+
+    @Test
+    void archiveWritesAnEventPerStay() {
+        List<Long> completed = storeCompletedStays(3);
+
+        reservationArchiveService.archiveCompletedReservations();
+
+        List<Long> archived = new ArrayList<>();
+        reservationEventRepository.findAll().forEach(event -> {
+            if (completed.contains(event.getReservationId())) {
+                assertEquals(ReservationEvent.Type.ARCHIVED, event.getType());
+                archived.add(event.getReservationId());
+            }
+        });
+        assertEquals(completed, archived.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void listArchivedReservationsPagesByIdAndPeriod() {
+        List<Long> completed = storeCompletedStays(3);
+        reservationArchiveService.archiveCompletedReservations();
+
+        List<ArchivedReservationDTO> page = reservationArchiveService.listArchivedReservations(
+                completed.get(0), null, null, 1);
+        assertEquals(1, page.size());
+        assertEquals(completed.get(1), page.get(0).getId());
+        assertNotNull(page.get(0).getArchivedAt());
+
+        LocalDate lastWeek = LocalDate.now().minusDays(7);
+        assertEquals(completed.subList(0, 2), reservationArchiveService.listArchivedReservations(
+                null, lastWeek, null, 10).stream()
+                .map(ArchivedReservationDTO::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void findArchivedById() {
+        Long id = storeCompletedStays(1).get(0);
+        reservationArchiveService.archiveCompletedReservations();
+
+        ArchivedReservationDTO archived = reservationArchiveService.findArchivedById(id);
+
+        assertEquals(LocalDate.now().minusDays(4), archived.getInitialDate());
+        assertEquals(LocalDate.now().minusDays(2), archived.getFinalDate());
+        assertThrows(ReservationNotFoundException.class, () -> reservationArchiveService.findArchivedById(id + 1));
+    }
+
+    @Test
+    void liveCreatesProceedWhileArchiving() throws Exception {
+        storeCompletedStays(20);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> archived = executor.submit(reservationArchiveService::archiveCompletedReservations);
+            for (int day = 1; day <= 20; day++) {
+                LocalDate date = LocalDate.now().plusDays(day);
+                reservationService.createReservation(new ReservationDTO(null, date, date));
+            }
+
+            assertEquals(20, archived.get(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(20, reservationRepository.count());
+        assertEquals(20, archivedReservationRepository.count());
+    }
+}
@@ -0,0 +1,192 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.Room;
+import com.ronildo.challenge.hotelchallenge.data.entity.RoomType;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomTypeRepository;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndexSynchronizer;
+import com.ronildo.challenge.hotelchallenge.service.availability.BookingCalendar;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO.Status;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+
+@SpringBootTest
+class ReservationConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+
+    @Autowired
+    IReservationService reservationService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    OccupiedDateRepository occupiedDateRepository;
+
+    @Autowired
+    RoomTypeRepository roomTypeRepository;
+
+    @Autowired
+    RoomRepository roomRepository;
+
+    @Autowired
+    AvailabilityIndexSynchronizer availabilityIndexSynchronizer;
+
+    @SpyBean
+    BookingCalendar bookingCalendar;
+
+    @BeforeEach
+    void clearReservations() {
+        occupiedDateRepository.deleteAll();
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        roomTypeRepository.deleteAll();
+        availabilityIndexSynchronizer.load();
+    }
+
+    @Test
+    void concurrentCreatesNeverDoubleBook() throws Exception {
+        int created = createConcurrently();
+
+        assertNoDoubleBookings(created);
+    }
+
+    @Test
+    void databaseRejectsDoubleBookingsWithoutTheCalendar() throws Exception {
+        doReturn(false).when(bookingCalendar).covers(any(), any());
+
+        int created = createConcurrently();
+
+        assertNoDoubleBookings(created);
+    }
+
+    @Test
+    void concurrentBulkImportsNeverDoubleBook() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Long>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                List<ReservationDTO> batch = new ArrayList<>();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    LocalDate initialDate = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 28));
+                    LocalDate finalDate = initialDate.plusDays(ThreadLocalRandom.current().nextInt(1, 4));
+                    batch.add(new ReservationDTO(null, initialDate, finalDate));
+                }
+                start.await();
+                try {
+                    return reservationService.createReservations(batch).stream()
+                            .filter(result -> result.getStatus() == Status.CREATED)
+                            .count();
+                } catch (DatesNotAvailableForReservationException e) {
+                    return 0L;
+                }
+            }));
+        }
+        start.countDown();
+
+        long created = 0;
+        for (Future<Long> result : results) {
+            created += result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertNoDoubleBookings((int) created);
+    }
+
+    @Test
+    void concurrentRoomBookingsNeverDoubleBookARoom() throws Exception {
+        RoomType roomType = roomTypeRepository.save(new RoomType(null, "Double"));
+        List<Long> rooms = Arrays.asList(
+                roomRepository.save(new Room(null, "101", roomType.getId())).getId(),
+                roomRepository.save(new Room(null, "102", roomType.getId())).getId(),
+                null);
+
+        int created = createConcurrently(rooms);
+
+        assertNoDoubleBookings(created);
+    }
+
+    private int createConcurrently() throws Exception {
+        return createConcurrently(null);
+    }
+
+    private int createConcurrently(List<Long> rooms) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                int created = 0;
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    LocalDate initialDate = LocalDate.now().plusDays(ThreadLocalRandom.current().nextInt(1, 28));
+                    LocalDate finalDate = initialDate.plusDays(ThreadLocalRandom.current().nextInt(1, 4));
+                    try {
+                        Long roomId = rooms == null ? null : rooms.get(ThreadLocalRandom.current().nextInt(rooms.size()));
+                        reservationService.createReservation(new ReservationDTO(null, initialDate, finalDate, roomId));
+                        created++;
+                    } catch (DatesNotAvailableForReservationException e) {
+                        // expected under contention
+                    }
+                }
+                return created;
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<Integer> result : results) {
+            created += result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        return created;
+    }
+
+    private void assertNoDoubleBookings(int created) {
+        List<Reservation> stored = new ArrayList<>();
+        reservationRepository.findAll().forEach(stored::add);
+        stored.sort(Comparator.comparing(Reservation::getRoomId, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(Reservation::getInitialDate));
+
+        assertTrue(created > 0);
+        assertEquals(created, stored.size());
+        for (int i = 1; i < stored.size(); i++) {
+            if (!Objects.equals(stored.get(i - 1).getRoomId(), stored.get(i).getRoomId())) {
+                continue;
+            }
+            assertTrue(stored.get(i - 1).getFinalDate().isBefore(stored.get(i).getInitialDate()),
+                    "Double booking: " + stored.get(i - 1) + " and " + stored.get(i));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationEventRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationEventService;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndexSynchronizer;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationEventDTO;
+import com.ronildo.challenge.hotelchallenge.service.events.ReservationOutbox;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "reservation.events.gap-timeout=PT1S")
+class ReservationEventServiceImplTest {
+
+    @Autowired
+    IReservationEventService reservationEventService;
+
+    @Autowired
+    ReservationEventServiceImpl reservationEventServiceImpl;
+
+    @Autowired
+    IReservationService reservationService;
+
+    @Autowired
+    ReservationOutbox reservationOutbox;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    OccupiedDateRepository occupiedDateRepository;
+
+    @Autowired
+    ReservationEventRepository reservationEventRepository;
+
+    @Autowired
+    AvailabilityIndexSynchronizer availabilityIndexSynchronizer;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private long start;
+
+    @BeforeEach
+    void clearReservations() {
+        occupiedDateRepository.deleteAll();
+        reservationRepository.deleteAll();
+        availabilityIndexSynchronizer.load();
+        start = reservationOutbox.committedSequence();
+    }
+
+    private ReservationDTO create(int fromDay, int toDay) {
+        return reservationService.createReservation(
+                new ReservationDTO(null, LocalDate.now().plusDays(fromDay), LocalDate.now().plusDays(toDay)));
+    }
+
+    @Test
+    void writesAreListedInOrder() {
+        ReservationDTO created = create(1, 2);
+        reservationService.updateReservation(created.getId(),
+                new ReservationDTO(null, LocalDate.now().plusDays(3), LocalDate.now().plusDays(4)));
+        reservationService.deleteReservation(created.getId());
+
+        List<ReservationEventDTO> events = reservationEventService.listEvents(start, 10);
+
+        assertEquals(Arrays.asList(ReservationEvent.Type.CREATED, ReservationEvent.Type.UPDATED,
+                ReservationEvent.Type.DELETED),
+                events.stream().map(ReservationEventDTO::getType).collect(Collectors.toList()));
+        assertTrue(events.stream().allMatch(event -> created.getId().equals(event.getReservationId())));
+        assertEquals(LocalDate.now().plusDays(3), events.get(1).getInitialDate());
+        assertTrue(events.get(0).getSequence() < events.get(1).getSequence());
+        assertEquals(events.subList(1, 3), reservationEventService.listEvents(events.get(0).getSequence(), 10));
+        assertEquals(events.subList(0, 1), reservationEventService.listEvents(start, 1));
+    }
+
+    @Test
+    void rejectedWritesLeaveNoEvent() {
+        create(1, 2);
+
+        assertThrows(DatesNotAvailableForReservationException.class, () -> create(2, 3));
+
+        assertEquals(1, reservationEventService.listEvents(start, 10).size());
+    }
+
+    @Test
+    void openTransactionsHoldTheFeedBack() {
+        transactionTemplate.executeWithoutResult(status -> {
+            create(1, 2);
+            assertTrue(reservationEventService.listEvents(start, 10).isEmpty());
+        });
+
+        assertEquals(1, reservationEventService.listEvents(start, 10).size());
+    }
+
+    @Test
+    void awaitEventsCompletesOnWrite() throws Exception {
+        CompletableFuture<List<ReservationEventDTO>> events =
+                reservationEventService.awaitEvents(start, 10, Duration.ofSeconds(10));
+        assertFalse(events.isDone());
+
+        ReservationDTO created = create(1, 2);
+
+        List<ReservationEventDTO> received = events.get(5, TimeUnit.SECONDS);
+        assertEquals(1, received.size());
+        assertEquals(created.getId(), received.get(0).getReservationId());
+    }
+
+    @Test
+    void awaitEventsTimesOutEmpty() throws Exception {
+        CompletableFuture<List<ReservationEventDTO>> events =
+                reservationEventService.awaitEvents(start, 10, Duration.ofMillis(100));
+
+        assertTrue(events.get(5, TimeUnit.SECONDS).isEmpty());
+    }
+
+    @Test
+    void rolledBackWritesDoNotBlockTheFeed() throws Exception {
+        CompletableFuture<List<ReservationEventDTO>> events =
+                reservationEventService.awaitEvents(start, 10, Duration.ofSeconds(10));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            create(1, 2);
+            status.setRollbackOnly();
+        });
+        create(3, 4);
+
+        List<ReservationEventDTO> received = events.get(5, TimeUnit.SECONDS);
+        assertEquals(1, received.size());
+        assertEquals(LocalDate.now().plusDays(3), received.get(0).getInitialDate());
+    }
+
+    @Test
+    void gapsHoldTheFeedBackUntilTheyTimeOut() throws Exception {
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // an event of another instance, whose id is taken but not committed yet
+            Future<?> otherInstance = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                reservationEventRepository.save(ReservationEvent.of(ReservationEvent.Type.CREATED,
+                        new Reservation(0L, LocalDate.now().plusDays(5), LocalDate.now().plusDays(6))));
+                saved.countDown();
+                try {
+                    assertTrue(release.await(10, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(saved.await(5, TimeUnit.SECONDS));
+
+            ReservationDTO created = create(1, 2);
+            assertTrue(reservationEventService.listEvents(start, 10).isEmpty());
+
+            List<ReservationEventDTO> received = reservationEventService
+                    .awaitEvents(start, 10, Duration.ofSeconds(10))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(1, received.size());
+            assertEquals(created.getId(), received.get(0).getReservationId());
+
+            release.countDown();
+            otherInstance.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void purgeExpiredKeepsRecentEvents() {
+        create(1, 2);
+
+        assertEquals(0, reservationEventServiceImpl.purgeExpired());
+        assertTrue(reservationEventRepository.count() > 0);
+    }
+}
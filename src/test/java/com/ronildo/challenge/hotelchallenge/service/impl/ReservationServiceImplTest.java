@@ -1,22 +1,47 @@
 package com.ronildo.challenge.hotelchallenge.service.impl;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent;
+import com.ronildo.challenge.hotelchallenge.data.entity.Room;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
 import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomRepository;
 import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.InvalidPeriodException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationModifiedException;
 import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomNotFoundException;
 import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityCache;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.availability.BookingCalendar;
+import com.ronildo.challenge.hotelchallenge.service.dto.AvailabilityCalendarDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO.Status;
 import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.SuggestedStayDTO;
+import com.ronildo.challenge.hotelchallenge.service.events.ReservationOutbox;
+import com.ronildo.challenge.hotelchallenge.service.json.JsonBuffer;
 import com.ronildo.challenge.hotelchallenge.service.mapper.ReservationMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
 import java.time.LocalDate;
 import java.util.*;
 
+import static com.ronildo.challenge.hotelchallenge.data.shard.HotelContext.DEFAULT_HOTEL;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -25,12 +50,45 @@ class ReservationServiceImplTest {
     @MockBean
     ReservationRepository reservationRepository;
 
+    @MockBean
+    OccupiedDateRepository occupiedDateRepository;
+
+    @MockBean
+    RoomRepository roomRepository;
+
+    @MockBean
+    ReservationOutbox reservationOutbox;
+
     @Autowired
     IReservationService reservationService;
 
     @Autowired
     ReservationMapper reservationMapper;
 
+    @Autowired
+    AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    AvailabilityCache availabilityCache;
+
+    @Autowired
+    BookingCalendar bookingCalendar;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clearAvailability() {
+        availabilityIndex.load(Collections.emptyList());
+        bookingCalendar.load(Collections.emptyList());
+        availabilityCache.invalidateAll();
+    }
+
+    private void store(Reservation reservation) {
+        availabilityIndex.put(reservation);
+        bookingCalendar.claim(reservation.getRoomId(), reservation.getInitialDate(), reservation.getFinalDate());
+    }
+
     @Test
     void listAllReservations() {
         ReservationDTO expected1 = new ReservationDTO(1L, LocalDate.now(), LocalDate.now());
@@ -38,19 +96,62 @@ class ReservationServiceImplTest {
         ReservationDTO expected3 = new ReservationDTO(3L, LocalDate.now().plusDays(6), LocalDate.now().plusDays(7));
         List<ReservationDTO> expected = Arrays.asList(expected1, expected2, expected3);
 
-        when(reservationRepository.findAll())
-                .thenReturn(reservationMapper.mapReservationDTOToReservation(expected));
+        when(reservationRepository.findByHotelId(DEFAULT_HOTEL))
+                .thenReturn((List<Reservation>) reservationMapper.mapReservationDTOToReservation(expected));
 
         List<ReservationDTO> found = reservationService.listAllReservations();
 
         assertEquals(expected, found);
     }
 
+    @Test
+    void listAllReservationsAsJson() throws Exception {
+        List<ReservationDTO> expected = Arrays.asList(
+                new ReservationDTO(1L, LocalDate.now(), LocalDate.now()),
+                new ReservationDTO(2L, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5), 4L));
+
+        when(reservationRepository.findByHotelId(DEFAULT_HOTEL))
+                .thenReturn((List<Reservation>) reservationMapper.mapReservationDTOToReservation(expected));
+
+        try (JsonBuffer json = reservationService.listAllReservationsAsJson()) {
+            assertEquals(objectMapper.writeValueAsString(expected), json.toString());
+        }
+    }
+
+    @Test
+    void listReservationsPage() {
+        ReservationDTO expected1 = new ReservationDTO(4L, LocalDate.now(), LocalDate.now().plusDays(1));
+        ReservationDTO expected2 = new ReservationDTO(7L, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5));
+        List<ReservationDTO> expected = Arrays.asList(expected1, expected2);
+
+        when(reservationRepository.findPage(DEFAULT_HOTEL, 3L, LocalDate.now(), null, PageRequest.of(0, 2)))
+                .thenReturn((List<Reservation>) reservationMapper.mapReservationDTOToReservation(expected));
+
+        List<ReservationDTO> found = reservationService.listReservations(3L, LocalDate.now(), null, 2);
+
+        assertEquals(expected, found);
+    }
+
+    @Test
+    void streamReservations() {
+        ReservationDTO expected1 = new ReservationDTO(1L, LocalDate.now(), LocalDate.now().plusDays(1));
+        ReservationDTO expected2 = new ReservationDTO(2L, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5));
+        List<ReservationDTO> expected = Arrays.asList(expected1, expected2);
+
+        when(reservationRepository.streamAll(DEFAULT_HOTEL, null, null))
+                .thenReturn(reservationMapper.mapReservationDTOToReservation(expected).stream());
+
+        List<ReservationDTO> found = new ArrayList<>();
+        reservationService.streamReservations(null, null, found::add);
+
+        assertEquals(expected, found);
+    }
+
     @Test
     void findOneByIdFound() {
         ReservationDTO expected = new ReservationDTO(1L, LocalDate.now(), LocalDate.now());
 
-        when(reservationRepository.findById(any(Long.class)))
+        when(reservationRepository.findByIdAndHotelId(any(Long.class), eq(DEFAULT_HOTEL)))
                 .thenReturn(Optional.of(reservationMapper.mapReservationDTOToReservation(expected)));
 
         ReservationDTO found = reservationService.findOneById(1L);
@@ -60,7 +161,7 @@ class ReservationServiceImplTest {
 
     @Test
     void findOneByIdNotFound() {
-        when(reservationRepository.findById(any(Long.class)))
+        when(reservationRepository.findByIdAndHotelId(any(Long.class), eq(DEFAULT_HOTEL)))
                 .thenReturn(Optional.empty());
 
         Throwable exception = assertThrows(ReservationNotFoundException.class, () -> reservationService.findOneById(1L));
@@ -70,8 +171,7 @@ class ReservationServiceImplTest {
 
     @Test
     void checkAvailability() {
-        when(reservationRepository.checkReservationInPeriod(any(LocalDate.class), any(LocalDate.class), any()))
-                .thenReturn(new ArrayList<>());
+        availabilityIndex.put(new Reservation(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3)));
 
         Boolean found = reservationService.checkAvailability(LocalDate.now(), LocalDate.now(), null);
 
@@ -80,14 +180,133 @@ class ReservationServiceImplTest {
 
     @Test
     void checkAvailabilityNotAvailable() {
-        when(reservationRepository.checkReservationInPeriod(any(LocalDate.class), any(LocalDate.class), any()))
-                .thenReturn(Collections.singletonList(new Reservation()));
+        availabilityIndex.put(new Reservation(1L, LocalDate.now().minusDays(1), LocalDate.now().plusDays(1)));
 
         Boolean found = reservationService.checkAvailability(LocalDate.now(), LocalDate.now(), null);
 
         assertEquals(Boolean.FALSE, found);
     }
 
+    @Test
+    void checkAvailabilityInvalidatedByCreate() {
+        LocalDate initialDate = LocalDate.now().plusDays(2);
+        when(reservationRepository.save(any()))
+                .thenAnswer(i -> {
+                    ((Reservation)i.getArgument(0)).setId(5L);
+                    return i.getArgument(0);
+                });
+
+        assertEquals(Boolean.TRUE, reservationService.checkAvailability(initialDate, initialDate.plusDays(1), null));
+
+        reservationService.createReservation(new ReservationDTO(null, initialDate.plusDays(1), initialDate.plusDays(3)));
+
+        assertEquals(Boolean.FALSE, reservationService.checkAvailability(initialDate, initialDate.plusDays(1), null));
+    }
+
+    @Test
+    void createReservationsReportsEachItem() {
+        LocalDate today = LocalDate.now();
+        store(new Reservation(9L, today.plusDays(10), today.plusDays(11)));
+        List<ReservationDTO> batch = Arrays.asList(
+                new ReservationDTO(null, today.plusDays(1), today.plusDays(2)),
+                new ReservationDTO(null, today.plusDays(2), today.plusDays(3)),
+                new ReservationDTO(null, today.plusDays(11), today.plusDays(12)),
+                new ReservationDTO(null, today.plusDays(5), today.plusDays(9)),
+                new ReservationDTO(null, null, today.plusDays(6)),
+                new ReservationDTO(null, today.plusDays(5), today.plusDays(6)));
+
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> {
+            Iterable<Reservation> reservations = invocation.getArgument(0);
+            long id = 1;
+            for (Reservation reservation : reservations) {
+                reservation.setId(id++);
+            }
+            return reservations;
+        });
+
+        List<BulkReservationResultDTO> results = reservationService.createReservations(batch);
+
+        assertEquals(new BulkReservationResultDTO(0, Status.CREATED,
+                new ReservationDTO(1L, today.plusDays(1), today.plusDays(2)), null), results.get(0));
+        assertEquals(new BulkReservationResultDTO(1, Status.CONFLICT, batch.get(1),
+                "The dates overlap a previous reservation of the batch"), results.get(1));
+        assertEquals(new BulkReservationResultDTO(2, Status.CONFLICT, batch.get(2),
+                "Dates are not available for reservation"), results.get(2));
+        assertEquals(new BulkReservationResultDTO(3, Status.INVALID, batch.get(3),
+                "The stay can’t be longer than 3 days"), results.get(3));
+        assertEquals(new BulkReservationResultDTO(4, Status.INVALID, batch.get(4),
+                "initialDate is mandatory"), results.get(4));
+        assertEquals(new BulkReservationResultDTO(5, Status.CREATED,
+                new ReservationDTO(2L, today.plusDays(5), today.plusDays(6)), null), results.get(5));
+        assertFalse(reservationService.checkAvailability(today.plusDays(5), today.plusDays(6), null));
+    }
+
+    @Test
+    void createReservationsChecksConflictsPerRoom() {
+        LocalDate today = LocalDate.now();
+        List<ReservationDTO> batch = Arrays.asList(
+                new ReservationDTO(null, today.plusDays(1), today.plusDays(2)),
+                new ReservationDTO(null, today.plusDays(1), today.plusDays(2), 7L),
+                new ReservationDTO(null, today.plusDays(2), today.plusDays(3), 7L),
+                new ReservationDTO(null, today.plusDays(1), today.plusDays(2), 8L));
+
+        when(roomRepository.findByHotelIdAndIdIn(eq(DEFAULT_HOTEL), any()))
+                .thenReturn(Collections.singletonList(new Room(7L, "101", 1L)));
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Status> statuses = new ArrayList<>();
+        reservationService.createReservations(batch).forEach(result -> statuses.add(result.getStatus()));
+
+        assertEquals(Arrays.asList(Status.CREATED, Status.CREATED, Status.CONFLICT, Status.INVALID), statuses);
+        assertFalse(bookingCalendar.isFree(today.plusDays(1), today.plusDays(2)));
+    }
+
+    @Test
+    void createReservationsReleasesTheCalendarWhenTheDatabaseRejectsTheBatch() {
+        LocalDate initialDate = LocalDate.now().plusDays(1);
+        LocalDate finalDate = LocalDate.now().plusDays(2);
+
+        when(occupiedDateRepository.saveAllAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_occupied_date"));
+
+        assertThrows(DatesNotAvailableForReservationException.class, () -> reservationService.createReservations(
+                Collections.singletonList(new ReservationDTO(null, initialDate, finalDate))));
+        assertTrue(bookingCalendar.isFree(initialDate, finalDate));
+        assertTrue(reservationService.checkAvailability(initialDate, finalDate, null));
+    }
+
+    @Test
+    void availabilityCalendar() {
+        LocalDate today = LocalDate.now();
+        store(new Reservation(1L, today.plusDays(3), today.plusDays(5)));
+        store(new Reservation(2L, today.plusDays(8), today.plusDays(9)));
+
+        AvailabilityCalendarDTO calendar = reservationService.getAvailabilityCalendar(today, today.plusDays(10));
+
+        assertEquals(today, calendar.getFromDate());
+        assertEquals(today.plusDays(10), calendar.getToDate());
+        assertEquals("00011100110", calendar.getOccupancy());
+        assertEquals("01000010001", calendar.getBookableStarts());
+    }
+
+    @Test
+    void availabilityCalendarDefaultsToTheBookingHorizon() {
+        AvailabilityCalendarDTO calendar = reservationService.getAvailabilityCalendar(null, null);
+
+        assertEquals(LocalDate.now().plusDays(1), calendar.getFromDate());
+        assertEquals(LocalDate.now().plusDays(30), calendar.getToDate());
+        assertEquals("000000000000000000000000000000", calendar.getOccupancy());
+        assertEquals("111111111111111111111111111110", calendar.getBookableStarts());
+    }
+
+    @Test
+    void availabilityCalendarInvalidPeriod() {
+        assertThrows(InvalidPeriodException.class,
+                () -> reservationService.getAvailabilityCalendar(LocalDate.now().plusDays(5), LocalDate.now()));
+        assertThrows(InvalidPeriodException.class,
+                () -> reservationService.getAvailabilityCalendar(LocalDate.now(), LocalDate.now().plusYears(2)));
+    }
+
     @Test
     void createReservationSuccess() {
         ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
@@ -102,27 +321,162 @@ class ReservationServiceImplTest {
         assertNotNull(found.getId());
         assertEquals(input.getInitialDate(), found.getInitialDate());
         assertEquals(input.getFinalDate(), found.getFinalDate());
+        assertFalse(availabilityIndex.isAvailable(input.getInitialDate(), input.getFinalDate(), null));
+        assertFalse(bookingCalendar.isFree(input.getInitialDate(), input.getFinalDate()));
+        verify(reservationOutbox).append(eq(ReservationEvent.Type.CREATED), argThat(r -> r.getId() == 5L));
     }
 
     @Test
     void createReservationNotAvailableDates() {
         ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
 
-        when(reservationRepository.checkReservationInPeriod(any(), any(), any()))
-                .thenReturn(Collections.singletonList(new Reservation()));
+        store(new Reservation(1L, LocalDate.now().plusDays(4), LocalDate.now().plusDays(6)));
+
+        Throwable exception = assertThrows(DatesNotAvailableForReservationException.class,
+                () -> reservationService.createReservation(input));
+
+        assertEquals("Dates are not available for reservation", exception.getMessage());
+    }
+
+    @Test
+    void createReservationNotAvailableDatesSuggestsNearestStays() {
+        store(new Reservation(1L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4)));
+
+        DatesNotAvailableForReservationException exception = assertThrows(DatesNotAvailableForReservationException.class,
+                () -> reservationService.createReservation(
+                        new ReservationDTO(null, LocalDate.now().plusDays(3), LocalDate.now().plusDays(4))));
+
+        assertEquals(Arrays.asList(stay(5, 6), stay(6, 7), stay(7, 8)), exception.getSuggestions());
+    }
+
+    @Test
+    void suggestStaysAroundTheRequestedOne() {
+        store(new Reservation(1L, LocalDate.now().plusDays(4), LocalDate.now().plusDays(8)));
+
+        List<SuggestedStayDTO> suggestions = reservationService.suggestStays(
+                LocalDate.now().plusDays(5), LocalDate.now().plusDays(7), null, 3);
+
+        assertEquals(Arrays.asList(stay(1, 3), stay(9, 11), stay(10, 12)), suggestions);
+    }
+
+    @Test
+    void suggestStaysWithinTheBookableDays() {
+        store(new Reservation(1L, LocalDate.now().plusDays(28), LocalDate.now().plusDays(30)));
+
+        List<SuggestedStayDTO> suggestions = reservationService.suggestStays(
+                LocalDate.now().plusDays(29), LocalDate.now().plusDays(30), null, 2);
+
+        assertEquals(Arrays.asList(stay(26, 27), stay(25, 26)), suggestions);
+        assertEquals(26, reservationService.suggestStays(
+                LocalDate.now().minusDays(3), LocalDate.now().minusDays(2), null, 100).size());
+    }
+
+    @Test
+    void suggestStaysOfInvalidLength() {
+        assertThrows(InvalidPeriodException.class, () -> reservationService.suggestStays(
+                LocalDate.now().plusDays(5), LocalDate.now().plusDays(9), null, 3));
+        assertThrows(InvalidPeriodException.class, () -> reservationService.suggestStays(
+                LocalDate.now().plusDays(5), LocalDate.now().plusDays(5), null, 3));
+    }
+
+    private static SuggestedStayDTO stay(int fromDay, int toDay) {
+        return new SuggestedStayDTO(LocalDate.now().plusDays(fromDay), LocalDate.now().plusDays(toDay), null);
+    }
+
+    @Test
+    void createReservationDatesTakenConcurrently() {
+        ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
+        when(reservationRepository.save(any()))
+                .thenAnswer(i -> i.getArgument(0));
+        when(occupiedDateRepository.saveAllAndFlush(any()))
+                .thenThrow(new DataIntegrityViolationException("uk_occupied_date"));
 
         Throwable exception = assertThrows(DatesNotAvailableForReservationException.class,
                 () -> reservationService.createReservation(input));
 
         assertEquals("Dates are not available for reservation", exception.getMessage());
+        assertTrue(bookingCalendar.isFree(input.getInitialDate(), input.getFinalDate()));
+    }
+
+    @Test
+    void createReservationDatesTakenOnAnotherInstance() {
+        ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
+        when(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null,
+                input.getInitialDate(), input.getFinalDate(), null)).thenReturn(true);
+
+        assertThrows(DatesNotAvailableForReservationException.class,
+                () -> reservationService.createReservation(input));
+        assertTrue(bookingCalendar.isFree(input.getInitialDate(), input.getFinalDate()));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void createReservationsChecksConflictsAgainstTheDatabase() {
+        LocalDate today = LocalDate.now();
+        List<ReservationDTO> batch = Arrays.asList(
+                new ReservationDTO(null, today.plusDays(1), today.plusDays(2)),
+                new ReservationDTO(null, today.plusDays(3), today.plusDays(4)));
+
+        when(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null,
+                today.plusDays(1), today.plusDays(2), null)).thenReturn(true);
+        when(reservationRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Status> statuses = new ArrayList<>();
+        reservationService.createReservations(batch).forEach(result -> statuses.add(result.getStatus()));
+
+        assertEquals(Arrays.asList(Status.CONFLICT, Status.CREATED), statuses);
+        assertTrue(bookingCalendar.isFree(today.plusDays(1), today.plusDays(2)));
+        assertFalse(bookingCalendar.isFree(today.plusDays(3), today.plusDays(4)));
+    }
+
+    @Test
+    void createReservationInARoom() {
+        ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4), 7L);
+        store(new Reservation(1L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4)));
+        store(new Reservation(2L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4), 8L));
+
+        when(roomRepository.existsByIdAndHotelId(7L, DEFAULT_HOTEL)).thenReturn(true);
+        when(reservationRepository.save(any()))
+                .thenAnswer(i -> {
+                    ((Reservation) i.getArgument(0)).setId(5L);
+                    return i.getArgument(0);
+                });
+
+        ReservationDTO found = reservationService.createReservation(input);
+
+        assertEquals(7L, found.getRoomId());
+        assertFalse(availabilityIndex.isAvailable(7L, input.getInitialDate(), input.getFinalDate(), null));
+    }
+
+    @Test
+    void createReservationInARoomNotAvailableDates() {
+        ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4), 7L);
+        store(new Reservation(1L, LocalDate.now().plusDays(4), LocalDate.now().plusDays(6), 7L));
+
+        when(roomRepository.existsByIdAndHotelId(7L, DEFAULT_HOTEL)).thenReturn(true);
+
+        assertThrows(DatesNotAvailableForReservationException.class,
+                () -> reservationService.createReservation(input));
+        assertTrue(bookingCalendar.isFree(input.getInitialDate(), input.getFinalDate()));
+    }
+
+    @Test
+    void createReservationInAnUnknownRoom() {
+        ReservationDTO input = new ReservationDTO(null, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4), 7L);
+
+        Throwable exception = assertThrows(RoomNotFoundException.class,
+                () -> reservationService.createReservation(input));
+
+        assertEquals("Could not find room 7", exception.getMessage());
     }
 
     @Test
     void updateReservationSuccess() {
         ReservationDTO input = new ReservationDTO(4L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
         Reservation entityDB = new Reservation(4L, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5));
+        store(entityDB);
 
-        when(reservationRepository.findById(4L))
+        when(reservationRepository.findByIdAndHotelId(4L, DEFAULT_HOTEL))
                 .thenReturn(Optional.of(entityDB));
         when(reservationRepository.save(any()))
                 .thenAnswer(i -> i.getArgument(0) );
@@ -132,14 +486,59 @@ class ReservationServiceImplTest {
         assertEquals(input.getId(), found.getId());
         assertEquals(input.getInitialDate(), found.getInitialDate());
         assertEquals(input.getFinalDate(), found.getFinalDate());
+        assertTrue(bookingCalendar.isFree(LocalDate.now().plusDays(5), LocalDate.now().plusDays(5)));
+    }
+
+    @Test
+    void updateReservationOfAnotherVersion() {
+        ReservationDTO input = new ReservationDTO(4L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4), null, 1L);
+        Reservation entityDB = new Reservation(4L, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5), null, DEFAULT_HOTEL, 2L);
+        store(entityDB);
+
+        when(reservationRepository.findByIdAndHotelId(4L, DEFAULT_HOTEL))
+                .thenReturn(Optional.of(entityDB));
+
+        assertThrows(ReservationModifiedException.class, () -> reservationService.updateReservation(4L, input));
+        assertFalse(bookingCalendar.isFree(entityDB.getInitialDate(), entityDB.getFinalDate()));
+    }
+
+    @Test
+    void findVersionById() {
+        when(reservationRepository.findVersionById(DEFAULT_HOTEL, 4L)).thenReturn(Optional.of(3L));
+
+        assertEquals(3L, reservationService.findVersionById(4L));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.findVersionById(5L));
+    }
+
+    @Test
+    void updateReservationMovesItToARoom() {
+        ReservationDTO input = new ReservationDTO(4L, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5), 7L);
+        Reservation entityDB = new Reservation(4L, LocalDate.now().plusDays(3), LocalDate.now().plusDays(5));
+        store(entityDB);
+
+        when(roomRepository.existsByIdAndHotelId(7L, DEFAULT_HOTEL)).thenReturn(true);
+        when(reservationRepository.findByIdAndHotelId(4L, DEFAULT_HOTEL))
+                .thenReturn(Optional.of(entityDB));
+        when(reservationRepository.save(any()))
+                .thenAnswer(i -> i.getArgument(0));
+
+        ReservationDTO found = reservationService.updateReservation(input.getId(), input);
+
+        assertEquals(7L, found.getRoomId());
+        assertTrue(bookingCalendar.isFree(input.getInitialDate(), input.getFinalDate()));
+        assertTrue(availabilityIndex.isAvailable(input.getInitialDate(), input.getFinalDate(), null));
+        assertFalse(availabilityIndex.isAvailable(7L, input.getInitialDate(), input.getFinalDate(), null));
     }
 
     @Test
     void updateReservationDatesNotAvailable() {
         ReservationDTO input = new ReservationDTO(4L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
+        Reservation entityDB = new Reservation(4L, LocalDate.now().plusDays(5), LocalDate.now().plusDays(6));
+        store(entityDB);
+        store(new Reservation(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2)));
 
-        when(reservationRepository.checkReservationInPeriod(any(), any(), any()))
-                .thenReturn(Collections.singletonList(new Reservation()));
+        when(reservationRepository.findByIdAndHotelId(4L, DEFAULT_HOTEL))
+                .thenReturn(Optional.of(entityDB));
 
         Throwable exception = assertThrows(DatesNotAvailableForReservationException.class,
                 () -> reservationService.updateReservation(input.getId(), input));
@@ -147,13 +546,28 @@ class ReservationServiceImplTest {
         assertEquals("Dates are not available for reservation", exception.getMessage());
     }
 
+    @Test
+    void updateReservationDatesTakenOnAnotherInstance() {
+        ReservationDTO input = new ReservationDTO(4L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
+        Reservation entityDB = new Reservation(4L, LocalDate.now().plusDays(5), LocalDate.now().plusDays(6));
+        store(entityDB);
+
+        when(reservationRepository.findByIdAndHotelId(4L, DEFAULT_HOTEL))
+                .thenReturn(Optional.of(entityDB));
+        when(reservationRepository.existsOverlapping(DEFAULT_HOTEL, null,
+                input.getInitialDate(), input.getFinalDate(), 4L)).thenReturn(true);
+
+        assertThrows(DatesNotAvailableForReservationException.class,
+                () -> reservationService.updateReservation(input.getId(), input));
+        assertTrue(bookingCalendar.isFree(input.getInitialDate(), input.getFinalDate()));
+        assertFalse(bookingCalendar.isFree(entityDB.getInitialDate(), entityDB.getFinalDate()));
+    }
+
     @Test
     void updateReservationNotFound() {
         ReservationDTO input = new ReservationDTO(4L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
 
-        when(reservationRepository.checkReservationInPeriod(any(), any(), any()))
-                .thenReturn(new ArrayList<>());
-        when(reservationRepository.findById(any()))
+        when(reservationRepository.findByIdAndHotelId(any(), eq(DEFAULT_HOTEL)))
                 .thenReturn(Optional.empty());
 
         Throwable exception = assertThrows(ReservationNotFoundException.class,
@@ -166,15 +580,21 @@ class ReservationServiceImplTest {
     void deleteReservationSuccess() {
         Reservation entityDB = new Reservation(4L, LocalDate.now().plusDays(2), LocalDate.now().plusDays(4));
 
-        when(reservationRepository.findById(4L))
+        when(reservationRepository.findByIdAndHotelId(4L, DEFAULT_HOTEL))
                 .thenReturn(Optional.of(entityDB));
 
+        store(entityDB);
+
         reservationService.deleteReservation(entityDB.getId());
+
+        assertTrue(availabilityIndex.isAvailable(entityDB.getInitialDate(), entityDB.getFinalDate(), null));
+        assertTrue(bookingCalendar.isFree(entityDB.getInitialDate(), entityDB.getFinalDate()));
+        verify(reservationOutbox).append(ReservationEvent.Type.DELETED, entityDB);
     }
 
     @Test
     void deleteReservationNotFound() {
-        when(reservationRepository.findById(4L))
+        when(reservationRepository.findByIdAndHotelId(4L, DEFAULT_HOTEL))
                 .thenReturn(Optional.empty());
 
         Throwable exception = assertThrows(ReservationNotFoundException.class,
@@ -0,0 +1,118 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.Room;
+import com.ronildo.challenge.hotelchallenge.data.entity.RoomType;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomTypeRepository;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.InvalidPeriodException;
+import com.ronildo.challenge.hotelchallenge.exception.RoomTypeNotFoundException;
+import com.ronildo.challenge.hotelchallenge.service.IRoomService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndex;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.RoomTypeDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.ronildo.challenge.hotelchallenge.data.shard.HotelContext.DEFAULT_HOTEL;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class RoomServiceImplTest {
+
+    @MockBean
+    RoomTypeRepository roomTypeRepository;
+
+    @MockBean
+    RoomRepository roomRepository;
+
+    @Autowired
+    IRoomService roomService;
+
+    @Autowired
+    AvailabilityIndex availabilityIndex;
+
+    @BeforeEach
+    void clearAvailability() {
+        availabilityIndex.load(Collections.emptyList());
+    }
+
+    @Test
+    void createRoomType() {
+        when(roomTypeRepository.save(any()))
+                .thenAnswer(i -> {
+                    ((RoomType) i.getArgument(0)).setId(1L);
+                    return i.getArgument(0);
+                });
+
+        assertEquals(new RoomTypeDTO(1L, "Double"), roomService.createRoomType(new RoomTypeDTO(null, "Double")));
+    }
+
+    @Test
+    void createRoom() {
+        when(roomTypeRepository.existsByIdAndHotelId(1L, DEFAULT_HOTEL)).thenReturn(true);
+        when(roomRepository.save(any()))
+                .thenAnswer(i -> {
+                    ((Room) i.getArgument(0)).setId(3L);
+                    return i.getArgument(0);
+                });
+
+        assertEquals(new RoomDTO(3L, "101", 1L), roomService.createRoom(new RoomDTO(null, "101", 1L)));
+    }
+
+    @Test
+    void createRoomOfAnUnknownType() {
+        Throwable exception = assertThrows(RoomTypeNotFoundException.class,
+                () -> roomService.createRoom(new RoomDTO(null, "101", 1L)));
+
+        assertEquals("Could not find room type 1", exception.getMessage());
+    }
+
+    @Test
+    void listRoomsOfAType() {
+        List<Room> rooms = Arrays.asList(new Room(3L, "101", 1L), new Room(4L, "102", 1L));
+        when(roomRepository.findByHotelIdAndRoomTypeIdOrderById(DEFAULT_HOTEL, 1L)).thenReturn(rooms);
+
+        assertEquals(Arrays.asList(new RoomDTO(3L, "101", 1L), new RoomDTO(4L, "102", 1L)),
+                roomService.listRooms(1L));
+    }
+
+    @Test
+    void findFreeRoom() {
+        LocalDate today = LocalDate.now();
+        availabilityIndex.put(new Reservation(1L, today.plusDays(2), today.plusDays(4), 3L));
+        availabilityIndex.put(new Reservation(2L, today.plusDays(1), today.plusDays(2), 4L));
+
+        when(roomTypeRepository.existsByIdAndHotelId(1L, DEFAULT_HOTEL)).thenReturn(true);
+        when(roomRepository.findIdsByRoomTypeId(DEFAULT_HOTEL, 1L)).thenReturn(Arrays.asList(3L, 4L));
+        when(roomRepository.findByIdAndHotelId(4L, DEFAULT_HOTEL)).thenReturn(Optional.of(new Room(4L, "102", 1L)));
+
+        assertEquals(new RoomDTO(4L, "102", 1L), roomService.findFreeRoom(1L, today.plusDays(3), today.plusDays(5)));
+        assertThrows(DatesNotAvailableForReservationException.class,
+                () -> roomService.findFreeRoom(1L, today.plusDays(2), today.plusDays(3)));
+    }
+
+    @Test
+    void findFreeRoomInvalidPeriod() {
+        assertThrows(InvalidPeriodException.class,
+                () -> roomService.findFreeRoom(1L, LocalDate.now().plusDays(3), LocalDate.now().plusDays(1)));
+    }
+
+    @Test
+    void findFreeRoomOfAnUnknownType() {
+        assertThrows(RoomTypeNotFoundException.class,
+                () -> roomService.findFreeRoom(1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(3)));
+    }
+}
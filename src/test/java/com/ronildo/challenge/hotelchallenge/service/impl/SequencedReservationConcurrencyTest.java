@@ -0,0 +1,7 @@
+package com.ronildo.challenge.hotelchallenge.service.impl;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = "reservation.writes.mode=sequenced")
+class SequencedReservationConcurrencyTest extends ReservationConcurrencyTest {
+}
@@ -0,0 +1,160 @@
+package com.ronildo.challenge.hotelchallenge.service.journal;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.data.entity.ReservationEvent.Type;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationJournalTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    @TempDir
+    Path directory;
+
+    private static Reservation reservation(long id, int fromDay, int toDay, Long roomId, long version) {
+        return new Reservation(id, TODAY.plusDays(fromDay), TODAY.plusDays(toDay), roomId, "acme", version);
+    }
+
+    private static long append(ReservationJournal journal, Type type, Reservation... reservations) {
+        return journal.append(type, "acme", Arrays.asList(reservations));
+    }
+
+    private static Map<Long, Reservation> recover(ReservationJournal journal, long[] nextId) throws IOException {
+        Map<Long, Reservation> reservations = new TreeMap<>();
+        nextId[0] = journal.recover((type, reservation) -> {
+            if (type == Type.DELETED) {
+                reservations.remove(reservation.getId());
+            } else {
+                reservations.put(reservation.getId(), reservation);
+            }
+        });
+        return reservations;
+    }
+
+    private List<String> files() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    void replaysTheChangesAfterTheLatestSnapshot() throws IOException {
+        long[] nextId = new long[1];
+        try (ReservationJournal journal = new ReservationJournal(directory, 4096, true)) {
+            assertTrue(recover(journal, nextId).isEmpty());
+            assertEquals(1, nextId[0]);
+
+            append(journal, Type.CREATED, reservation(1, 1, 2, null, 0), reservation(2, 3, 4, 7L, 0));
+            long snapshot = journal.startSnapshot();
+            journal.writeSnapshot(snapshot, 3, Collections.singletonMap("acme",
+                    Arrays.asList(reservation(1, 1, 2, null, 0), reservation(2, 3, 4, 7L, 0))));
+            append(journal, Type.UPDATED, reservation(2, 5, 6, null, 1));
+            journal.awaitDurable(append(journal, Type.DELETED, reservation(1, 1, 2, null, 0)));
+        }
+
+        try (ReservationJournal journal = new ReservationJournal(directory, 4096, true)) {
+            Map<Long, Reservation> recovered = recover(journal, nextId);
+
+            assertEquals(Collections.singletonMap(2L, reservation(2, 5, 6, null, 1)), recovered);
+            assertEquals(1L, recovered.get(2L).getVersion());
+            assertEquals("acme", recovered.get(2L).getHotelId());
+            assertEquals(3, nextId[0]);
+        }
+    }
+
+    @Test
+    void snapshotsDropTheSegmentsTheyCover() throws IOException {
+        long[] nextId = new long[1];
+        try (ReservationJournal journal = new ReservationJournal(directory, 4096, true)) {
+            recover(journal, nextId);
+            append(journal, Type.CREATED, reservation(1, 1, 2, null, 0));
+            assertEquals(Collections.singletonList("journal-0000000000000001.log"), files());
+
+            long snapshot = journal.startSnapshot();
+            assertEquals(2, snapshot);
+            journal.writeSnapshot(snapshot, 2, Collections.singletonMap("acme",
+                    Collections.singletonList(reservation(1, 1, 2, null, 0))));
+
+            assertEquals(Arrays.asList("journal-0000000000000002.log", "snapshot-0000000000000002.bin"), files());
+            assertEquals(-1, journal.startSnapshot());
+        }
+    }
+
+    @Test
+    void rollsOverToANewSegmentWhenOneIsFull() throws IOException {
+        long[] nextId = new long[1];
+        try (ReservationJournal journal = new ReservationJournal(directory, 256, false)) {
+            recover(journal, nextId);
+            for (long id = 1; id <= 20; id++) {
+                append(journal, Type.CREATED, reservation(id, 1, 2, id, 0));
+            }
+            Reservation[] large = new Reservation[20];
+            for (int i = 0; i < large.length; i++) {
+                large[i] = reservation(100 + i, 3, 4, (long) i, 0);
+            }
+            append(journal, Type.CREATED, large);
+        }
+        assertTrue(files().size() > 2);
+
+        try (ReservationJournal journal = new ReservationJournal(directory, 256, false)) {
+            assertEquals(40, recover(journal, nextId).size());
+        }
+    }
+
+    @Test
+    void stopsAtATornRecord() throws IOException {
+        long[] nextId = new long[1];
+        try (ReservationJournal journal = new ReservationJournal(directory, 4096, true)) {
+            recover(journal, nextId);
+            append(journal, Type.CREATED, reservation(1, 1, 2, null, 0));
+            append(journal, Type.CREATED, reservation(2, 3, 4, null, 0));
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(
+                directory.resolve("journal-0000000000000001.log").toFile(), "rw")) {
+            // the second record starts after the 8 bytes of header and 43 of payload of the first
+            segment.seek(51 + 8 + 10);
+            segment.write(0xFF);
+        }
+
+        try (ReservationJournal journal = new ReservationJournal(directory, 4096, true)) {
+            assertEquals(Collections.singleton(1L), recover(journal, nextId).keySet());
+            journal.awaitDurable(append(journal, Type.CREATED, reservation(3, 5, 6, null, 0)));
+        }
+        try (ReservationJournal journal = new ReservationJournal(directory, 4096, true)) {
+            assertEquals(Arrays.asList(1L, 3L), Arrays.asList(recover(journal, nextId).keySet().toArray()));
+        }
+    }
+
+    @Test
+    void refusesToRecoverFromAnUnreadableSnapshot() throws IOException {
+        long[] nextId = new long[1];
+        try (ReservationJournal journal = new ReservationJournal(directory, 4096, true)) {
+            recover(journal, nextId);
+            append(journal, Type.CREATED, reservation(1, 1, 2, null, 0));
+            long snapshot = journal.startSnapshot();
+            journal.writeSnapshot(snapshot, 2, Collections.singletonMap("acme",
+                    Collections.singletonList(reservation(1, 1, 2, null, 0))));
+        }
+        Files.write(directory.resolve("snapshot-0000000000000002.bin"), new byte[]{1, 2, 3});
+
+        try (ReservationJournal journal = new ReservationJournal(directory, 4096, true)) {
+            assertThrows(IOException.class, () -> recover(journal, nextId));
+        }
+    }
+}
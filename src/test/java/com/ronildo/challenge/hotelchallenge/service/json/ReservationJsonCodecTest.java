@@ -0,0 +1,109 @@
+package com.ronildo.challenge.hotelchallenge.service.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.ronildo.challenge.hotelchallenge.data.entity.Reservation;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.mapper.ReservationMapper;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationJsonCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final ReservationMapper reservationMapper = Mappers.getMapper(ReservationMapper.class);
+    private final ReservationJsonCodec codec = new ReservationJsonCodec(2, 16384);
+
+    private String jackson(List<Reservation> reservations) throws Exception {
+        Collection<ReservationDTO> dtos = reservationMapper.mapReservationToReservationDTO(reservations);
+        return objectMapper.writeValueAsString(dtos);
+    }
+
+    private String encode(List<Reservation> reservations) {
+        try (JsonBuffer json = codec.encode(reservations)) {
+            return json.toString();
+        }
+    }
+
+    @Test
+    void writesWhatJacksonWrites() throws Exception {
+        LocalDate today = LocalDate.now();
+        List<Reservation> reservations = Arrays.asList(
+                new Reservation(1L, today.plusDays(1), today.plusDays(3)),
+                new Reservation(Long.MAX_VALUE, today, today, 12L),
+                new Reservation(null, today.minusDays(30), null),
+                new Reservation(-5L, null, today.plusDays(4), 0L));
+
+        assertEquals(jackson(reservations), encode(reservations));
+        assertEquals("[]", encode(Collections.emptyList()));
+    }
+
+    @Test
+    void formatsDatesOutsideTheCachedDays() throws Exception {
+        LocalDate today = LocalDate.now();
+        List<Reservation> reservations = Arrays.asList(
+                new Reservation(1L, today.minusDays(ReservationJsonCodec.CACHED_DAYS_BEFORE + 1),
+                        today.plusDays(ReservationJsonCodec.CACHED_DAYS_AFTER + 1)),
+                new Reservation(2L, LocalDate.of(1, 2, 3), LocalDate.of(9999, 12, 31)),
+                new Reservation(3L, LocalDate.of(10000, 1, 1), LocalDate.of(-1, 1, 1)));
+
+        assertEquals(jackson(reservations), encode(reservations));
+    }
+
+    @Test
+    void growsPastTheEstimatedSize() throws Exception {
+        List<Reservation> reservations = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            reservations.add(new Reservation(Long.MAX_VALUE - id, LocalDate.of(2021, 1, 1),
+                    LocalDate.of(2021, 1, 2), Long.MAX_VALUE - id));
+        }
+
+        try (JsonBuffer json = codec.encode(reservations)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            json.writeTo(out);
+            assertEquals(jackson(reservations), out.toString("UTF-8"));
+            assertEquals(out.size(), json.length());
+        }
+    }
+
+    @Test
+    void reusesClosedBuffers() {
+        List<Reservation> one = Collections.singletonList(new Reservation(1L, LocalDate.now(), LocalDate.now()));
+
+        JsonBuffer first = codec.encode(one);
+        first.close();
+        first.close();
+        JsonBuffer second = codec.encode(Collections.emptyList());
+        JsonBuffer third = codec.encode(Collections.emptyList());
+
+        assertSame(first, second);
+        assertNotSame(second, third);
+        assertEquals("[]", second.toString());
+    }
+
+    @Test
+    void dropsBuffersGrownPastTheLimit() {
+        List<Reservation> many = new ArrayList<>();
+        for (long id = 1; id <= 1000; id++) {
+            many.add(new Reservation(id, LocalDate.now(), LocalDate.now()));
+        }
+
+        JsonBuffer large = codec.encode(many);
+        large.close();
+
+        assertNotSame(large, codec.encode(Collections.emptyList()));
+    }
+}
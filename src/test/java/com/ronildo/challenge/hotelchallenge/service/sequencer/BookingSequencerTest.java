@@ -0,0 +1,177 @@
+package com.ronildo.challenge.hotelchallenge.service.sequencer;
+
+import com.ronildo.challenge.hotelchallenge.data.entity.Room;
+import com.ronildo.challenge.hotelchallenge.data.entity.RoomType;
+import com.ronildo.challenge.hotelchallenge.data.repository.OccupiedDateRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.ReservationRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomRepository;
+import com.ronildo.challenge.hotelchallenge.data.repository.RoomTypeRepository;
+import com.ronildo.challenge.hotelchallenge.exception.DatesNotAvailableForReservationException;
+import com.ronildo.challenge.hotelchallenge.exception.ReservationNotFoundException;
+import com.ronildo.challenge.hotelchallenge.exception.ServiceOverloadedException;
+import com.ronildo.challenge.hotelchallenge.service.IReservationService;
+import com.ronildo.challenge.hotelchallenge.service.availability.AvailabilityIndexSynchronizer;
+import com.ronildo.challenge.hotelchallenge.service.dto.BulkReservationResultDTO;
+import com.ronildo.challenge.hotelchallenge.service.dto.ReservationDTO;
+import com.ronildo.challenge.hotelchallenge.service.impl.ReservationServiceImpl;
+import com.ronildo.challenge.hotelchallenge.service.impl.SequencedReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "reservation.writes.mode=sequenced")
+class BookingSequencerTest {
+
+    private static final int COMMANDS = 40;
+
+    @Autowired
+    BookingSequencer bookingSequencer;
+
+    @Autowired
+    IReservationService reservationService;
+
+    @Autowired
+    ReservationRepository reservationRepository;
+
+    @Autowired
+    OccupiedDateRepository occupiedDateRepository;
+
+    @Autowired
+    RoomTypeRepository roomTypeRepository;
+
+    @Autowired
+    RoomRepository roomRepository;
+
+    @Autowired
+    AvailabilityIndexSynchronizer availabilityIndexSynchronizer;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ReservationServiceImpl reservationServiceImpl;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void clearReservations() {
+        occupiedDateRepository.deleteAll();
+        reservationRepository.deleteAll();
+        roomRepository.deleteAll();
+        roomTypeRepository.deleteAll();
+        availabilityIndexSynchronizer.load();
+    }
+
+    @Test
+    void writesGoThroughTheSequencer() {
+        assertTrue(reservationService instanceof SequencedReservationService);
+        LocalDate day = LocalDate.now().plusDays(5);
+
+        ReservationDTO created = reservationService.createReservation(new ReservationDTO(null, day, day.plusDays(1)));
+        assertThrows(DatesNotAvailableForReservationException.class,
+                () -> reservationService.createReservation(new ReservationDTO(null, day.plusDays(1), day.plusDays(2))));
+
+        ReservationDTO updated = reservationService.updateReservation(created.getId(),
+                new ReservationDTO(null, day.plusDays(2), day.plusDays(3)));
+        assertEquals(day.plusDays(2), updated.getInitialDate());
+        assertTrue(reservationService.checkAvailability(day, day.plusDays(1), null));
+
+        reservationService.deleteReservation(created.getId());
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.findOneById(created.getId()));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.deleteReservation(created.getId()));
+    }
+
+    @Test
+    void conflictsOfABatchAreDecidedInSubmissionOrder() throws Exception {
+        RoomType roomType = roomTypeRepository.save(new RoomType(null, "Double"));
+        Long roomId = roomRepository.save(new Room(null, "101", roomType.getId())).getId();
+
+        CountDownLatch applying = new CountDownLatch(1);
+        CountDownLatch submitted = new CountDownLatch(1);
+        CompletableFuture<List<BulkReservationResultDTO>> blocker = bookingSequencer.createAll(
+                new BlockingList(applying, submitted));
+        assertTrue(applying.await(10, TimeUnit.SECONDS));
+
+        List<CompletableFuture<ReservationDTO>> results = new ArrayList<>();
+        for (int i = 0; i < COMMANDS; i++) {
+            LocalDate day = LocalDate.now().plusDays(2 + i / 2);
+            results.add(bookingSequencer.create(new ReservationDTO(null, day, day, i % 4 < 2 ? roomId : null)));
+        }
+        submitted.countDown();
+        blocker.get(10, TimeUnit.SECONDS);
+
+        for (int i = 0; i < COMMANDS; i++) {
+            CompletableFuture<ReservationDTO> result = results.get(i);
+            if (i % 2 == 0) {
+                assertNotNull(result.get(10, TimeUnit.SECONDS).getId());
+            } else {
+                CompletionException e = assertThrows(CompletionException.class, result::join);
+                assertTrue(e.getCause() instanceof DatesNotAvailableForReservationException);
+            }
+        }
+        assertEquals(COMMANDS / 2, reservationRepository.count());
+        assertTrue(meterRegistry.get("reservation.sequencer.batch.size").summary().max() >= COMMANDS);
+        assertTrue(availabilityIndexSynchronizer.verifyConsistency());
+    }
+
+    @Test
+    void stoppingRefusesTheCommandsLeftInTheRing() throws Exception {
+        // never started, so every submitted command is left in the ring
+        BookingSequencer sequencer = new BookingSequencer(reservationServiceImpl, transactionTemplate,
+                new SimpleMeterRegistry(), 4, 4, Duration.ofSeconds(1));
+        LocalDate day = LocalDate.now().plusDays(5);
+        CompletableFuture<ReservationDTO> left = sequencer.create(new ReservationDTO(null, day, day.plusDays(1)));
+
+        sequencer.stop();
+
+        CompletionException e = assertThrows(CompletionException.class, left::join);
+        assertTrue(e.getCause() instanceof ServiceOverloadedException);
+        assertThrows(ServiceOverloadedException.class,
+                () -> sequencer.create(new ReservationDTO(null, day, day.plusDays(1))));
+        assertEquals(0, reservationRepository.count());
+    }
+
+    private static class BlockingList extends AbstractList<ReservationDTO> {
+
+        private final CountDownLatch applying;
+        private final CountDownLatch submitted;
+
+        BlockingList(CountDownLatch applying, CountDownLatch submitted) {
+            this.applying = applying;
+            this.submitted = submitted;
+        }
+
+        @Override
+        public ReservationDTO get(int index) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        @Override
+        public int size() {
+            applying.countDown();
+            try {
+                submitted.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ronildo.challenge.hotelchallenge.service.sequencer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandRingBufferTest {
+
+    private static void publish(CommandRingBuffer ring, long id) {
+        long sequence = ring.tryClaim();
+        ring.slot(sequence).set(BookingCommand.Type.DELETE, "default", id, null, null, null);
+        ring.publish(sequence);
+    }
+
+    @Test
+    void drainsInSequenceOrder() {
+        CommandRingBuffer ring = new CommandRingBuffer(8);
+        for (long id = 0; id < 5; id++) {
+            publish(ring, id);
+        }
+
+        List<BookingCommand> drained = new ArrayList<>();
+        assertEquals(3, ring.drainTo(drained, 3));
+        assertEquals(2, ring.drainTo(drained, 3));
+        assertEquals(0, ring.drainTo(drained, 3));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, drained.get(i).id);
+        }
+    }
+
+    @Test
+    void stopsAtTheFirstSlotNotPublished() {
+        CommandRingBuffer ring = new CommandRingBuffer(8);
+        long first = ring.tryClaim();
+        publish(ring, 1);
+
+        List<BookingCommand> drained = new ArrayList<>();
+        assertEquals(0, ring.drainTo(drained, 8));
+
+        ring.slot(first).set(BookingCommand.Type.DELETE, "default", 0L, null, null, null);
+        ring.publish(first);
+        assertEquals(2, ring.drainTo(drained, 8));
+    }
+
+    @Test
+    void refusesClaimsUntilSlotsAreReleased() {
+        CommandRingBuffer ring = new CommandRingBuffer(4);
+        for (long id = 0; id < 4; id++) {
+            publish(ring, id);
+        }
+        assertEquals(-1, ring.tryClaim());
+        assertEquals(4, ring.pending());
+
+        List<BookingCommand> drained = new ArrayList<>();
+        ring.drainTo(drained, 2);
+        assertEquals(-1, ring.tryClaim());
+
+        ring.release();
+        assertNull(drained.get(0).id);
+        assertEquals(2, ring.pending());
+        publish(ring, 4);
+        publish(ring, 5);
+        assertEquals(-1, ring.tryClaim());
+
+        drained.clear();
+        assertEquals(4, ring.drainTo(drained, 8));
+        assertEquals(5L, drained.get(3).id);
+    }
+
+    @Test
+    void needsAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new CommandRingBuffer(0));
+        assertThrows(IllegalArgumentException.class, () -> new CommandRingBuffer(12));
+    }
+}